@@ -0,0 +1,24 @@
+package io.github.ejif.geometry;
+
+import lombok.Data;
+
+/**
+ * A representation of a Delaunay triangulation, the dual of a Voronoi diagram. Edges and triangles
+ * reference points by index and are stored in flat arrays: edge i joins points edges[2i] and
+ * edges[2i + 1], where edges[2i] &lt; edges[2i + 1], and triangle i has the points triangles[3i],
+ * triangles[3i + 1] and triangles[3i + 2], in counterclockwise order.
+ */
+@Data
+public final class DelaunayTriangulation {
+
+    private final int[] edges;
+    private final int[] triangles;
+
+    public int getNumEdges() {
+        return edges.length / 2;
+    }
+
+    public int getNumTriangles() {
+        return triangles.length / 3;
+    }
+}
@@ -0,0 +1,69 @@
+package io.github.ejif.geometry;
+
+import lombok.Data;
+
+/**
+ * An affine transform from pixel coordinates (col, row) to world coordinates:
+ *
+ * <pre>
+ * x = m00 * col + m01 * row + m02
+ * y = m10 * col + m11 * row + m12
+ * </pre>
+ */
+@Data
+public final class PixelTransform {
+
+    public final double m00;
+    public final double m01;
+    public final double m02;
+    public final double m10;
+    public final double m11;
+    public final double m12;
+
+    /**
+     * Returns the transform that maps a grid of the given size onto the given rectangle, where each
+     * pixel is mapped to the world coordinates of its center. Row 0 is the top of the rectangle
+     * (the largest y coordinate), as is usual for images.
+     *
+     * @param bounds
+     *            the rectangle covered by the grid
+     * @param width
+     *            the number of columns of the grid
+     * @param height
+     *            the number of rows of the grid
+     * @return the transform
+     */
+    public static PixelTransform fitting(Rectangle bounds, int width, int height) {
+        double pixelWidth = (bounds.maxX - bounds.minX) / width;
+        double pixelHeight = (bounds.maxY - bounds.minY) / height;
+        return new PixelTransform(
+            pixelWidth, 0, bounds.minX + pixelWidth / 2,
+            0, -pixelHeight, bounds.maxY - pixelHeight / 2);
+    }
+
+    /**
+     * Returns the world x coordinate of the given pixel.
+     *
+     * @param col
+     *            the column of the pixel
+     * @param row
+     *            the row of the pixel
+     * @return the x coordinate
+     */
+    public double getX(double col, double row) {
+        return m00 * col + m01 * row + m02;
+    }
+
+    /**
+     * Returns the world y coordinate of the given pixel.
+     *
+     * @param col
+     *            the column of the pixel
+     * @param row
+     *            the row of the pixel
+     * @return the y coordinate
+     */
+    public double getY(double col, double row) {
+        return m10 * col + m11 * row + m12;
+    }
+}
@@ -0,0 +1,17 @@
+package io.github.ejif.geometry;
+
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * A polygon with holes, such as a zone on a map. Each ring is a list of its vertices in either
+ * orientation, where the last vertex is joined back to the first (it may also be repeated at the
+ * end, as in GeoJSON). The holes must lie inside the exterior ring, and the rings must not cross.
+ */
+@Data
+public final class Polygon {
+
+    private final List<Point> exterior;
+    private final List<List<Point>> holes;
+}
@@ -0,0 +1,26 @@
+package io.github.ejif.geometry;
+
+import lombok.Data;
+
+/**
+ * A point with rational coordinates numeratorX / denominator and numeratorY / denominator. The
+ * fraction is kept in lowest terms with a positive denominator, so two rational points are equal
+ * if and only if they represent the same point.
+ */
+@Data
+public final class RationalPoint {
+
+    private final long numeratorX;
+    private final long numeratorY;
+    private final long denominator;
+
+    /**
+     * Converts this point to a point with double coordinates. Equal rational points are always
+     * converted to equal points.
+     *
+     * @return the point
+     */
+    public Point toPoint() {
+        return new Point((double) numeratorX / denominator, (double) numeratorY / denominator);
+    }
+}
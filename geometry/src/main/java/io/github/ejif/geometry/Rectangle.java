@@ -0,0 +1,29 @@
+package io.github.ejif.geometry;
+
+import lombok.Data;
+
+/**
+ * An axis-aligned rectangle, consisting of all points (x, y) with minX &lt;= x &lt;= maxX and
+ * minY &lt;= y &lt;= maxY.
+ */
+@Data
+public final class Rectangle {
+
+    public final double minX;
+    public final double minY;
+    public final double maxX;
+    public final double maxY;
+
+    /**
+     * Returns whether the given point is inside this rectangle (including its boundary).
+     *
+     * @param x
+     *            the x coordinate of the point
+     * @param y
+     *            the y coordinate of the point
+     * @return true if the point is inside this rectangle
+     */
+    public boolean contains(double x, double y) {
+        return minX <= x && x <= maxX && minY <= y && y <= maxY;
+    }
+}
@@ -0,0 +1,81 @@
+package io.github.ejif.geometry.algorithm;
+
+import java.util.Arrays;
+
+/**
+ * A binary min-heap of (double key, int value) entries stored in primitive arrays, which grow as
+ * needed and are reused after {@link #clear()}.
+ */
+final class DoubleIntHeap {
+
+    private double[] keys;
+    private int[] values;
+    private int size;
+
+    DoubleIntHeap(int initialCapacity) {
+        this.keys = new double[initialCapacity];
+        this.values = new int[initialCapacity];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    void push(double key, int value) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, 2 * size + 1);
+            values = Arrays.copyOf(values, 2 * size + 1);
+        }
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (keys[parent] <= key)
+                break;
+            keys[i] = keys[parent];
+            values[i] = values[parent];
+            i = parent;
+        }
+        keys[i] = key;
+        values[i] = value;
+    }
+
+    double peekKey() {
+        return keys[0];
+    }
+
+    int peekValue() {
+        return values[0];
+    }
+
+    /**
+     * Removes the entry with the smallest key.
+     */
+    void pop() {
+        size--;
+        double key = keys[size];
+        int value = values[size];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size)
+                break;
+            if (child + 1 < size && keys[child + 1] < keys[child])
+                child++;
+            if (key <= keys[child])
+                break;
+            keys[i] = keys[child];
+            values[i] = values[child];
+            i = child;
+        }
+        keys[i] = key;
+        values[i] = value;
+    }
+}
@@ -0,0 +1,721 @@
+package io.github.ejif.geometry.algorithm;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+import javax.annotation.Nullable;
+
+import io.github.ejif.geometry.DelaunayTriangulation;
+
+/**
+ * A Delaunay triangulation stored in flat arrays, which can be repaired with edge flips after its
+ * points move a little, instead of being recomputed from scratch.
+ *
+ * The triangles are stored in counterclockwise order, where triangle t has the vertices
+ * vertices[3t], vertices[3t + 1] and vertices[3t + 2]. Half-edge h = 3t + j goes from vertices[h] to
+ * the next vertex of triangle t, and twins[h] is the half-edge in the opposite direction, in the
+ * triangle on the other side. Every edge of the convex hull is closed off by a ghost triangle with a
+ * vertex at infinity, whose index is the number of points, so that every edge has a triangle on both
+ * sides and the hull can change by flips too.
+ * The circumcircle of a ghost triangle (a, b, ghost) is the half-plane to the left of a to b.
+ *
+ * If every edge is locally Delaunay (the opposite vertex of each of its triangles is not inside
+ * the circumcircle of the other one), then the triangulation is the Delaunay triangulation. Moving
+ * the points may make some edges illegal, which are then flipped (Lawson's algorithm). This only
+ * works while no triangle is turned inside out, so a point that would turn one inside out is not
+ * moved (see {@link #move}), and must be moved in smaller steps instead.
+ */
+final class FlipTriangulation {
+
+    // If more than this fraction of the points move, all edges are checked in parallel instead of
+    // only those around the moved points.
+    private static final int LOCAL_REPAIR_FRACTION = 8;
+    // The largest number of rounds of moving points in smaller steps before giving up.
+    private static final int MAX_ROUNDS = 1024;
+
+    private final int numPoints;
+    private final int ghost;
+    private final double[] xs;
+    private final double[] ys;
+    private final int[] vertices;
+    private final int[] twins;
+    private final int numTriangles;
+    // A triangle containing each point.
+    private final int[] vertexTriangles;
+    // The half-edges to check after flipping.
+    private int[] stack = new int[64];
+    private int stackSize;
+    private int numFlips;
+    // The coordinates of each point before the last move, and the number of the last move that
+    // moved it, or 0 if it was moved back.
+    private final double[] oldXs;
+    private final double[] oldYs;
+    private final int[] moveEpochs;
+    private int moveEpoch;
+    private int[] revertedPoints = new int[64];
+    private int numRevertedPoints;
+    // The points still to be moved in smaller steps, where each one started, the fraction of the
+    // way that it has moved, the number of times that its step is halved, and the coordinates of
+    // the steps.
+    private int[] pendingPoints;
+    private double[] startXs;
+    private double[] startYs;
+    private double[] progress;
+    private int[] numHalvings;
+    private double[] stepXs;
+    private double[] stepYs;
+
+    private FlipTriangulation(double[] xs, double[] ys, int[] vertices, int[] twins, int numTriangles, int[] vertexTriangles) {
+        this.numPoints = xs.length;
+        this.ghost = xs.length;
+        this.xs = xs;
+        this.ys = ys;
+        this.vertices = vertices;
+        this.twins = twins;
+        this.numTriangles = numTriangles;
+        this.vertexTriangles = vertexTriangles;
+        this.oldXs = new double[numPoints];
+        this.oldYs = new double[numPoints];
+        this.moveEpochs = new int[numPoints];
+    }
+
+    /**
+     * Creates the flip triangulation of the given Delaunay triangulation.
+     *
+     * @param xs
+     *            the x coordinates of the points
+     * @param ys
+     *            the y coordinates of the points
+     * @param triangulation
+     *            the Delaunay triangulation of the points
+     * @return the flip triangulation, or null if the triangulation has no triangles (all points are
+     *         collinear), does not cover the convex hull of its points, or leaves out a point (such
+     *         as a duplicate)
+     */
+    @Nullable
+    static FlipTriangulation create(double[] xs, double[] ys, DelaunayTriangulation triangulation) {
+        int numPoints = xs.length;
+        int numRealTriangles = triangulation.getNumTriangles();
+        if (numRealTriangles == 0)
+            return null;
+
+        // Pair up the two directed edges of each edge. Hull edges only appear once, and get a ghost
+        // triangle on their other side.
+        int maxTriangles = 2 * numRealTriangles + 2;
+        int[] vertices = Arrays.copyOf(triangulation.getTriangles(), 3 * maxTriangles);
+        int[] twins = new int[3 * maxTriangles];
+        Arrays.fill(twins, -1);
+        LongIndexMap edges = new LongIndexMap(3 * numRealTriangles);
+        int[] firstHalfEdges = new int[3 * numRealTriangles];
+        for (int h = 0; h < 3 * numRealTriangles; h++) {
+            int a = vertices[h];
+            int b = vertices[next(h)];
+            int numEdges = edges.size();
+            int edge = edges.add((long) Math.min(a, b) << 32 | Math.max(a, b));
+            if (edge == numEdges) {
+                firstHalfEdges[edge] = h;
+            } else {
+                int twin = firstHalfEdges[edge];
+                if (twin == -1 || vertices[twin] != b)
+                    return null;
+                twins[h] = twin;
+                twins[twin] = h;
+                firstHalfEdges[edge] = -1;
+            }
+        }
+
+        // The ghost triangle of the hull edge from a to b is (b, a, ghost).
+        int numTriangles = numRealTriangles;
+        int[] hullTriangles = new int[numPoints];
+        Arrays.fill(hullTriangles, -1);
+        for (int h = 0; h < 3 * numRealTriangles; h++) {
+            if (twins[h] != -1)
+                continue;
+            int a = vertices[h];
+            int b = vertices[next(h)];
+            if (hullTriangles[a] != -1 || numTriangles == maxTriangles)
+                return null;
+            int t = numTriangles++;
+            vertices[3 * t] = b;
+            vertices[3 * t + 1] = a;
+            vertices[3 * t + 2] = numPoints;
+            twins[3 * t] = h;
+            twins[h] = 3 * t;
+            hullTriangles[a] = t;
+        }
+        for (int t = numRealTriangles; t < numTriangles; t++) {
+            // Link the edge (ghost, b) of the hull edge from a to b to the next hull edge from b.
+            int b = vertices[3 * t];
+            int nextTriangle = hullTriangles[b];
+            if (nextTriangle == -1)
+                return null;
+            twins[3 * t + 2] = 3 * nextTriangle + 1;
+            twins[3 * nextTriangle + 1] = 3 * t + 2;
+        }
+
+        int[] vertexTriangles = new int[numPoints + 1];
+        Arrays.fill(vertexTriangles, -1);
+        for (int h = 0; h < 3 * numTriangles; h++)
+            vertexTriangles[vertices[h]] = h / 3;
+        for (int vertexTriangle : vertexTriangles)
+            if (vertexTriangle == -1)
+                return null;
+        return new FlipTriangulation(xs.clone(), ys.clone(), vertices, twins, numTriangles, vertexTriangles);
+    }
+
+    int getNumPoints() {
+        return numPoints;
+    }
+
+    double getX(int pointIndex) {
+        return xs[pointIndex];
+    }
+
+    double getY(int pointIndex) {
+        return ys[pointIndex];
+    }
+
+    /**
+     * Returns the number of edges flipped by the last call to {@link #move} or
+     * {@link #moveInSteps}.
+     */
+    int getNumFlips() {
+        return numFlips;
+    }
+
+    /**
+     * Moves the given points to new coordinates, and flips edges until the triangulation is the
+     * Delaunay triangulation of the new coordinates.
+     *
+     * A point is not moved if it would turn a triangle inside out, since the triangulation could then
+     * no longer be repaired by flips. Such a point can usually be moved in a smaller step instead,
+     * after which the triangles around it have been flipped out of its way. The exception is a point
+     * that crosses an edge of the hull, which becomes part of the hull instead.
+     *
+     * If only a few points move, only the edges around them are checked, so the time taken is
+     * proportional to the number of moved points and flips.
+     *
+     * @param points
+     *            the indices of the points to move, which are reordered so that the points that were
+     *            not moved come first
+     * @param numMovedPoints
+     *            the number of points to move, at the start of the indices
+     * @param newXs
+     *            the new x coordinates, indexed by point
+     * @param newYs
+     *            the new y coordinates, indexed by point
+     * @param maxFlips
+     *            the maximum number of edges to flip
+     * @param parallel
+     *            whether to check the triangles and edges in parallel
+     * @return the number of points that were not moved, or -1 if the triangulation cannot be repaired
+     *         by flips (and must be rebuilt), in which case it is left in an unspecified state
+     */
+    int move(int[] points, int numMovedPoints, double[] newXs, double[] newYs, int maxFlips, boolean parallel) {
+        moveEpoch++;
+        for (int i = 0; i < numMovedPoints; i++) {
+            int p = points[i];
+            oldXs[p] = xs[p];
+            oldYs[p] = ys[p];
+            xs[p] = newXs[p];
+            ys[p] = newYs[p];
+            moveEpochs[p] = moveEpoch;
+        }
+
+        // Find the triangles that are turned inside out, scanning all of them in order if many points
+        // moved.
+        int[] invertedTriangles;
+        if (numMovedPoints > numPoints / LOCAL_REPAIR_FRACTION) {
+            IntStream triangles = IntStream.range(0, numTriangles);
+            if (parallel)
+                triangles = triangles.parallel();
+            invertedTriangles = triangles.filter(this::isInverted).toArray();
+        } else {
+            IntStream.Builder triangles = IntStream.builder();
+            for (int i = 0; i < numMovedPoints; i++)
+                addInvertedTriangles(points[i], triangles);
+            invertedTriangles = triangles.build().toArray();
+        }
+
+        // A point that crosses a hull edge becomes part of the hull, by flipping that edge. A flip
+        // may change the triangle, so check it again.
+        numFlips = 0;
+        for (int t : invertedTriangles)
+            if (isCrossingHull(t)) {
+                if (numFlips++ >= maxFlips) {
+                    stackSize = 0;
+                    return -1;
+                }
+                flip(hullEdge(t));
+            }
+
+        // Move back the moved points of every triangle that is still inverted, which may in turn
+        // invert triangles around those points. Flips keep the number of times that the hull winds
+        // around the triangulation, so if it is no longer once (such as if a hull point moved past
+        // its neighbor), move back the moved points on the hull too. This ends at the latest when
+        // all points are back where they were.
+        numRevertedPoints = 0;
+        while (true) {
+            while (invertedTriangles.length > 0) {
+                IntStream.Builder newInvertedTriangles = IntStream.builder();
+                for (int t : invertedTriangles) {
+                    if (!isInverted(t))
+                        continue;
+                    boolean reverted = false;
+                    for (int j = 3 * t; j < 3 * t + 3; j++)
+                        reverted |= revert(vertices[j], newInvertedTriangles);
+                    // The triangle was already inverted before the points moved.
+                    if (!reverted) {
+                        stackSize = 0;
+                        return -1;
+                    }
+                }
+                invertedTriangles = newInvertedTriangles.build().toArray();
+            }
+            if (hullWindsOnce())
+                break;
+            IntStream.Builder newInvertedTriangles = IntStream.builder();
+            boolean reverted = false;
+            int start = vertexTriangles[ghost];
+            int t = start;
+            do {
+                reverted |= revert(vertices[3 * t + (ghostIndex(t) + 1) % 3], newInvertedTriangles);
+                t = twins[3 * t + ghostIndex(t)] / 3;
+            } while (t != start);
+            if (!reverted) {
+                stackSize = 0;
+                return -1;
+            }
+            invertedTriangles = newInvertedTriangles.build().toArray();
+        }
+        // Put the points that were not moved first, keeping the order of the others.
+        int numKept = numMovedPoints;
+        for (int i = numMovedPoints - 1; i >= 0; i--)
+            if (moveEpochs[points[i]] == moveEpoch)
+                points[--numKept] = points[i];
+        System.arraycopy(revertedPoints, 0, points, 0, numRevertedPoints);
+
+        if (numMovedPoints - numRevertedPoints > numPoints / LOCAL_REPAIR_FRACTION) {
+            IntStream halfEdges = IntStream.range(0, 3 * numTriangles);
+            if (parallel)
+                halfEdges = halfEdges.parallel();
+            int[] illegalHalfEdges = halfEdges.filter(h -> h < twins[h] && isIllegal(h)).toArray();
+            for (int h : illegalHalfEdges)
+                push(h);
+        } else {
+            // Only the edges of the triangles around a moved point can have become illegal (or around
+            // a point that was moved back after crossing the hull).
+            for (int i = 0; i < numMovedPoints; i++) {
+                int start = outgoingHalfEdge(points[i]);
+                int h = start;
+                do {
+                    push(h);
+                    push(next(h));
+                    push(prev(h));
+                    h = twins[prev(h)];
+                } while (h != start);
+            }
+        }
+        return flipAll(maxFlips) ? numRevertedPoints : -1;
+    }
+
+    /**
+     * Moves the given points to new coordinates, like {@link #move}, but moves a point that would
+     * turn a triangle inside out in smaller steps, while the points around it are already where they
+     * should be. The step of a point is halved each time that it is not moved, and doubled again each
+     * time that it is.
+     *
+     * @param points
+     *            the distinct indices of the points to move
+     * @param numMovedPoints
+     *            the number of points to move, at the start of the indices
+     * @param newXs
+     *            the new x coordinates, indexed by point
+     * @param newYs
+     *            the new y coordinates, indexed by point
+     * @param maxFlips
+     *            the maximum number of edges to flip in total
+     * @param parallel
+     *            whether to check the triangles and edges in parallel
+     * @return true if the points were moved, or false if the triangulation cannot be repaired by
+     *         flips (and must be rebuilt), in which case it is left in an unspecified state
+     */
+    boolean moveInSteps(int[] points, int numMovedPoints, double[] newXs, double[] newYs, int maxFlips, boolean parallel) {
+        if (pendingPoints == null) {
+            pendingPoints = new int[numPoints];
+            startXs = new double[numPoints];
+            startYs = new double[numPoints];
+            progress = new double[numPoints];
+            numHalvings = new int[numPoints];
+            stepXs = new double[numPoints];
+            stepYs = new double[numPoints];
+        }
+        int numPending = 0;
+        for (int k = 0; k < numMovedPoints; k++) {
+            int p = points[k];
+            if (xs[p] != newXs[p] || ys[p] != newYs[p]) {
+                pendingPoints[numPending++] = p;
+                startXs[p] = xs[p];
+                startYs[p] = ys[p];
+                progress[p] = 0;
+                numHalvings[p] = 0;
+            }
+        }
+        int totalFlips = 0;
+        for (int round = 0; numPending > 0; round++) {
+            if (round == MAX_ROUNDS)
+                return false;
+            for (int k = 0; k < numPending; k++) {
+                int p = pendingPoints[k];
+                double fraction = progress[p] + Math.scalb(1.0, -numHalvings[p]);
+                stepXs[p] = fraction >= 1 ? newXs[p] : startXs[p] + (newXs[p] - startXs[p]) * fraction;
+                stepYs[p] = fraction >= 1 ? newYs[p] : startYs[p] + (newYs[p] - startYs[p]) * fraction;
+            }
+            int numReverted = move(pendingPoints, numPending, stepXs, stepYs, maxFlips - totalFlips, parallel);
+            if (numReverted < 0)
+                return false;
+            totalFlips += numFlips;
+            int numStillPending = 0;
+            for (int k = 0; k < numPending; k++) {
+                int p = pendingPoints[k];
+                if (k < numReverted) {
+                    numHalvings[p]++;
+                } else {
+                    progress[p] += Math.scalb(1.0, -numHalvings[p]);
+                    if (progress[p] >= 1)
+                        continue;
+                    numHalvings[p]--;
+                }
+                pendingPoints[numStillPending++] = p;
+            }
+            numPending = numStillPending;
+        }
+        numFlips = totalFlips;
+        return true;
+    }
+
+    /**
+     * Finds the closest point to the given coordinates by walking from the given point to closer and
+     * closer neighbors. In a Delaunay triangulation, a point that is not the closest one always has
+     * a closer neighbor, so the walk only stops at the closest point.
+     *
+     * @param start
+     *            the index of the point to start from
+     * @param x
+     *            the x coordinate
+     * @param y
+     *            the y coordinate
+     * @return the index of the closest point
+     */
+    int findClosestPoint(int start, double x, double y) {
+        int closest = start;
+        double closestDistance = distanceSquared(start, x, y);
+        for (int current = -1; current != closest;) {
+            current = closest;
+            int first = outgoingHalfEdge(current);
+            int h = first;
+            do {
+                int neighbor = vertices[next(h)];
+                if (neighbor != ghost) {
+                    double distance = distanceSquared(neighbor, x, y);
+                    if (distance < closestDistance) {
+                        closest = neighbor;
+                        closestDistance = distance;
+                    }
+                }
+                h = twins[prev(h)];
+            } while (h != first);
+        }
+        return closest;
+    }
+
+    /**
+     * Passes every neighbor of the given point (every point whose Voronoi region borders its own) to
+     * the given consumer.
+     */
+    void forEachNeighbor(int pointIndex, IntConsumer consumer) {
+        int start = outgoingHalfEdge(pointIndex);
+        int h = start;
+        do {
+            int neighbor = vertices[next(h)];
+            if (neighbor != ghost)
+                consumer.accept(neighbor);
+            h = twins[prev(h)];
+        } while (h != start);
+    }
+
+    /**
+     * Returns the Delaunay triangulation, without the ghost triangles.
+     *
+     * @return the triangulation
+     */
+    DelaunayTriangulation toDelaunayTriangulation() {
+        int numRealTriangles = 0;
+        for (int t = 0; t < numTriangles; t++)
+            if (!isGhost(t))
+                numRealTriangles++;
+        int[] triangles = new int[3 * numRealTriangles];
+        int numTriangleIndices = 0;
+        int numEdges = 0;
+        for (int t = 0; t < numTriangles; t++) {
+            if (isGhost(t))
+                continue;
+            System.arraycopy(vertices, 3 * t, triangles, numTriangleIndices, 3);
+            numTriangleIndices += 3;
+            for (int h = 3 * t; h < 3 * t + 3; h++)
+                if (h < twins[h] || isGhost(twins[h] / 3))
+                    numEdges++;
+        }
+        int[] edges = new int[2 * numEdges];
+        int numEdgeIndices = 0;
+        for (int h = 0; h < 3 * numTriangles; h++) {
+            if (isGhost(h / 3) || !(h < twins[h] || isGhost(twins[h] / 3)))
+                continue;
+            edges[numEdgeIndices++] = Math.min(vertices[h], vertices[next(h)]);
+            edges[numEdgeIndices++] = Math.max(vertices[h], vertices[next(h)]);
+        }
+        return new DelaunayTriangulation(edges, triangles);
+    }
+
+    /**
+     * Flips the edges on the stack, and the edges around them, until they are all legal.
+     */
+    private boolean flipAll(int maxFlips) {
+        while (stackSize > 0) {
+            int h = stack[--stackSize];
+            if (!isIllegal(h))
+                continue;
+            if (numFlips++ >= maxFlips || !flip(h)) {
+                stackSize = 0;
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Replaces the edge from a to b between the triangles (a, b, c) and (b, a, d) by the edge from c
+     * to d, between the triangles (c, a, d) and (d, b, c).
+     *
+     * @return false if a new triangle is not counterclockwise
+     */
+    private boolean flip(int h) {
+        int k = twins[h];
+        int t1 = h / 3;
+        int t2 = k / 3;
+        int a = vertices[h];
+        int b = vertices[next(h)];
+        int c = vertices[prev(h)];
+        int d = vertices[prev(k)];
+        int twinBC = twins[next(h)];
+        int twinCA = twins[prev(h)];
+        int twinAD = twins[next(k)];
+        int twinDB = twins[prev(k)];
+
+        setTriangle(t1, c, a, d);
+        setTriangle(t2, d, b, c);
+        link(3 * t1, twinCA);
+        link(3 * t1 + 1, twinAD);
+        link(3 * t1 + 2, 3 * t2 + 2);
+        link(3 * t2, twinDB);
+        link(3 * t2 + 1, twinBC);
+        vertexTriangles[a] = t1;
+        vertexTriangles[b] = t2;
+        vertexTriangles[c] = t1;
+        vertexTriangles[d] = t1;
+
+        if (!isGhost(t1) && orientation(c, a, d) <= 0 || !isGhost(t2) && orientation(d, b, c) <= 0)
+            return false;
+        push(3 * t1);
+        push(3 * t1 + 1);
+        push(3 * t2);
+        push(3 * t2 + 1);
+        return true;
+    }
+
+    /**
+     * Returns whether the edge of the given half-edge is not locally Delaunay.
+     */
+    private boolean isIllegal(int h) {
+        int a = vertices[h];
+        int b = vertices[next(h)];
+        int c = vertices[prev(h)];
+        int d = vertices[prev(twins[h])];
+        // An edge to the ghost vertex separates two hull edges; it is illegal if the hull is not
+        // convex at its other end.
+        if (a == ghost)
+            return orientation(b, c, d) > 0;
+        if (b == ghost)
+            return orientation(c, a, d) > 0;
+        // A hull edge is never illegal, since no point is outside the hull.
+        if (c == ghost || d == ghost)
+            return false;
+        return Predicates.incircle(xs[a], ys[a], xs[b], ys[b], xs[c], ys[c], xs[d], ys[d]) > 0;
+    }
+
+    /**
+     * Moves the given point back to where it was if the current move moved it, and adds the
+     * triangles around it that this turns inside out to the given builder.
+     *
+     * @return whether the point was moved back
+     */
+    private boolean revert(int p, IntStream.Builder invertedTriangles) {
+        if (moveEpochs[p] != moveEpoch)
+            return false;
+        xs[p] = oldXs[p];
+        ys[p] = oldYs[p];
+        moveEpochs[p] = 0;
+        if (numRevertedPoints == revertedPoints.length)
+            revertedPoints = Arrays.copyOf(revertedPoints, 2 * numRevertedPoints);
+        revertedPoints[numRevertedPoints++] = p;
+        addInvertedTriangles(p, invertedTriangles);
+        return true;
+    }
+
+    /**
+     * Returns whether the hull of the triangulation winds around it exactly once. Then it is convex
+     * once no edge to the ghost vertex is illegal.
+     */
+    private boolean hullWindsOnce() {
+        int start = vertexTriangles[ghost];
+        double totalAngle = 0;
+        int t = start;
+        for (int numHullEdges = 0; numHullEdges <= numTriangles; numHullEdges++) {
+            // Rotate the ghost triangle to (b, a, ghost), for the hull edge from a to b, whose next
+            // hull edge goes from b to c.
+            int g = ghostIndex(t);
+            int b = vertices[3 * t + (g + 1) % 3];
+            int a = vertices[3 * t + (g + 2) % 3];
+            int nextTriangle = twins[3 * t + g] / 3;
+            int c = vertices[3 * nextTriangle + (ghostIndex(nextTriangle) + 1) % 3];
+            double abx = xs[b] - xs[a];
+            double aby = ys[b] - ys[a];
+            double bcx = xs[c] - xs[b];
+            double bcy = ys[c] - ys[b];
+            totalAngle += Math.atan2(abx * bcy - aby * bcx, abx * bcx + aby * bcy);
+            t = nextTriangle;
+            if (t == start)
+                return Math.abs(totalAngle - 2 * Math.PI) < Math.PI;
+        }
+        return false;
+    }
+
+    /**
+     * Adds the real triangles around the given point that are not counterclockwise to the given
+     * builder.
+     */
+    private void addInvertedTriangles(int p, IntStream.Builder triangles) {
+        int start = outgoingHalfEdge(p);
+        int h = start;
+        do {
+            if (isInverted(h / 3))
+                triangles.add(h / 3);
+            h = twins[prev(h)];
+        } while (h != start);
+    }
+
+    private boolean isInverted(int t) {
+        return !isGhost(t) && orientation(vertices[3 * t], vertices[3 * t + 1], vertices[3 * t + 2]) <= 0;
+    }
+
+    /**
+     * Returns whether the given triangle is inverted only because a vertex crossed its one hull edge,
+     * which can be fixed by flipping that edge. This is only done if the vertex is not already on
+     * the hull, and the hull stays convex at both ends of the edge, so that it stays convex.
+     */
+    private boolean isCrossingHull(int t) {
+        if (!isInverted(t))
+            return false;
+        int h = hullEdge(t);
+        if (h == -1)
+            return false;
+        // The ghost triangle on the other side is (b, a, ghost), and the hull goes from p to a to b
+        // to q.
+        int k = twins[h];
+        int a = vertices[h];
+        int b = vertices[next(h)];
+        int c = vertices[prev(h)];
+        int p = vertices[prev(twins[next(k)])];
+        int q = vertices[prev(twins[prev(k)])];
+        return !isOnHull(c) && orientation(p, a, c) > 0 && orientation(c, b, q) > 0;
+    }
+
+    private boolean isOnHull(int p) {
+        int start = outgoingHalfEdge(p);
+        int h = start;
+        do {
+            if (vertices[next(h)] == ghost)
+                return true;
+            h = twins[prev(h)];
+        } while (h != start);
+        return false;
+    }
+
+    /**
+     * Returns the half-edge of the given real triangle on the hull, or -1 if it has no or several.
+     */
+    private int hullEdge(int t) {
+        int hullEdge = -1;
+        for (int h = 3 * t; h < 3 * t + 3; h++) {
+            if (!isGhost(twins[h] / 3))
+                continue;
+            if (hullEdge != -1)
+                return -1;
+            hullEdge = h;
+        }
+        return hullEdge;
+    }
+
+    /**
+     * Returns a half-edge starting at the given point. The next one around the point is
+     * twins[prev(h)].
+     */
+    private int outgoingHalfEdge(int p) {
+        int t = vertexTriangles[p];
+        return vertices[3 * t] == p ? 3 * t : vertices[3 * t + 1] == p ? 3 * t + 1 : 3 * t + 2;
+    }
+
+    private void setTriangle(int t, int a, int b, int c) {
+        vertices[3 * t] = a;
+        vertices[3 * t + 1] = b;
+        vertices[3 * t + 2] = c;
+    }
+
+    private void link(int h, int k) {
+        twins[h] = k;
+        twins[k] = h;
+    }
+
+    private boolean isGhost(int t) {
+        return vertices[3 * t] == ghost || vertices[3 * t + 1] == ghost || vertices[3 * t + 2] == ghost;
+    }
+
+    private int ghostIndex(int t) {
+        return vertices[3 * t] == ghost ? 0 : vertices[3 * t + 1] == ghost ? 1 : 2;
+    }
+
+    private double distanceSquared(int i, double x, double y) {
+        double dx = xs[i] - x;
+        double dy = ys[i] - y;
+        return dx * dx + dy * dy;
+    }
+
+    private double orientation(int i, int j, int k) {
+        return Predicates.orientation(xs[i], ys[i], xs[j], ys[j], xs[k], ys[k]);
+    }
+
+    private void push(int h) {
+        if (stackSize == stack.length)
+            stack = Arrays.copyOf(stack, 2 * stackSize);
+        stack[stackSize++] = h;
+    }
+
+    private static int next(int h) {
+        return h % 3 == 2 ? h - 2 : h + 1;
+    }
+
+    private static int prev(int h) {
+        return h % 3 == 0 ? h + 2 : h - 1;
+    }
+}
@@ -0,0 +1,66 @@
+package io.github.ejif.geometry.algorithm;
+
+import java.util.Arrays;
+
+import io.github.ejif.geometry.Rectangle;
+
+/**
+ * Orders points along a Hilbert curve, so that points that are consecutive in the order are close
+ * to each other in the plane.
+ */
+final class HilbertCurve {
+
+    private static final int ORDER = 15;
+    private static final int SIDE = 1 << ORDER;
+
+    /**
+     * Returns the indices of the given points, sorted by their position along a Hilbert curve
+     * covering the given bounds. Points outside the bounds are clamped to the bounds.
+     */
+    static int[] sort(double[] xs, double[] ys, int numPoints, Rectangle bounds) {
+        double scaleX = bounds.maxX > bounds.minX ? (SIDE - 1) / (bounds.maxX - bounds.minX) : 0;
+        double scaleY = bounds.maxY > bounds.minY ? (SIDE - 1) / (bounds.maxY - bounds.minY) : 0;
+        long[] keys = new long[numPoints];
+        for (int i = 0; i < numPoints; i++) {
+            int x = clamp((xs[i] - bounds.minX) * scaleX);
+            int y = clamp((ys[i] - bounds.minY) * scaleY);
+            keys[i] = (long) index(x, y) << 32 | i;
+        }
+        Arrays.sort(keys);
+        int[] order = new int[numPoints];
+        for (int i = 0; i < numPoints; i++)
+            order[i] = (int) keys[i];
+        return order;
+    }
+
+    /**
+     * Returns the position of the cell (x, y) along the Hilbert curve through all SIDE * SIDE
+     * cells.
+     */
+    static int index(int x, int y) {
+        int d = 0;
+        for (int s = SIDE / 2; s > 0; s /= 2) {
+            int rx = (x & s) > 0 ? 1 : 0;
+            int ry = (y & s) > 0 ? 1 : 0;
+            d += s * s * ((3 * rx) ^ ry);
+            // Rotate the quadrant so that the curve within it has the standard orientation.
+            if (ry == 0) {
+                if (rx == 1) {
+                    x = SIDE - 1 - x;
+                    y = SIDE - 1 - y;
+                }
+                int t = x;
+                x = y;
+                y = t;
+            }
+        }
+        return d;
+    }
+
+    private static int clamp(double coordinate) {
+        return coordinate > 0 ? (int) Math.min(coordinate, SIDE - 1) : 0;
+    }
+
+    private HilbertCurve() {
+    }
+}
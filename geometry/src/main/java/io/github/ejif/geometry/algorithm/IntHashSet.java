@@ -0,0 +1,80 @@
+package io.github.ejif.geometry.algorithm;
+
+import java.util.Arrays;
+
+/**
+ * An open-addressing hash set of non-negative ints, which can be cleared in time proportional to
+ * its size so that it can be reused cheaply between searches.
+ */
+final class IntHashSet {
+
+    private static final int EMPTY = -1;
+
+    private int[] table;
+    private int[] elements;
+    private int size;
+
+    IntHashSet(int initialCapacity) {
+        int tableSize = Integer.highestOneBit(Math.max(4, 2 * initialCapacity - 1)) << 1;
+        this.table = new int[tableSize];
+        this.elements = new int[tableSize / 2];
+        Arrays.fill(table, EMPTY);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Adds the given element.
+     *
+     * @return true if the element was not already in the set
+     */
+    boolean add(int element) {
+        int mask = table.length - 1;
+        for (int i = mix(element) & mask;; i = (i + 1) & mask) {
+            if (table[i] == element)
+                return false;
+            if (table[i] == EMPTY) {
+                table[i] = element;
+                elements[size++] = element;
+                if (size == elements.length)
+                    grow();
+                return true;
+            }
+        }
+    }
+
+    boolean contains(int element) {
+        int mask = table.length - 1;
+        for (int i = mix(element) & mask;; i = (i + 1) & mask) {
+            if (table[i] == element)
+                return true;
+            if (table[i] == EMPTY)
+                return false;
+        }
+    }
+
+    void clear() {
+        int mask = table.length - 1;
+        for (int j = 0; j < size; j++)
+            for (int i = mix(elements[j]) & mask; table[i] != EMPTY; i = (i + 1) & mask)
+                table[i] = EMPTY;
+        size = 0;
+    }
+
+    private void grow() {
+        int[] oldElements = elements;
+        int oldSize = size;
+        table = new int[2 * table.length];
+        elements = new int[table.length / 2];
+        Arrays.fill(table, EMPTY);
+        size = 0;
+        for (int j = 0; j < oldSize; j++)
+            add(oldElements[j]);
+    }
+
+    private static int mix(int element) {
+        return element * 0x9E3779B9 >>> 7;
+    }
+}
@@ -0,0 +1,304 @@
+package io.github.ejif.geometry.algorithm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+import javax.annotation.Nullable;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import io.github.ejif.geometry.Point;
+
+/**
+ * A set of anchor points that move over time, such as vehicles, indexed for closest point queries.
+ *
+ * A {@link PointSet} cannot change its points, and rebuilding it after every move takes O(n log n)
+ * time even if the points only moved a little. Instead, this keeps the Delaunay triangulation of the
+ * points (the dual of their Voronoi diagram) in a {@link FlipTriangulation}, and after points move,
+ * only repairs the triangles around them by flipping edges. Most of the Voronoi topology stays the
+ * same between updates, so an update takes time proportional to the number of moved points plus the
+ * number of topology changes (flips). If there are more than a given number of changes per point,
+ * the triangulation is rebuilt from scratch instead, which is then cheaper.
+ *
+ * Closest point queries walk through the triangulation to closer and closer points, starting from a
+ * point in a coarse grid cell around the query, which is updated as the points move.
+ *
+ * The point set is not thread-safe: queries may run concurrently with each other, but not with
+ * updates.
+ */
+public final class KineticPointSet {
+
+    /**
+     * The default number of topology changes per point that an update may make before the
+     * triangulation is rebuilt.
+     */
+    public static final double DEFAULT_MAX_CHANGE_RATE = 1;
+
+    // The average number of points in each grid cell that queries start from.
+    private static final int POINTS_PER_CELL = 2;
+
+    private final int numPoints;
+    private final double[] xs;
+    private final double[] ys;
+    private final double maxChangeRate;
+    private final boolean parallel;
+    private final VoronoiBuilder voronoiBuilder = new VoronoiBuilder();
+    private final int[] allPointIndices;
+    // The number of the last update that moved each point, to detect duplicate indices.
+    private final int[] updateEpochs;
+    private int updateEpoch;
+    // Null if the points have no Delaunay triangulation (such as if they are all collinear, or some
+    // are equal), in which case queries scan all points.
+    @Nullable
+    private FlipTriangulation triangulation;
+    private int gridSize;
+    private double gridMinX;
+    private double gridMinY;
+    private double gridCellWidth;
+    private double gridCellHeight;
+    // A point in or near each cell, to start walking from.
+    private int[] gridPoints;
+    private int numTopologyChanges;
+    private int numRebuilds;
+
+    /**
+     * Creates a set of moving points, with the default maximum change rate.
+     *
+     * @param points
+     *            the initial positions of the points
+     */
+    public KineticPointSet(List<Point> points) {
+        this(points, DEFAULT_MAX_CHANGE_RATE, false);
+    }
+
+    /**
+     * Creates a set of moving points.
+     *
+     * @param points
+     *            the initial positions of the points
+     * @param maxChangeRate
+     *            the number of topology changes per point that an update may make before the
+     *            triangulation is rebuilt from scratch instead
+     * @param parallel
+     *            whether to repair the triangulation in parallel when many points move
+     * @throws IllegalArgumentException if the maximum change rate is negative
+     */
+    public KineticPointSet(List<Point> points, double maxChangeRate, boolean parallel) throws IllegalArgumentException {
+        if (!(maxChangeRate >= 0))
+            throw new IllegalArgumentException("Maximum change rate must be non-negative.");
+        this.numPoints = points.size();
+        this.xs = new double[numPoints];
+        this.ys = new double[numPoints];
+        for (int i = 0; i < numPoints; i++) {
+            xs[i] = points.get(i).x;
+            ys[i] = points.get(i).y;
+        }
+        this.maxChangeRate = maxChangeRate;
+        this.parallel = parallel;
+        this.allPointIndices = IntStream.range(0, numPoints).toArray();
+        this.updateEpochs = new int[numPoints];
+        rebuild();
+    }
+
+    /**
+     * Returns the number of points.
+     *
+     * @return the number of points
+     */
+    public int getNumPoints() {
+        return numPoints;
+    }
+
+    /**
+     * Returns the current position of the given point.
+     *
+     * @param pointIndex
+     *            the index of the point
+     * @return the position of the point
+     */
+    public Point getPoint(int pointIndex) {
+        return new Point(xs[pointIndex], ys[pointIndex]);
+    }
+
+    /**
+     * Moves all points to new positions. Points whose coordinates did not change cost almost
+     * nothing.
+     *
+     * @param xs
+     *            the new x coordinates of the points
+     * @param ys
+     *            the new y coordinates of the points
+     * @throws IllegalArgumentException if the arrays do not have one entry per point
+     */
+    public void update(double[] xs, double[] ys) throws IllegalArgumentException {
+        if (xs.length != numPoints || ys.length != numPoints)
+            throw new IllegalArgumentException("Coordinate arrays must have one entry per point.");
+        System.arraycopy(xs, 0, this.xs, 0, numPoints);
+        System.arraycopy(ys, 0, this.ys, 0, numPoints);
+        repair(allPointIndices, numPoints);
+    }
+
+    /**
+     * Moves only the given points to new positions, in time proportional to the number of moved
+     * points and the number of topology changes.
+     *
+     * @param pointIndices
+     *            the distinct indices of the points to move
+     * @param xs
+     *            the new x coordinate of each moved point
+     * @param ys
+     *            the new y coordinate of each moved point
+     * @throws IllegalArgumentException if the arrays have different lengths, or an index is out of
+     *             range or repeated
+     */
+    public void update(int[] pointIndices, double[] xs, double[] ys) throws IllegalArgumentException {
+        if (xs.length != pointIndices.length || ys.length != pointIndices.length)
+            throw new IllegalArgumentException("Coordinate and index arrays must have the same length.");
+        updateEpoch++;
+        for (int pointIndex : pointIndices) {
+            if (pointIndex < 0 || pointIndex >= numPoints)
+                throw new IllegalArgumentException("Point index out of range: " + pointIndex);
+            if (updateEpochs[pointIndex] == updateEpoch)
+                throw new IllegalArgumentException("Point index repeated: " + pointIndex);
+            updateEpochs[pointIndex] = updateEpoch;
+        }
+        for (int i = 0; i < pointIndices.length; i++) {
+            this.xs[pointIndices[i]] = xs[i];
+            this.ys[pointIndices[i]] = ys[i];
+        }
+        repair(pointIndices, pointIndices.length);
+    }
+
+    /**
+     * Returns the number of topology changes (edge flips of the Delaunay triangulation, each of
+     * which replaces one Voronoi border by another) made by the last update, or -1 if it rebuilt
+     * the triangulation.
+     *
+     * @return the number of topology changes
+     */
+    public int getNumTopologyChanges() {
+        return numTopologyChanges;
+    }
+
+    /**
+     * Finds the closest point to the given point. If there are multiple closest points, an
+     * arbitrary one is returned.
+     *
+     * @param point
+     *            a point
+     * @return the current position of the closest point
+     * @throws IllegalArgumentException if the point set contains no points
+     */
+    public Point findClosestPoint(Point point) throws IllegalArgumentException {
+        if (numPoints == 0)
+            throw new IllegalArgumentException("Point set contains no points.");
+        return getPoint(findClosestIndex(point.x, point.y));
+    }
+
+    /**
+     * Finds the index of the closest point to the given point, without allocating any objects. If
+     * there are multiple closest points, an arbitrary one is returned.
+     *
+     * @param x
+     *            the x coordinate of the point
+     * @param y
+     *            the y coordinate of the point
+     * @return the index of the closest point, or -1 if the point set contains no points
+     */
+    public int findClosestIndex(double x, double y) {
+        FlipTriangulation triangulation = this.triangulation;
+        if (triangulation == null)
+            return scanClosestIndex(x, y);
+        return triangulation.findClosestPoint(gridPoints[cell(x, y)], x, y);
+    }
+
+    /**
+     * Passes the index of every point whose Voronoi region borders that of the given point to the
+     * given consumer.
+     *
+     * @param pointIndex
+     *            the index of the point
+     * @param consumer
+     *            the consumer to pass the index of each neighbor to
+     * @throws IllegalArgumentException if the points have no Delaunay triangulation, such as if
+     *             they are all collinear
+     */
+    public void forEachNeighbor(int pointIndex, IntConsumer consumer) throws IllegalArgumentException {
+        if (triangulation == null)
+            throw new IllegalArgumentException("Point set has no Delaunay triangulation.");
+        triangulation.forEachNeighbor(pointIndex, consumer);
+    }
+
+    @VisibleForTesting
+    int getNumRebuilds() {
+        return numRebuilds;
+    }
+
+    /**
+     * Repairs the triangulation after the given points moved, or rebuilds it if that fails.
+     */
+    private void repair(int[] pointIndices, int numMovedPoints) {
+        int maxFlips = (int) Math.min(Integer.MAX_VALUE, maxChangeRate * numPoints);
+        if (triangulation == null || !triangulation.moveInSteps(pointIndices, numMovedPoints, xs, ys, maxFlips, parallel)) {
+            rebuild();
+            return;
+        }
+        numTopologyChanges = triangulation.getNumFlips();
+        for (int i = 0; i < numMovedPoints; i++) {
+            int pointIndex = pointIndices[i];
+            gridPoints[cell(xs[pointIndex], ys[pointIndex])] = pointIndex;
+        }
+    }
+
+    private void rebuild() {
+        numRebuilds++;
+        numTopologyChanges = -1;
+        List<Point> points = new ArrayList<>(numPoints);
+        for (int i = 0; i < numPoints; i++)
+            points.add(new Point(xs[i], ys[i]));
+        triangulation = numPoints < 3 ? null : FlipTriangulation.create(xs, ys, voronoiBuilder.createDelaunayTriangulation(points));
+        if (triangulation == null)
+            return;
+
+        double minX = Arrays.stream(xs).min().getAsDouble();
+        double minY = Arrays.stream(ys).min().getAsDouble();
+        double maxX = Arrays.stream(xs).max().getAsDouble();
+        double maxY = Arrays.stream(ys).max().getAsDouble();
+        gridSize = Math.max(1, (int) Math.sqrt(numPoints / POINTS_PER_CELL));
+        gridMinX = minX;
+        gridMinY = minY;
+        gridCellWidth = Math.max(maxX - minX, Double.MIN_NORMAL) / gridSize;
+        gridCellHeight = Math.max(maxY - minY, Double.MIN_NORMAL) / gridSize;
+        gridPoints = new int[gridSize * gridSize];
+        Arrays.fill(gridPoints, -1);
+        for (int i = 0; i < numPoints; i++)
+            gridPoints[cell(xs[i], ys[i])] = i;
+        // An empty cell starts from the point of the cell before it.
+        int lastPoint = 0;
+        for (int cell = 0; cell < gridPoints.length; cell++) {
+            if (gridPoints[cell] == -1)
+                gridPoints[cell] = lastPoint;
+            lastPoint = gridPoints[cell];
+        }
+    }
+
+    /**
+     * Returns the grid cell containing the given point, or the closest one if the point is outside
+     * of the grid.
+     */
+    private int cell(double x, double y) {
+        int column = (int) Math.max(0, Math.min(gridSize - 1, (x - gridMinX) / gridCellWidth));
+        int row = (int) Math.max(0, Math.min(gridSize - 1, (y - gridMinY) / gridCellHeight));
+        return row * gridSize + column;
+    }
+
+    /**
+     * Finds the closest point by scanning the coordinates of all of them.
+     */
+    private int scanClosestIndex(double x, double y) {
+        return ScanKernels.findClosestIndex(xs, ys, 0, numPoints, x, y);
+    }
+}
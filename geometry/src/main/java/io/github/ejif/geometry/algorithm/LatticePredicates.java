@@ -0,0 +1,183 @@
+package io.github.ejif.geometry.algorithm;
+
+import io.github.ejif.geometry.Point;
+import io.github.ejif.geometry.RationalPoint;
+
+/**
+ * Exact geometric predicates for points with integer coordinates of absolute value at most
+ * {@link #MAX_COORDINATE}, evaluated with 64-bit and 128-bit integer arithmetic.
+ *
+ * Integer inputs are full of collinear and cocircular points, where the double-based
+ * {@link Points#crossProduct} and {@link Points#circumcenter} may round to the wrong sign, or
+ * compute slightly different circumcenters for triples of points on the same circle. These
+ * predicates never round, and circumcenters are kept as reduced fractions until they are
+ * converted to doubles, so triples of points on the same circle always get the same circumcenter.
+ */
+public final class LatticePredicates {
+
+    /**
+     * The largest absolute value of a coordinate that the predicates are exact for. With this
+     * bound, the numerators of circumcenters fit in 64 bits, and the incircle determinant fits in
+     * 128 bits.
+     */
+    public static final long MAX_COORDINATE = 1 << 18;
+
+    /**
+     * Returns whether both coordinates of the given point are integers of absolute value at most
+     * {@link #MAX_COORDINATE}.
+     *
+     * @param point
+     *            the point
+     * @return whether the point is a lattice point supported by these predicates
+     */
+    public static boolean isLatticePoint(Point point) {
+        return isLatticeCoordinate(point.x) && isLatticeCoordinate(point.y);
+    }
+
+    /**
+     * Returns the cross product of the vector from a to b with the vector from a to c, which is
+     * positive if a, b, c are in counterclockwise order, negative if they are in clockwise order,
+     * and zero if they are collinear.
+     *
+     * @return the cross product, computed exactly
+     */
+    public static long orientation(long ax, long ay, long bx, long by, long cx, long cy) {
+        return (bx - ax) * (cy - ay) - (by - ay) * (cx - ax);
+    }
+
+    /**
+     * Returns the sign of the incircle determinant, which is positive if d lies inside the circle
+     * through a, b, c (given in counterclockwise order), negative if d lies outside, and zero if
+     * the four points are cocircular.
+     *
+     * @return the sign of the determinant, computed exactly: -1, 0, or 1
+     */
+    public static int incircle(long ax, long ay, long bx, long by, long cx, long cy, long dx, long dy) {
+        long adx = ax - dx;
+        long ady = ay - dy;
+        long bdx = bx - dx;
+        long bdy = by - dy;
+        long cdx = cx - dx;
+        long cdy = cy - dy;
+        // Each cross product is at most 2^39 and each lift is at most 2^39, so each term of the
+        // determinant is at most 2^78 and the sum fits easily in 128 bits.
+        long alift = adx * adx + ady * ady;
+        long blift = bdx * bdx + bdy * bdy;
+        long clift = cdx * cdx + cdy * cdy;
+        long bc = bdx * cdy - cdx * bdy;
+        long ca = cdx * ady - adx * cdy;
+        long ab = adx * bdy - bdx * ady;
+
+        long lo = alift * bc;
+        long hi = multiplyHigh(alift, bc);
+        long term = blift * ca;
+        long sum = lo + term;
+        hi += multiplyHigh(blift, ca) + carry(lo, term, sum);
+        lo = sum;
+        term = clift * ab;
+        sum = lo + term;
+        hi += multiplyHigh(clift, ab) + carry(lo, term, sum);
+        lo = sum;
+        return hi != 0 ? Long.signum(hi) : lo != 0 ? 1 : 0;
+    }
+
+    /**
+     * Returns the circumcenter of the given three points as a reduced fraction. The points must not
+     * be collinear.
+     *
+     * @return the circumcenter
+     */
+    public static RationalPoint circumcenter(long ax, long ay, long bx, long by, long cx, long cy) {
+        long abx = bx - ax;
+        long aby = by - ay;
+        long acx = cx - ax;
+        long acy = cy - ay;
+        long abLift = abx * abx + aby * aby;
+        long acLift = acx * acx + acy * acy;
+        long denominator = 2 * (abx * acy - aby * acx);
+        if (denominator == 0)
+            throw new IllegalArgumentException("Collinear points do not have a circumcenter.");
+        long numeratorX = ax * denominator + acy * abLift - aby * acLift;
+        long numeratorY = ay * denominator + abx * acLift - acx * abLift;
+        if (denominator < 0) {
+            numeratorX = -numeratorX;
+            numeratorY = -numeratorY;
+            denominator = -denominator;
+        }
+        long gcd = gcd(gcd(Math.abs(numeratorX), Math.abs(numeratorY)), denominator);
+        return new RationalPoint(numeratorX / gcd, numeratorY / gcd, denominator / gcd);
+    }
+
+    /**
+     * Returns the x coordinate of the rightmost point of the circle with the given center through
+     * the given point. Every point on the same circle gives exactly the same result.
+     *
+     * @return the x coordinate
+     */
+    public static double rightmostX(RationalPoint center, long px, long py) {
+        long denominator = center.getDenominator();
+        long dx = center.getNumeratorX() - px * denominator;
+        long dy = center.getNumeratorY() - py * denominator;
+        // The squared radius times the squared denominator is an integer of at most 121 bits, which
+        // is the same for every point on the circle; round it to a double from its exact value.
+        long lo = dx * dx;
+        long hi = multiplyHigh(dx, dx);
+        long term = dy * dy;
+        long sum = lo + term;
+        hi += multiplyHigh(dy, dy) + carry(lo, term, sum);
+        lo = sum;
+        double radiusSquared = hi * 0x1p64 + (lo >>> 1) * 2.0 + (lo & 1);
+        return (double) center.getNumeratorX() / denominator + Math.sqrt(radiusSquared) / denominator;
+    }
+
+    private static boolean isLatticeCoordinate(double coordinate) {
+        return coordinate == Math.rint(coordinate) && Math.abs(coordinate) <= MAX_COORDINATE;
+    }
+
+    /**
+     * Returns the high 64 bits of the 128-bit product of two signed longs (Math.multiplyHigh, which
+     * is not available in Java 8).
+     */
+    private static long multiplyHigh(long x, long y) {
+        long x1 = x >> 32;
+        long x2 = x & 0xFFFFFFFFL;
+        long y1 = y >> 32;
+        long y2 = y & 0xFFFFFFFFL;
+        long z2 = x2 * y2;
+        long t = x1 * y2 + (z2 >>> 32);
+        long z1 = t & 0xFFFFFFFFL;
+        long z0 = t >> 32;
+        z1 += x2 * y1;
+        return x1 * y1 + z0 + (z1 >> 32);
+    }
+
+    /**
+     * Returns the carry into the high 64 bits when adding the low 64 bits a and b of two signed
+     * 128-bit numbers, given their sum. The low 64 bits are unsigned, so the carry is 0 or 1.
+     */
+    private static long carry(long a, long b, long sum) {
+        return Long.compareUnsigned(sum, a) < 0 ? 1 : 0;
+    }
+
+    private static long gcd(long a, long b) {
+        if (a == 0)
+            return b;
+        if (b == 0)
+            return a;
+        int shift = Long.numberOfTrailingZeros(a | b);
+        a >>= Long.numberOfTrailingZeros(a);
+        while (b != 0) {
+            b >>= Long.numberOfTrailingZeros(b);
+            if (a > b) {
+                long tmp = a;
+                a = b;
+                b = tmp;
+            }
+            b -= a;
+        }
+        return a << shift;
+    }
+
+    private LatticePredicates() {
+    }
+}
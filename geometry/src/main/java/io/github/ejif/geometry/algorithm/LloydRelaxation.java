@@ -0,0 +1,190 @@
+package io.github.ejif.geometry.algorithm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import io.github.ejif.geometry.DelaunayTriangulation;
+import io.github.ejif.geometry.Point;
+import io.github.ejif.geometry.Rectangle;
+
+/**
+ * Moves points towards a centroidal Voronoi tessellation of a rectangle with Lloyd's algorithm: in
+ * each iteration, every point moves to the centroid of its Voronoi region (clipped to the
+ * rectangle), which makes the regions more and more equal in size and shape, such as for balanced
+ * service territories.
+ *
+ * Since the points move less and less, the Delaunay triangulation of one iteration is usually
+ * almost that of the next one. The relaxation keeps the triangulation in a
+ * {@link FlipTriangulation} and repairs it with a few edge flips after the points move (moving a
+ * point in smaller steps if it would turn a triangle inside out), and only rebuilds it with a {@link VoronoiBuilder}
+ * (which it reuses) if it cannot be repaired. The regions are then clipped and measured by
+ * {@link RegionMetrics}, without creating any objects per point.
+ *
+ * The triangulation also contains the corners of a square far around the rectangle, so that the
+ * points are never on its hull. An edge between two points whose Voronoi regions meet inside the
+ * rectangle has an empty circle centered inside the rectangle, which cannot reach the corners, so
+ * the corners do not change the clipped regions.
+ */
+public final class LloydRelaxation {
+
+    private static final int NUM_CORNERS = 4;
+
+    private final Rectangle bounds;
+    private final boolean parallel;
+    private final VoronoiBuilder voronoiBuilder = new VoronoiBuilder();
+    private final int numPoints;
+    private double[] xs;
+    private double[] ys;
+    // The coordinates of the points and then the corners, to rebuild the triangulation from.
+    private final double[] triangulatedXs;
+    private final double[] triangulatedYs;
+    private final int[] pointIndices;
+    private FlipTriangulation triangulation;
+    private int numRebuilds;
+
+    /**
+     * Creates a relaxation of the given points.
+     *
+     * @param points
+     *            the initial points
+     * @param bounds
+     *            the rectangle to clip the Voronoi regions to
+     * @param parallel
+     *            whether to process the points in parallel
+     */
+    public LloydRelaxation(List<Point> points, Rectangle bounds, boolean parallel) {
+        this.bounds = bounds;
+        this.parallel = parallel;
+        this.numPoints = points.size();
+        this.xs = new double[numPoints];
+        this.ys = new double[numPoints];
+        double minX = bounds.minX;
+        double minY = bounds.minY;
+        double maxX = bounds.maxX;
+        double maxY = bounds.maxY;
+        for (int i = 0; i < numPoints; i++) {
+            xs[i] = points.get(i).x;
+            ys[i] = points.get(i).y;
+            minX = Math.min(minX, xs[i]);
+            minY = Math.min(minY, ys[i]);
+            maxX = Math.max(maxX, xs[i]);
+            maxY = Math.max(maxY, ys[i]);
+        }
+
+        this.pointIndices = IntStream.range(0, numPoints).toArray();
+
+        // The points only move inside the rectangle, so they stay far from the corners.
+        this.triangulatedXs = new double[numPoints + NUM_CORNERS];
+        this.triangulatedYs = new double[numPoints + NUM_CORNERS];
+        double size = 10 * Math.max(1, Math.max(maxX - minX, maxY - minY));
+        double centerX = (minX + maxX) / 2;
+        double centerY = (minY + maxY) / 2;
+        for (int i = 0; i < NUM_CORNERS; i++) {
+            triangulatedXs[numPoints + i] = i == 0 || i == 3 ? centerX - size : centerX + size;
+            triangulatedYs[numPoints + i] = i < 2 ? centerY - size : centerY + size;
+        }
+    }
+
+    /**
+     * Runs iterations until no point moves more than the given distance, or the maximum number of
+     * iterations is reached.
+     *
+     * @param maxIterations
+     *            the maximum number of iterations
+     * @param tolerance
+     *            the distance below which a point is considered to have converged
+     * @return the number of iterations run
+     */
+    public int relax(int maxIterations, double tolerance) {
+        for (int iteration = 1; iteration <= maxIterations; iteration++)
+            if (step() <= tolerance)
+                return iteration;
+        return maxIterations;
+    }
+
+    /**
+     * Moves every point to the centroid of its Voronoi region. A point whose region does not
+     * intersect the interior of the rectangle stays where it is.
+     *
+     * @return the largest distance that a point moved
+     */
+    public double step() {
+        double[] oldXs = xs;
+        double[] oldYs = ys;
+        RegionMetrics metrics = RegionMetrics.compute(VoronoiAdjacency.create(xs, ys, triangulate()), bounds, parallel);
+        double[] newXs = metrics.getCentroidXs();
+        double[] newYs = metrics.getCentroidYs();
+        IntStream pointIndices = IntStream.range(0, xs.length);
+        if (parallel)
+            pointIndices = pointIndices.parallel();
+        double maxDistance = pointIndices
+            .mapToDouble(i -> {
+                if (Double.isNaN(newXs[i])) {
+                    newXs[i] = oldXs[i];
+                    newYs[i] = oldYs[i];
+                }
+                return Math.hypot(newXs[i] - oldXs[i], newYs[i] - oldYs[i]);
+            })
+            .max()
+            .orElse(0);
+        xs = newXs;
+        ys = newYs;
+        return maxDistance;
+    }
+
+    /**
+     * Returns the current points.
+     *
+     * @return the points
+     */
+    public List<Point> getPoints() {
+        List<Point> points = new ArrayList<>(xs.length);
+        for (int i = 0; i < xs.length; i++)
+            points.add(new Point(xs[i], ys[i]));
+        return points;
+    }
+
+    /**
+     * Returns the number of times that the Delaunay triangulation was computed from scratch, rather
+     * than repaired from that of the last iteration.
+     *
+     * @return the number of rebuilds
+     */
+    @VisibleForTesting
+    int getNumRebuilds() {
+        return numRebuilds;
+    }
+
+    /**
+     * Returns the edges of the Delaunay triangulation of the current points.
+     */
+    private int[] triangulate() {
+        // A few flips per point are still much cheaper than a rebuild.
+        int[] edges = triangulation != null && triangulation.moveInSteps(pointIndices, numPoints, xs, ys, numPoints, parallel)
+                ? triangulation.toDelaunayTriangulation().getEdges()
+                : rebuild().getEdges();
+        int numEdgeIndices = 0;
+        for (int i = 0; i < edges.length; i += 2)
+            if (edges[i + 1] < numPoints) {
+                edges[numEdgeIndices++] = edges[i];
+                edges[numEdgeIndices++] = edges[i + 1];
+            }
+        return Arrays.copyOf(edges, numEdgeIndices);
+    }
+
+    private DelaunayTriangulation rebuild() {
+        numRebuilds++;
+        System.arraycopy(xs, 0, triangulatedXs, 0, numPoints);
+        System.arraycopy(ys, 0, triangulatedYs, 0, numPoints);
+        List<Point> points = new ArrayList<>(numPoints + NUM_CORNERS);
+        for (int i = 0; i < triangulatedXs.length; i++)
+            points.add(new Point(triangulatedXs[i], triangulatedYs[i]));
+        DelaunayTriangulation delaunayTriangulation = voronoiBuilder.createDelaunayTriangulation(points);
+        triangulation = FlipTriangulation.create(triangulatedXs, triangulatedYs, delaunayTriangulation);
+        return delaunayTriangulation;
+    }
+}
@@ -0,0 +1,77 @@
+package io.github.ejif.geometry.algorithm;
+
+import java.util.Arrays;
+
+/**
+ * An open-addressing hash map that numbers distinct long keys 0, 1, 2, ... in the order they are
+ * first added, so that values can be stored in primitive arrays indexed by key number. It can be
+ * cleared in time proportional to its size so that it can be reused cheaply between builds.
+ */
+final class LongIndexMap {
+
+    private static final int EMPTY = -1;
+
+    private int[] table;
+    private long[] keys;
+    private int size;
+
+    LongIndexMap(int initialCapacity) {
+        int tableSize = Integer.highestOneBit(Math.max(4, 2 * initialCapacity - 1)) << 1;
+        this.table = new int[tableSize];
+        this.keys = new long[tableSize / 2];
+        Arrays.fill(table, EMPTY);
+    }
+
+    int size() {
+        return size;
+    }
+
+    long getKey(int index) {
+        return keys[index];
+    }
+
+    /**
+     * Returns the index of the given key, adding the key with the next index if it was not already
+     * in the map.
+     */
+    int add(long key) {
+        int mask = table.length - 1;
+        for (int i = mix(key) & mask;; i = (i + 1) & mask) {
+            int index = table[i];
+            if (index == EMPTY) {
+                table[i] = size;
+                keys[size] = key;
+                if (++size == keys.length)
+                    grow();
+                return size - 1;
+            }
+            if (keys[index] == key)
+                return index;
+        }
+    }
+
+    void clear() {
+        int mask = table.length - 1;
+        for (int j = 0; j < size; j++)
+            for (int i = mix(keys[j]) & mask; table[i] != EMPTY; i = (i + 1) & mask)
+                table[i] = EMPTY;
+        size = 0;
+    }
+
+    private void grow() {
+        table = new int[2 * table.length];
+        keys = Arrays.copyOf(keys, table.length / 2);
+        Arrays.fill(table, EMPTY);
+        int mask = table.length - 1;
+        for (int j = 0; j < size; j++) {
+            int i = mix(keys[j]) & mask;
+            while (table[i] != EMPTY)
+                i = (i + 1) & mask;
+            table[i] = j;
+        }
+    }
+
+    private static int mix(long key) {
+        return (int) (key * 0x9E3779B97F4A7C15L >>> 32);
+    }
+}
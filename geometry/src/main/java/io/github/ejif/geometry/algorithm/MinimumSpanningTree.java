@@ -0,0 +1,60 @@
+package io.github.ejif.geometry.algorithm;
+
+import java.util.Arrays;
+import java.util.List;
+
+import io.github.ejif.geometry.DelaunayTriangulation;
+import io.github.ejif.geometry.Point;
+
+public final class MinimumSpanningTree {
+
+    /**
+     * Computes the Euclidean minimum spanning tree of the given points, in O(n log n) time. Every
+     * edge of the Euclidean minimum spanning tree is an edge of the Delaunay triangulation, so only
+     * the O(n) Delaunay edges are considered.
+     *
+     * @param points
+     *            the points to compute the minimum spanning tree of
+     * @return the edges of the tree, where edge i joins points edges[2i] and edges[2i + 1], in
+     *         increasing order of length
+     */
+    public static int[] createEuclidean(List<Point> points) {
+        return createEuclidean(points, Voronoi.createDelaunayTriangulation(points));
+    }
+
+    /**
+     * Computes the Euclidean minimum spanning tree of the given points from their Delaunay
+     * triangulation, using Kruskal's algorithm.
+     *
+     * @param points
+     *            the points to compute the minimum spanning tree of
+     * @param triangulation
+     *            the Delaunay triangulation of the points
+     * @return the edges of the tree, where edge i joins points edges[2i] and edges[2i + 1], in
+     *         increasing order of length
+     */
+    public static int[] createEuclidean(List<Point> points, DelaunayTriangulation triangulation) {
+        int[] edges = triangulation.getEdges();
+        int numEdges = triangulation.getNumEdges();
+        DoubleIntHeap heap = new DoubleIntHeap(numEdges);
+        for (int i = 0; i < numEdges; i++)
+            heap.push(Points.distanceSquared(points.get(edges[2 * i]), points.get(edges[2 * i + 1])), i);
+
+        int[] tree = new int[2 * Math.max(points.size() - 1, 0)];
+        int numTreeIndices = 0;
+        UnionFind components = new UnionFind(points.size());
+        while (numTreeIndices < tree.length && !heap.isEmpty()) {
+            int i = heap.peekValue();
+            heap.pop();
+            if (components.union(edges[2 * i], edges[2 * i + 1])) {
+                tree[numTreeIndices++] = edges[2 * i];
+                tree[numTreeIndices++] = edges[2 * i + 1];
+            }
+        }
+        // The tree is shorter if some points are duplicates.
+        return Arrays.copyOf(tree, numTreeIndices);
+    }
+
+    private MinimumSpanningTree() {
+    }
+}
@@ -0,0 +1,135 @@
+package io.github.ejif.geometry.algorithm;
+
+import java.util.function.IntConsumer;
+
+import javax.annotation.Nullable;
+
+/**
+ * Searches for points near a query point by expanding from the closest point over the Voronoi
+ * adjacency. The buffers used by a search are kept and reused by the next search, so an instance
+ * is not thread-safe.
+ */
+final class NeighborSearch {
+
+    private final VoronoiAdjacency adjacency;
+    private final DoubleIntHeap heap = new DoubleIntHeap(64);
+    private final IntHashSet visited = new IntHashSet(64);
+
+    NeighborSearch(VoronoiAdjacency adjacency) {
+        this.adjacency = adjacency;
+    }
+
+    /**
+     * Returns the number of points that a search for the closest enabled point may visit before
+     * scanning all enabled points is cheaper. Visiting a point costs a heap operation for each of
+     * its neighbors, while scanning costs about one distance computation per point.
+     */
+    static int maxVisitedBeforeScan(int numPoints) {
+        return Math.max(64, numPoints >> 5);
+    }
+
+    /**
+     * Finds the k points closest to (x, y), in order of increasing distance. Points are visited in
+     * order of increasing distance starting from the closest point, which works because the (m +
+     * 1)-th closest point always shares a border with one of the m closest points. Each step
+     * pushes the neighbors of one point onto a heap, so this takes O(k log k) time.
+     *
+     * @return the number of points found, which is min(k, number of points)
+     */
+    int findKClosest(int closestPointIndex, double x, double y, int k, int[] indices, double[] distances) {
+        heap.clear();
+        visited.clear();
+        heap.push(adjacency.distanceSquared(closestPointIndex, x, y), closestPointIndex);
+        visited.add(closestPointIndex);
+        int count = 0;
+        while (count < k && !heap.isEmpty()) {
+            int pointIndex = heap.peekValue();
+            indices[count] = pointIndex;
+            distances[count] = Math.sqrt(heap.peekKey());
+            count++;
+            heap.pop();
+            if (count == k)
+                break;
+            int end = adjacency.getNeighborEnd(pointIndex);
+            for (int j = adjacency.getNeighborStart(pointIndex); j < end; j++) {
+                int neighbor = adjacency.getNeighbor(j);
+                if (visited.add(neighbor))
+                    heap.push(adjacency.distanceSquared(neighbor, x, y), neighbor);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Finds all points within distance r of (x, y), in order of increasing distance. This visits
+     * points in the same order as {@link #findKClosest}, stopping at the first point farther than
+     * r, so it takes O(m log m) time for m points found, regardless of the total number of points.
+     *
+     * @return the number of points found
+     */
+    int findWithinRadius(int closestPointIndex, double x, double y, double r, @Nullable IntConsumer consumer) {
+        double rSquared = r * r;
+        heap.clear();
+        visited.clear();
+        heap.push(adjacency.distanceSquared(closestPointIndex, x, y), closestPointIndex);
+        visited.add(closestPointIndex);
+        int count = 0;
+        while (!heap.isEmpty() && heap.peekKey() <= rSquared) {
+            int pointIndex = heap.peekValue();
+            heap.pop();
+            if (consumer != null)
+                consumer.accept(pointIndex);
+            count++;
+            int end = adjacency.getNeighborEnd(pointIndex);
+            for (int j = adjacency.getNeighborStart(pointIndex); j < end; j++) {
+                int neighbor = adjacency.getNeighbor(j);
+                if (visited.add(neighbor))
+                    heap.push(adjacency.distanceSquared(neighbor, x, y), neighbor);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Finds the point closest to (x, y) that is enabled in the given mask. Points are visited in
+     * the same order as {@link #findKClosest}, so the first enabled point visited is the answer and
+     * only the disabled points closer than it are visited before it. If more than maxVisited points
+     * would be visited, the enabled points are scanned directly instead.
+     *
+     * @return the index of the closest enabled point, or -1 if no point is enabled
+     */
+    int findClosestEnabled(int closestPointIndex, double x, double y, PointMask mask, int maxVisited) {
+        heap.clear();
+        visited.clear();
+        heap.push(adjacency.distanceSquared(closestPointIndex, x, y), closestPointIndex);
+        visited.add(closestPointIndex);
+        while (!heap.isEmpty()) {
+            int pointIndex = heap.peekValue();
+            if (mask.isEnabled(pointIndex))
+                return pointIndex;
+            heap.pop();
+            if (visited.size() > maxVisited)
+                return scanEnabled(x, y, mask);
+            int end = adjacency.getNeighborEnd(pointIndex);
+            for (int j = adjacency.getNeighborStart(pointIndex); j < end; j++) {
+                int neighbor = adjacency.getNeighbor(j);
+                if (visited.add(neighbor))
+                    heap.push(adjacency.distanceSquared(neighbor, x, y), neighbor);
+            }
+        }
+        return -1;
+    }
+
+    private int scanEnabled(double x, double y, PointMask mask) {
+        int closest = -1;
+        double closestDistance = Double.POSITIVE_INFINITY;
+        for (int pointIndex = mask.nextEnabled(0); pointIndex != -1; pointIndex = mask.nextEnabled(pointIndex + 1)) {
+            double distance = adjacency.distanceSquared(pointIndex, x, y);
+            if (distance < closestDistance) {
+                closest = pointIndex;
+                closestDistance = distance;
+            }
+        }
+        return closest;
+    }
+}
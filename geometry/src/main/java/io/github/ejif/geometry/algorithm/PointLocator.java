@@ -0,0 +1,147 @@
+package io.github.ejif.geometry.algorithm;
+
+import java.util.function.IntConsumer;
+
+import io.github.ejif.geometry.Point;
+
+/**
+ * Finds closest points for a sequence of queries where each query is usually close to the previous
+ * one, such as the positions of a vehicle along its trajectory.
+ *
+ * Instead of searching the trapezoidal map from its root, the locator remembers the closest point
+ * of the previous query and walks through neighboring Voronoi regions towards the new query point.
+ * When consecutive queries fall in the same or adjacent regions, this takes O(1) time. If the walk
+ * takes more than a fixed number of steps, the locator falls back to the trapezoidal map, so a
+ * query never takes much longer than {@link PointSet#findClosestPoint}.
+ *
+ * A locator is not thread-safe; create one per thread with {@link PointSet#locator()}.
+ */
+public final class PointLocator {
+
+    static final int DEFAULT_MAX_WALK_STEPS = 8;
+
+    private final PointSet pointSet;
+    private final VoronoiAdjacency adjacency;
+    private final int maxWalkSteps;
+    private final NeighborSearch search;
+    private int lastPointIndex;
+
+    PointLocator(PointSet pointSet, int maxWalkSteps) {
+        this.pointSet = pointSet;
+        this.adjacency = pointSet.getAdjacency();
+        this.maxWalkSteps = maxWalkSteps;
+        this.search = new NeighborSearch(adjacency);
+    }
+
+    /**
+     * Finds the closest anchor point to the given point, starting from the result of the previous
+     * query. If there are multiple closest points, an arbitrary one is returned.
+     *
+     * @param point
+     *            a point
+     * @return the anchor point closest to the point
+     */
+    public Point findClosestPoint(Point point) {
+        return pointSet.getPoints().get(findClosestIndex(point.x, point.y));
+    }
+
+    /**
+     * Finds the index of the closest anchor point to the given point, starting from the result of
+     * the previous query, without allocating any objects. If there are multiple closest points, an
+     * arbitrary one is returned.
+     *
+     * @param x
+     *            the x coordinate of the point
+     * @param y
+     *            the y coordinate of the point
+     * @return the index of the anchor point closest to the point
+     */
+    public int findClosestIndex(double x, double y) {
+        int pointIndex = adjacency.walk(lastPointIndex, x, y, maxWalkSteps);
+        if (pointIndex == -1)
+            pointIndex = pointSet.findClosestIndex(x, y);
+        lastPointIndex = pointIndex;
+        return pointIndex;
+    }
+
+    /**
+     * Finds the k closest anchor points to the given point, in order of increasing distance,
+     * starting from the result of the previous query. Ties are broken arbitrarily. The buffers
+     * used by the search are reused between calls.
+     *
+     * @param point
+     *            a point
+     * @param k
+     *            the number of anchor points to find
+     * @param indices
+     *            the array to write the indices of the closest anchor points to, of length at least
+     *            k
+     * @param distances
+     *            the array to write the distances of the closest anchor points to, of length at
+     *            least k
+     * @return the number of anchor points found, which is min(k, number of anchor points)
+     * @see PointSet#findKClosest
+     */
+    public int findKClosest(Point point, int k, int[] indices, double[] distances) {
+        if (k <= 0)
+            return 0;
+        return search.findKClosest(findClosestIndex(point.x, point.y), point.x, point.y, k, indices, distances);
+    }
+
+    /**
+     * Passes the index of every anchor point within the given distance of the given point
+     * (inclusive) to the given consumer, in order of increasing distance, starting from the result
+     * of the previous query.
+     *
+     * @param point
+     *            a point
+     * @param r
+     *            the distance
+     * @param consumer
+     *            the consumer to pass the index of each anchor point within the distance to
+     * @return the number of anchor points within the distance
+     * @throws IllegalArgumentException if the distance is negative
+     * @see PointSet#findWithinRadius
+     */
+    public int findWithinRadius(Point point, double r, IntConsumer consumer) throws IllegalArgumentException {
+        if (r < 0)
+            throw new IllegalArgumentException("Radius must not be negative.");
+        return search.findWithinRadius(findClosestIndex(point.x, point.y), point.x, point.y, r, consumer);
+    }
+
+    /**
+     * Counts the anchor points within the given distance of the given point (inclusive), starting
+     * from the result of the previous query.
+     *
+     * @param point
+     *            a point
+     * @param r
+     *            the distance
+     * @return the number of anchor points within the distance
+     * @throws IllegalArgumentException if the distance is negative
+     * @see PointSet#countWithinRadius
+     */
+    public int countWithinRadius(Point point, double r) throws IllegalArgumentException {
+        if (r < 0)
+            throw new IllegalArgumentException("Radius must not be negative.");
+        return search.findWithinRadius(findClosestIndex(point.x, point.y), point.x, point.y, r, null);
+    }
+
+    /**
+     * Finds the index of the closest anchor point to the given point among the anchor points that
+     * are enabled in the given mask, starting from the result of the previous query.
+     *
+     * @param x
+     *            the x coordinate of the point
+     * @param y
+     *            the y coordinate of the point
+     * @param mask
+     *            the mask of enabled anchor points, which may be updated concurrently
+     * @return the index of the closest enabled anchor point, or -1 if no anchor point is enabled
+     * @see PointSet#findClosestEnabledIndex
+     */
+    public int findClosestEnabledIndex(double x, double y, PointMask mask) {
+        return search.findClosestEnabled(findClosestIndex(x, y), x, y, mask,
+            NeighborSearch.maxVisitedBeforeScan(adjacency.getNumPoints()));
+    }
+}
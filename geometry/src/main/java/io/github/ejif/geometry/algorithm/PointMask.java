@@ -0,0 +1,103 @@
+package io.github.ejif.geometry.algorithm;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A set of enabled point indices, used to restrict queries on a {@link PointSet} to a subset of its
+ * points. Points can be enabled and disabled from any thread, concurrently with queries; a query
+ * sees each point as either enabled or disabled, but may see updates made during the query in any
+ * combination.
+ */
+public final class PointMask {
+
+    private final int numPoints;
+    private final AtomicLongArray words;
+    private final AtomicInteger numEnabled = new AtomicInteger();
+
+    /**
+     * Creates a mask over the given number of points.
+     *
+     * @param numPoints
+     *            the number of points
+     * @param enabled
+     *            whether all points are initially enabled (otherwise all are disabled)
+     */
+    public PointMask(int numPoints, boolean enabled) {
+        this.numPoints = numPoints;
+        this.words = new AtomicLongArray((numPoints + 63) >>> 6);
+        if (enabled)
+            for (int pointIndex = 0; pointIndex < numPoints; pointIndex++)
+                enable(pointIndex);
+    }
+
+    public int getNumPoints() {
+        return numPoints;
+    }
+
+    /**
+     * Returns the number of enabled points.
+     *
+     * @return the number of enabled points
+     */
+    public int getNumEnabled() {
+        return numEnabled.get();
+    }
+
+    public boolean isEnabled(int pointIndex) {
+        return (words.get(pointIndex >>> 6) & 1L << pointIndex) != 0;
+    }
+
+    public void enable(int pointIndex) {
+        set(pointIndex, true);
+    }
+
+    public void disable(int pointIndex) {
+        set(pointIndex, false);
+    }
+
+    /**
+     * Enables or disables the given point.
+     *
+     * @param pointIndex
+     *            the index of the point
+     * @param enabled
+     *            whether the point should be enabled
+     */
+    public void set(int pointIndex, boolean enabled) {
+        if (pointIndex < 0 || pointIndex >= numPoints)
+            throw new IndexOutOfBoundsException("Point index " + pointIndex + " is out of bounds.");
+        long bit = 1L << pointIndex;
+        int wordIndex = pointIndex >>> 6;
+        while (true) {
+            long word = words.get(wordIndex);
+            long newWord = enabled ? word | bit : word & ~bit;
+            if (word == newWord)
+                return;
+            if (words.compareAndSet(wordIndex, word, newWord)) {
+                numEnabled.addAndGet(enabled ? 1 : -1);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns the index of the first enabled point at or after the given index.
+     *
+     * @param fromIndex
+     *            the index to start searching from
+     * @return the index of the enabled point, or -1 if there is none
+     */
+    public int nextEnabled(int fromIndex) {
+        if (fromIndex >= numPoints)
+            return -1;
+        int wordIndex = fromIndex >>> 6;
+        long word = words.get(wordIndex) & -1L << fromIndex;
+        while (word == 0) {
+            if (++wordIndex == words.length())
+                return -1;
+            word = words.get(wordIndex);
+        }
+        return (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+    }
+}
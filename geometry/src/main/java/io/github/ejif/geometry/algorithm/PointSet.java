@@ -2,20 +2,47 @@
 package io.github.ejif.geometry.algorithm;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+import javax.annotation.Nullable;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 
+import io.github.ejif.geometry.DirectedEdge;
 import io.github.ejif.geometry.Point;
+import io.github.ejif.geometry.Rectangle;
+import io.github.ejif.geometry.VoronoiDiagram;
 import io.github.ejif.geometry.VoronoiDiagram.Border;
 
+/**
+ * A set of anchor points, indexed for efficient closest point queries.
+ *
+ * The index (the Voronoi diagram of the anchor points, and a trapezoidal map over it) is not built
+ * until it is needed, as controlled by {@link PointSetOptions}. Small point sets, and point sets
+ * that have not answered enough queries yet, answer closest point queries by scanning the anchor
+ * points instead. Other queries build the index on first use. The index is built at most once,
+ * and is safely published to all threads.
+ */
 public final class PointSet {
 
     private final List<Point> points;
-    private final TrapezoidalMap trapezoidalMap;
+    private final double[] xs;
+    private final double[] ys;
+    private final Rectangle bounds;
+    private final Random random;
+    private final PointSetOptions options;
+    private final AtomicInteger numScanQueries = new AtomicInteger();
+    private final AtomicBoolean indexScheduled = new AtomicBoolean();
+    private volatile Index index;
 
     /**
      * Creates an object encapsulating a set of n points, indexed for efficient point location
@@ -25,21 +52,43 @@ public final class PointSet {
      *            the set of points
      */
     public PointSet(List<Point> points) {
-        this(points, new Random());
+        this(points, PointSetOptions.DEFAULT);
+    }
+
+    /**
+     * Creates an object encapsulating a set of n points, which builds its index as specified by the
+     * given options.
+     *
+     * @param points
+     *            the set of points
+     * @param options
+     *            the options controlling when the index is built
+     */
+    public PointSet(List<Point> points, PointSetOptions options) {
+        this(points, new Random(), options);
     }
 
     @VisibleForTesting
     PointSet(List<Point> points, Random random) {
-        this.points = ImmutableList.copyOf(points);
-        this.trapezoidalMap = new TrapezoidalMap(random);
-
-        List<Border> borders = new ArrayList<>(Voronoi.createVoronoiDiagram(points).getBorders());
-
-        // Inserting n edges into a trapezoidal map is worst case O(n^2), but is average case O(n log n).
-        Collections.shuffle(borders, random);
+        this(points, random, PointSetOptions.DEFAULT);
+    }
 
-        for (Border border : borders)
-            trapezoidalMap.addEdge(border.getEdge(), border.getLeftPointIndex(), border.getRightPointIndex());
+    @VisibleForTesting
+    PointSet(List<Point> points, Random random, PointSetOptions options) {
+        this.points = ImmutableList.copyOf(points);
+        this.xs = new double[points.size()];
+        this.ys = new double[points.size()];
+        for (int i = 0; i < points.size(); i++) {
+            xs[i] = points.get(i).x;
+            ys[i] = points.get(i).y;
+        }
+        this.bounds = new Rectangle(
+            Arrays.stream(xs).min().orElse(0),
+            Arrays.stream(ys).min().orElse(0),
+            Arrays.stream(xs).max().orElse(0),
+            Arrays.stream(ys).max().orElse(0));
+        this.random = random;
+        this.options = options;
     }
 
     /**
@@ -63,10 +112,355 @@ public final class PointSet {
     public Point findClosestPoint(Point point) throws IllegalArgumentException {
         if (points.isEmpty())
             throw new IllegalArgumentException("Point set contains no points.");
-        if (points.size() == 1)
-            return points.get(0);
+        return points.get(findClosestIndex(point.x, point.y));
+    }
+
+    /**
+     * Finds the index of the closest anchor point to the given point, without allocating any
+     * objects. If there are multiple closest points, an arbitrary one is returned.
+     *
+     * @param x
+     *            the x coordinate of the point
+     * @param y
+     *            the y coordinate of the point
+     * @return the index of the anchor point closest to the point, or -1 if the point set contains no
+     *         points
+     */
+    public int findClosestIndex(double x, double y) {
+        Index index = indexForClosestQuery();
+        return index == null ? scanClosestIndex(x, y) : index.trapezoidalMap.findRegion(x, y);
+    }
+
+    /**
+     * Finds the index of the closest anchor point to the given point, and writes the squared
+     * distance to that anchor point into the given array, without allocating any objects. If there
+     * are multiple closest points, an arbitrary one is returned.
+     *
+     * @param x
+     *            the x coordinate of the point
+     * @param y
+     *            the y coordinate of the point
+     * @param distancesSquared
+     *            the array to write the squared distance to
+     * @param offset
+     *            the index in the array to write the squared distance to
+     * @return the index of the anchor point closest to the point
+     * @throws IllegalArgumentException if the point set contains no points
+     */
+    public int findClosestIndex(double x, double y, double[] distancesSquared, int offset) throws IllegalArgumentException {
+        int pointIndex = findClosestIndex(x, y);
+        if (pointIndex == -1)
+            throw new IllegalArgumentException("Point set contains no points.");
+        double dx = xs[pointIndex] - x;
+        double dy = ys[pointIndex] - y;
+        distancesSquared[offset] = dx * dx + dy * dy;
+        return pointIndex;
+    }
+
+    /**
+     * Finds the index of the closest anchor point to each of the given points. If there are
+     * multiple closest points, an arbitrary one is used.
+     *
+     * Instead of searching for each point separately, the points are resolved in the order of a
+     * Hilbert curve over the bounding box of the anchor points, so that each point is usually close
+     * to the previous one and can be found by walking from its result (see {@link PointLocator}).
+     * This is much faster than separate searches for large batches of points in random order.
+     *
+     * @param xs
+     *            the x coordinates of the points
+     * @param ys
+     *            the y coordinates of the points
+     * @param indices
+     *            the array to write the index of the closest anchor point of each point to
+     * @throws IllegalArgumentException if the point set contains no points, or the arrays don't
+     *             have the same length
+     */
+    public void findClosestIndices(double[] xs, double[] ys, int[] indices) throws IllegalArgumentException {
+        if (xs.length != ys.length || xs.length != indices.length)
+            throw new IllegalArgumentException("Coordinate and index arrays must have the same length.");
+        PointLocator locator = locator();
+        for (int i : HilbertCurve.sort(xs, ys, xs.length, bounds))
+            indices[i] = locator.findClosestIndex(xs[i], ys[i]);
+    }
+
+    /**
+     * Finds the k closest anchor points to the given point, in order of increasing distance. Ties
+     * are broken arbitrarily.
+     *
+     * The closest anchor point is found with the trapezoidal map, and the search then expands over
+     * neighboring Voronoi regions in order of distance, so this takes O(log n + k log k) expected
+     * time.
+     *
+     * @param point
+     *            a point
+     * @param k
+     *            the number of anchor points to find
+     * @param indices
+     *            the array to write the indices of the closest anchor points to, of length at least
+     *            k
+     * @param distances
+     *            the array to write the distances of the closest anchor points to, of length at
+     *            least k
+     * @return the number of anchor points found, which is min(k, number of anchor points)
+     * @throws IllegalArgumentException if the point set contains no points
+     */
+    public int findKClosest(Point point, int k, int[] indices, double[] distances) throws IllegalArgumentException {
+        if (points.isEmpty())
+            throw new IllegalArgumentException("Point set contains no points.");
+        if (k <= 0)
+            return 0;
+        return getIndex().searches.get().findKClosest(findClosestIndex(point.x, point.y), point.x, point.y, k, indices, distances);
+    }
+
+    /**
+     * Passes the index of every anchor point within the given distance of the given point
+     * (inclusive) to the given consumer, in order of increasing distance.
+     *
+     * The closest anchor point is found with the trapezoidal map, and the search then expands over
+     * neighboring Voronoi regions, only past anchor points within the distance. (The anchor points
+     * in any disc are connected through Voronoi neighbors.) This takes O(log n + m log m) expected
+     * time for m results, regardless of the number of anchor points, and allocates nothing once the
+     * search buffers of the calling thread have grown to fit.
+     *
+     * @param point
+     *            a point
+     * @param r
+     *            the distance
+     * @param consumer
+     *            the consumer to pass the index of each anchor point within the distance to
+     * @return the number of anchor points within the distance
+     * @throws IllegalArgumentException if the distance is negative
+     */
+    public int findWithinRadius(Point point, double r, IntConsumer consumer) throws IllegalArgumentException {
+        if (r < 0)
+            throw new IllegalArgumentException("Radius must not be negative.");
+        if (points.isEmpty())
+            return 0;
+        return getIndex().searches.get().findWithinRadius(findClosestIndex(point.x, point.y), point.x, point.y, r, consumer);
+    }
+
+    /**
+     * Counts the anchor points within the given distance of the given point (inclusive), in the
+     * same way as {@link #findWithinRadius}.
+     *
+     * @param point
+     *            a point
+     * @param r
+     *            the distance
+     * @return the number of anchor points within the distance
+     * @throws IllegalArgumentException if the distance is negative
+     */
+    public int countWithinRadius(Point point, double r) throws IllegalArgumentException {
+        if (r < 0)
+            throw new IllegalArgumentException("Radius must not be negative.");
+        if (points.isEmpty())
+            return 0;
+        return getIndex().searches.get().findWithinRadius(findClosestIndex(point.x, point.y), point.x, point.y, r, null);
+    }
+
+    /**
+     * Finds the index of the closest anchor point to the given point among the anchor points that
+     * are enabled in the given mask. If there are multiple closest points, an arbitrary one is
+     * returned.
+     *
+     * The closest anchor point is found with the trapezoidal map, and the search then expands over
+     * neighboring Voronoi regions in order of distance until it reaches an enabled anchor point.
+     * This takes O(log n) expected time while most anchor points are enabled, and O(m log m) time
+     * if m disabled anchor points are closer than the result. If m grows too large, the enabled
+     * anchor points are scanned directly instead, so a query never takes much longer than O(n).
+     *
+     * @param x
+     *            the x coordinate of the point
+     * @param y
+     *            the y coordinate of the point
+     * @param mask
+     *            the mask of enabled anchor points, which may be updated concurrently
+     * @return the index of the closest enabled anchor point, or -1 if no anchor point is enabled
+     * @throws IllegalArgumentException if the mask has a different number of points than this point
+     *             set
+     */
+    public int findClosestEnabledIndex(double x, double y, PointMask mask) throws IllegalArgumentException {
+        if (mask.getNumPoints() != points.size())
+            throw new IllegalArgumentException("Mask has a different number of points than the point set.");
+        if (points.isEmpty())
+            return -1;
+        return getIndex().searches.get().findClosestEnabled(findClosestIndex(x, y), x, y, mask, NeighborSearch.maxVisitedBeforeScan(points.size()));
+    }
+
+    /**
+     * Finds the nearest other anchor point to every anchor point, in O(n) time in total. The nearest
+     * other anchor point always has a neighboring Voronoi region, so the trapezoidal map is not used.
+     *
+     * @param indices
+     *            the array to store the index of the nearest other anchor point to each anchor point
+     *            in, or -1 if there is no other anchor point; must have length at least n
+     * @param distances
+     *            the array to store the distance to the nearest other anchor point from each anchor
+     *            point in, or infinity if there is no other anchor point; must have length at least n
+     * @param parallel
+     *            whether to process the anchor points in parallel
+     * @throws IllegalArgumentException if either array is shorter than the number of anchor points
+     */
+    public void findNearestNeighbors(int[] indices, double[] distances, boolean parallel) throws IllegalArgumentException {
+        if (indices.length < points.size() || distances.length < points.size())
+            throw new IllegalArgumentException("Arrays must have a length of at least the number of points.");
+        getIndex().adjacency.findNearestNeighbors(indices, distances, parallel);
+    }
+
+    /**
+     * Finds the two closest anchor points, in O(n) time.
+     *
+     * @return the indices of the two closest anchor points, in increasing order
+     * @throws IllegalArgumentException if the point set contains fewer than two points
+     */
+    public int[] findClosestPair() throws IllegalArgumentException {
+        int[] closestPair = getIndex().adjacency.findClosestPair();
+        if (closestPair == null)
+            throw new IllegalArgumentException("Point set contains fewer than two points.");
+        return closestPair;
+    }
+
+    /**
+     * Creates a locator for queries that are close to each other, such as points along a
+     * trajectory. The locator is not thread-safe; create one per thread.
+     *
+     * @return the locator
+     * @throws IllegalArgumentException if the point set contains no points
+     * @see PointLocator
+     */
+    public PointLocator locator() throws IllegalArgumentException {
+        return locator(PointLocator.DEFAULT_MAX_WALK_STEPS);
+    }
+
+    /**
+     * Creates a locator for queries that are close to each other, which walks at most the given
+     * number of steps before falling back to a search from scratch.
+     *
+     * @param maxWalkSteps
+     *            the maximum number of steps to walk from the previous result
+     * @return the locator
+     * @throws IllegalArgumentException if the point set contains no points
+     * @see PointLocator
+     */
+    public PointLocator locator(int maxWalkSteps) throws IllegalArgumentException {
+        if (points.isEmpty())
+            throw new IllegalArgumentException("Point set contains no points.");
+        return new PointLocator(this, maxWalkSteps);
+    }
+
+    VoronoiAdjacency getAdjacency() {
+        return getIndex().adjacency;
+    }
+
+    @VisibleForTesting
+    boolean isIndexBuilt() {
+        return index != null;
+    }
+
+    /**
+     * Returns the index, building it on the calling thread if it has not been built yet.
+     */
+    private Index getIndex() {
+        return getIndex(null, null);
+    }
+
+    /**
+     * Builds the index with the given Voronoi builder, and the given list as scratch space for the
+     * borders of the Voronoi diagram, if it has not been built yet; see {@link PointSetBuilder}.
+     */
+    void buildIndex(VoronoiBuilder voronoiBuilder, List<Border> borders) {
+        getIndex(voronoiBuilder, borders);
+    }
+
+    private Index getIndex(@Nullable VoronoiBuilder voronoiBuilder, @Nullable List<Border> borders) {
+        Index index = this.index;
+        if (index != null)
+            return index;
+        synchronized (this) {
+            if (this.index == null)
+                this.index = new Index(
+                    points,
+                    random,
+                    voronoiBuilder == null ? new VoronoiBuilder() : voronoiBuilder,
+                    borders == null ? new ArrayList<>() : borders);
+            return this.index;
+        }
+    }
+
+    /**
+     * Returns the index to answer a closest point query with, or null if the query should scan the
+     * anchor points instead. Starts building the index once enough queries have scanned the anchor
+     * points. If the executor rejects the build, or the build fails, a later query tries again.
+     */
+    @Nullable
+    private Index indexForClosestQuery() {
+        Index index = this.index;
+        if (index != null || points.size() <= options.getLinearScanThreshold())
+            return index;
+        if (numScanQueries.incrementAndGet() <= options.getQueriesBeforeIndex())
+            return null;
+        Executor executor = options.getIndexExecutor();
+        if (executor == null)
+            return getIndex();
+        if (indexScheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::buildIndexInBackground);
+            } catch (RejectedExecutionException e) {
+                indexScheduled.set(false);
+            }
+        }
+        return null;
+    }
+
+    private void buildIndexInBackground() {
+        try {
+            getIndex();
+        } finally {
+            if (index == null)
+                indexScheduled.set(false);
+        }
+    }
+
+    /**
+     * Finds the closest anchor point by scanning the packed coordinates of all of them.
+     */
+    private int scanClosestIndex(double x, double y) {
+        return ScanKernels.findClosestIndex(xs, ys, 0, xs.length, x, y);
+    }
+
+    /**
+     * The structures for answering queries in sublinear time.
+     */
+    private static final class Index {
+
+        final TrapezoidalMap trapezoidalMap;
+        final VoronoiAdjacency adjacency;
+        final ThreadLocal<NeighborSearch> searches;
+
+        Index(List<Point> points, Random random, VoronoiBuilder voronoiBuilder, List<Border> borders) {
+            // A single point has no borders, so the entire plane is its region.
+            this.trapezoidalMap = new TrapezoidalMap(random, points.size() == 1 ? 0 : -1);
+
+            VoronoiDiagram diagram = voronoiBuilder.createVoronoiDiagram(points);
+            this.adjacency = VoronoiAdjacency.create(points, diagram);
+            this.searches = ThreadLocal.withInitial(() -> new NeighborSearch(adjacency));
+            borders.clear();
+            borders.addAll(diagram.getBorders());
+
+            // Inserting n edges into a trapezoidal map is worst case O(n^2), but is average case O(n log n).
+            Collections.shuffle(borders, random);
 
-        int region = trapezoidalMap.findRegion(point);
-        return points.get(region);
+            List<DirectedEdge> edges = new ArrayList<>(borders.size());
+            int[] leftPointIndices = new int[borders.size()];
+            int[] rightPointIndices = new int[borders.size()];
+            for (int i = 0; i < borders.size(); i++) {
+                Border border = borders.get(i);
+                edges.add(border.getEdge());
+                leftPointIndices[i] = border.getLeftPointIndex();
+                rightPointIndices[i] = border.getRightPointIndex();
+            }
+            borders.clear();
+            trapezoidalMap.addEdges(edges, leftPointIndices, rightPointIndices);
+        }
     }
 }
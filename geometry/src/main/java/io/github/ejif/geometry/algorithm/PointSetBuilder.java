@@ -0,0 +1,43 @@
+package io.github.ejif.geometry.algorithm;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import io.github.ejif.geometry.Point;
+import io.github.ejif.geometry.VoronoiDiagram.Border;
+
+/**
+ * Creates many {@link PointSet}s, reusing a {@link VoronoiBuilder} and other working space between
+ * them. A builder is not thread-safe; use one builder per thread.
+ */
+public final class PointSetBuilder {
+
+    private final Random random;
+    private final VoronoiBuilder voronoiBuilder = new VoronoiBuilder();
+    private final List<Border> borders = new ArrayList<>();
+
+    public PointSetBuilder() {
+        this(new Random());
+    }
+
+    @VisibleForTesting
+    PointSetBuilder(Random random) {
+        this.random = random;
+    }
+
+    /**
+     * Creates a point set of the given points, and builds its index right away.
+     *
+     * @param points
+     *            the set of points
+     * @return the point set
+     */
+    public PointSet build(List<Point> points) {
+        PointSet pointSet = new PointSet(points, random, PointSetOptions.DEFAULT);
+        pointSet.buildIndex(voronoiBuilder, borders);
+        return pointSet;
+    }
+}
@@ -0,0 +1,41 @@
+package io.github.ejif.geometry.algorithm;
+
+import java.util.concurrent.Executor;
+
+import javax.annotation.Nullable;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Controls when a {@link PointSet} builds its index (the Voronoi diagram and trapezoidal map of its
+ * points). Until the index is built, closest point queries scan all points, which is faster than
+ * building the index for small point sets or for point sets that answer only a few queries.
+ */
+@Builder(toBuilder = true)
+@Data
+public final class PointSetOptions {
+
+    public static final PointSetOptions DEFAULT = PointSetOptions.builder().build();
+
+    /**
+     * Point sets with at most this many points answer closest point queries by scanning all points,
+     * and never build an index for them.
+     */
+    @Builder.Default
+    private final int linearScanThreshold = 32;
+
+    /**
+     * The number of closest point queries to answer by scanning all points before building the
+     * index. With the default of 0, the index is built by the first query.
+     */
+    @Builder.Default
+    private final int queriesBeforeIndex = 0;
+
+    /**
+     * The executor to build the index on, or null to build it on the querying thread. With an
+     * executor, queries keep scanning all points until the index is built.
+     */
+    @Nullable
+    private final Executor indexExecutor;
+}
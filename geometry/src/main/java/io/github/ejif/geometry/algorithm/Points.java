@@ -66,6 +66,22 @@ public final class Points {
         return Math.hypot(p1.x - p2.x, p1.y - p2.y);
     }
 
+    /**
+     * Returns the squared distance between the two points. This is much cheaper than
+     * {@link #distance}, and is enough to compare distances.
+     *
+     * @param p1
+     *            the first point
+     * @param p2
+     *            the second point
+     * @return the squared distance between the two points
+     */
+    public static double distanceSquared(Point p1, Point p2) {
+        double dx = p1.x - p2.x;
+        double dy = p1.y - p2.y;
+        return dx * dx + dy * dy;
+    }
+
     private Points() {
     }
 }
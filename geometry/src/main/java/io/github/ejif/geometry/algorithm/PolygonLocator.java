@@ -0,0 +1,245 @@
+package io.github.ejif.geometry.algorithm;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+
+import io.github.ejif.geometry.DirectedEdge;
+import io.github.ejif.geometry.Point;
+import io.github.ejif.geometry.Polygon;
+import io.github.ejif.geometry.Rectangle;
+import lombok.Data;
+
+/**
+ * A set of non-overlapping polygons (with holes), indexed for finding the polygon that contains a
+ * point, such as the zone that a position is in.
+ *
+ * The edges of all polygons are added to a trapezoidal map in random order, where an edge shared by
+ * two polygons is only added once. A query then takes O(log n) expected time for n edges, without
+ * allocating any objects. Since a bad random order can make some queries much slower, the map is
+ * rebuilt in a different order if its depth is too large.
+ */
+public final class PolygonLocator {
+
+    // The expected depth of the map is O(log n), and is very unlikely to exceed this multiple of
+    // ln n (see Chapter 6.4 of de Berg et al., "Computational Geometry").
+    static final double MAX_DEPTH_FACTOR = 12;
+    static final int MAX_BUILD_ATTEMPTS = 4;
+
+    private final List<Polygon> polygons;
+    private final Rectangle bounds;
+    private final TrapezoidalMap trapezoidalMap;
+
+    /**
+     * Creates an object encapsulating a set of polygons, indexed for efficient point location
+     * queries. The polygons may share vertices and edges, but must not overlap, and an edge of one
+     * polygon must not cross or touch an edge of another polygon other than at their end-points.
+     *
+     * @param polygons
+     *            the set of polygons
+     * @throws IllegalArgumentException if a ring has fewer than three distinct vertices, or two
+     *             polygons overlap along an edge
+     */
+    public PolygonLocator(List<Polygon> polygons) throws IllegalArgumentException {
+        this(polygons, new Random());
+    }
+
+    @VisibleForTesting
+    PolygonLocator(List<Polygon> polygons, Random random) throws IllegalArgumentException {
+        this(polygons, random, MAX_DEPTH_FACTOR);
+    }
+
+    @VisibleForTesting
+    PolygonLocator(List<Polygon> polygons, Random random, double maxDepthFactor) throws IllegalArgumentException {
+        this.polygons = ImmutableList.copyOf(polygons);
+
+        // Orient every ring so that the inside of its polygon is on the left of each edge, and map
+        // each directed edge to its polygon. A shared edge appears once in each direction.
+        List<Segment> segments = new ArrayList<>();
+        Map<Segment, Integer> leftPolygons = new HashMap<>();
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (int polygonIndex = 0; polygonIndex < polygons.size(); polygonIndex++) {
+            Polygon polygon = polygons.get(polygonIndex);
+            List<List<Point>> rings = new ArrayList<>();
+            rings.add(polygon.getExterior());
+            rings.addAll(polygon.getHoles());
+            for (int i = 0; i < rings.size(); i++) {
+                List<Point> ring = distinctVertices(rings.get(i));
+                if (ring.size() < 3)
+                    throw new IllegalArgumentException("Polygon ring has fewer than three distinct vertices.");
+                // The exterior ring should be counterclockwise and the holes clockwise.
+                if ((signedArea(ring) > 0) != (i == 0))
+                    Collections.reverse(ring);
+                for (int j = 0; j < ring.size(); j++) {
+                    Segment segment = new Segment(ring.get(j), ring.get((j + 1) % ring.size()));
+                    if (leftPolygons.put(segment, polygonIndex) != null)
+                        throw new IllegalArgumentException("Polygons overlap along an edge.");
+                    segments.add(segment);
+                    minX = Math.min(minX, segment.start.x);
+                    minY = Math.min(minY, segment.start.y);
+                    maxX = Math.max(maxX, segment.start.x);
+                    maxY = Math.max(maxY, segment.start.y);
+                }
+            }
+        }
+        this.bounds = segments.isEmpty() ? new Rectangle(0, 0, 0, 0) : new Rectangle(minX, minY, maxX, maxY);
+
+        // Pair up the two directions of each shared edge, so that every edge is added only once.
+        List<Edge> edges = new ArrayList<>();
+        for (Segment segment : segments) {
+            Integer leftPolygon = leftPolygons.remove(segment);
+            if (leftPolygon == null)
+                continue;
+            Integer rightPolygon = leftPolygons.remove(segment.reversed());
+            edges.add(new Edge(DirectedEdge.segment(segment.start, segment.end), leftPolygon, rightPolygon == null ? -1 : rightPolygon));
+        }
+
+        // Inserting n edges into a trapezoidal map is worst case O(n^2), but is average case O(n log n).
+        // If no attempt is shallow enough, the shallowest map is kept.
+        double maxDepth = maxDepthFactor * Math.log(Math.max(edges.size(), 2));
+        TrapezoidalMap shallowest = null;
+        for (int attempt = 0; attempt < MAX_BUILD_ATTEMPTS; attempt++) {
+            Collections.shuffle(edges, random);
+            TrapezoidalMap trapezoidalMap = createTrapezoidalMap(edges, random);
+            if (shallowest == null || trapezoidalMap.getDepth() < shallowest.getDepth())
+                shallowest = trapezoidalMap;
+            if (shallowest.getDepth() <= maxDepth)
+                break;
+        }
+        this.trapezoidalMap = shallowest;
+    }
+
+    /**
+     * Get the polygons of this locator.
+     *
+     * @return the list of polygons
+     */
+    public List<Polygon> getPolygons() {
+        return polygons;
+    }
+
+    /**
+     * Finds the index of the polygon that contains the given point. If the point is on the boundary
+     * of a polygon, the result is either that polygon or a neighboring polygon (or -1).
+     *
+     * @param point
+     *            a point
+     * @return the index of the polygon containing the point, or -1 if no polygon contains it
+     */
+    public int findPolygonIndex(Point point) {
+        return findPolygonIndex(point.x, point.y);
+    }
+
+    /**
+     * Finds the index of the polygon that contains the given point, without allocating any objects.
+     * If the point is on the boundary of a polygon, the result is either that polygon or a
+     * neighboring polygon (or -1).
+     *
+     * @param x
+     *            the x coordinate of the point
+     * @param y
+     *            the y coordinate of the point
+     * @return the index of the polygon containing the point, or -1 if no polygon contains it
+     */
+    public int findPolygonIndex(double x, double y) {
+        return trapezoidalMap.findRegion(x, y);
+    }
+
+    /**
+     * Finds the index of the polygon that contains each of the given points (or -1 if no polygon
+     * contains it).
+     *
+     * The points are resolved in the order of a Hilbert curve over the bounding box of the
+     * polygons, so that consecutive queries mostly visit the same nodes of the trapezoidal map,
+     * which are then already in the CPU cache.
+     *
+     * @param xs
+     *            the x coordinates of the points
+     * @param ys
+     *            the y coordinates of the points
+     * @param indices
+     *            the array to write the index of the polygon containing each point to
+     * @throws IllegalArgumentException if the arrays don't have the same length
+     */
+    public void findPolygonIndices(double[] xs, double[] ys, int[] indices) throws IllegalArgumentException {
+        if (xs.length != ys.length || xs.length != indices.length)
+            throw new IllegalArgumentException("Coordinate and index arrays must have the same length.");
+        for (int i : HilbertCurve.sort(xs, ys, xs.length, bounds))
+            indices[i] = trapezoidalMap.findRegion(xs[i], ys[i]);
+    }
+
+    @VisibleForTesting
+    int getDepth() {
+        return trapezoidalMap.getDepth();
+    }
+
+    private static TrapezoidalMap createTrapezoidalMap(List<Edge> edges, Random random) {
+        List<DirectedEdge> directedEdges = new ArrayList<>(edges.size());
+        int[] leftPolygons = new int[edges.size()];
+        int[] rightPolygons = new int[edges.size()];
+        for (int i = 0; i < edges.size(); i++) {
+            Edge edge = edges.get(i);
+            directedEdges.add(edge.edge);
+            leftPolygons[i] = edge.leftPolygon;
+            rightPolygons[i] = edge.rightPolygon;
+        }
+        TrapezoidalMap trapezoidalMap = new TrapezoidalMap(random, -1);
+        trapezoidalMap.addEdges(directedEdges, leftPolygons, rightPolygons);
+        return trapezoidalMap;
+    }
+
+    /**
+     * Returns the vertices of a ring without consecutive duplicates, and without the first vertex
+     * repeated at the end.
+     */
+    private static List<Point> distinctVertices(List<Point> ring) {
+        List<Point> vertices = new ArrayList<>(ring.size());
+        for (Point vertex : ring)
+            if (vertices.isEmpty() || !vertex.equals(vertices.get(vertices.size() - 1)))
+                vertices.add(vertex);
+        while (vertices.size() > 1 && vertices.get(0).equals(vertices.get(vertices.size() - 1)))
+            vertices.remove(vertices.size() - 1);
+        return vertices;
+    }
+
+    /**
+     * Returns twice the signed area of a ring, which is positive if the ring is counterclockwise.
+     */
+    private static double signedArea(List<Point> ring) {
+        double area = 0;
+        for (int i = 0; i < ring.size(); i++) {
+            Point p = ring.get(i);
+            Point q = ring.get((i + 1) % ring.size());
+            area += p.x * q.y - q.x * p.y;
+        }
+        return area;
+    }
+
+    @Data
+    private static final class Segment {
+
+        final Point start;
+        final Point end;
+
+        Segment reversed() {
+            return new Segment(end, start);
+        }
+    }
+
+    @Data
+    private static final class Edge {
+
+        final DirectedEdge edge;
+        final int leftPolygon;
+        final int rightPolygon;
+    }
+}
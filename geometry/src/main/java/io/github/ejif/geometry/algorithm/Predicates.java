@@ -0,0 +1,279 @@
+package io.github.ejif.geometry.algorithm;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Adaptive-precision geometric predicates for double coordinates, after Shewchuk, "Adaptive
+ * Precision Floating-Point Arithmetic and Fast Robust Geometric Predicates" (1997).
+ *
+ * Each predicate first evaluates its determinant in plain double arithmetic along with a bound on
+ * the rounding error, and returns right away if the bound proves the sign. Otherwise, which only
+ * happens for (nearly) degenerate inputs, the determinant is evaluated exactly with floating-point
+ * expansions (sums of non-overlapping doubles). Either way, the sign of the result is exact.
+ *
+ * The number of exact evaluations is counted, to check how often inputs are near-degenerate.
+ */
+public final class Predicates {
+
+    private static final double EPSILON = 0x1p-53;
+    private static final double SPLITTER = 0x1p27 + 1;
+    static final double CROSS_PRODUCT_ERROR_BOUND = (3 + 16 * EPSILON) * EPSILON;
+    private static final double INCIRCLE_ERROR_BOUND = (10 + 96 * EPSILON) * EPSILON;
+
+    private static final LongAdder crossProductFallbacks = new LongAdder();
+    private static final LongAdder incircleFallbacks = new LongAdder();
+
+    /**
+     * Returns the cross product of the vector from a to b with the vector from a to c, with the
+     * exact sign: positive if a, b, c are in counterclockwise order, negative if they are in
+     * clockwise order, and zero if they are collinear.
+     *
+     * @return a value with the sign of the cross product
+     */
+    public static double orientation(double ax, double ay, double bx, double by, double cx, double cy) {
+        return crossProduct(ax, ay, bx, by, ax, ay, cx, cy);
+    }
+
+    /**
+     * Returns the cross product of the vector from (startX1, startY1) to (endX1, endY1) with the
+     * vector from (startX2, startY2) to (endX2, endY2), with the exact sign. The magnitude is the
+     * plain double result unless it was too close to zero to determine the sign.
+     *
+     * @return a value with the sign of the cross product
+     * @see Points#crossProduct
+     */
+    public static double crossProduct(
+            double startX1, double startY1, double endX1, double endY1,
+            double startX2, double startY2, double endX2, double endY2) {
+        double dx1 = endX1 - startX1;
+        double dy1 = endY1 - startY1;
+        double dx2 = endX2 - startX2;
+        double dy2 = endY2 - startY2;
+        double left = dx1 * dy2;
+        double right = dy1 * dx2;
+        double det = left - right;
+        double errorBound = CROSS_PRODUCT_ERROR_BOUND * (Math.abs(left) + Math.abs(right));
+        if (det > errorBound || -det > errorBound)
+            return det;
+        // A difference of doubles is zero only if they are equal, so this is exact; it is common
+        // for points on axis-aligned lines.
+        if ((dx1 == 0 || dy2 == 0) && (dy1 == 0 || dx2 == 0))
+            return 0;
+
+        crossProductFallbacks.increment();
+        double[] exactLeft = multiply(difference(endX1, startX1), difference(endY2, startY2));
+        double[] exactRight = multiply(difference(endY1, startY1), difference(endX2, startX2));
+        return mostSignificant(sum(exactLeft, negate(exactRight)));
+    }
+
+    /**
+     * Returns a value that is positive if d lies inside the circle through a, b, c (given in
+     * counterclockwise order), negative if d lies outside, and zero if the four points are
+     * cocircular.
+     *
+     * @return a value with the sign of the incircle determinant
+     */
+    public static double incircle(double ax, double ay, double bx, double by, double cx, double cy, double dx, double dy) {
+        double adx = ax - dx;
+        double ady = ay - dy;
+        double bdx = bx - dx;
+        double bdy = by - dy;
+        double cdx = cx - dx;
+        double cdy = cy - dy;
+
+        double bdxcdy = bdx * cdy;
+        double cdxbdy = cdx * bdy;
+        double alift = adx * adx + ady * ady;
+        double cdxady = cdx * ady;
+        double adxcdy = adx * cdy;
+        double blift = bdx * bdx + bdy * bdy;
+        double adxbdy = adx * bdy;
+        double bdxady = bdx * ady;
+        double clift = cdx * cdx + cdy * cdy;
+
+        double det = alift * (bdxcdy - cdxbdy) + blift * (cdxady - adxcdy) + clift * (adxbdy - bdxady);
+        double permanent = (Math.abs(bdxcdy) + Math.abs(cdxbdy)) * alift
+                + (Math.abs(cdxady) + Math.abs(adxcdy)) * blift
+                + (Math.abs(adxbdy) + Math.abs(bdxady)) * clift;
+        double errorBound = INCIRCLE_ERROR_BOUND * permanent;
+        if (det > errorBound || -det > errorBound)
+            return det;
+
+        incircleFallbacks.increment();
+        double[] exactAdx = difference(ax, dx);
+        double[] exactAdy = difference(ay, dy);
+        double[] exactBdx = difference(bx, dx);
+        double[] exactBdy = difference(by, dy);
+        double[] exactCdx = difference(cx, dx);
+        double[] exactCdy = difference(cy, dy);
+        double[] bc = sum(multiply(exactBdx, exactCdy), negate(multiply(exactCdx, exactBdy)));
+        double[] ca = sum(multiply(exactCdx, exactAdy), negate(multiply(exactAdx, exactCdy)));
+        double[] ab = sum(multiply(exactAdx, exactBdy), negate(multiply(exactBdx, exactAdy)));
+        double[] exactAlift = sum(multiply(exactAdx, exactAdx), multiply(exactAdy, exactAdy));
+        double[] exactBlift = sum(multiply(exactBdx, exactBdx), multiply(exactBdy, exactBdy));
+        double[] exactClift = sum(multiply(exactCdx, exactCdx), multiply(exactCdy, exactCdy));
+        return mostSignificant(sum(
+            sum(multiply(exactAlift, bc), multiply(exactBlift, ca)),
+            multiply(exactClift, ab)));
+    }
+
+    /**
+     * Returns the number of times {@link #crossProduct} (or {@link #orientation}) has fallen back to
+     * exact arithmetic since the class was loaded.
+     *
+     * @return the number of exact evaluations
+     */
+    public static long getCrossProductFallbacks() {
+        return crossProductFallbacks.sum();
+    }
+
+    /**
+     * Returns the number of times {@link #incircle} has fallen back to exact arithmetic since the
+     * class was loaded.
+     *
+     * @return the number of exact evaluations
+     */
+    public static long getIncircleFallbacks() {
+        return incircleFallbacks.sum();
+    }
+
+    /*
+     * Expansion arithmetic. An expansion is an array of non-overlapping doubles in increasing order
+     * of magnitude, with no zeros, whose exact sum is the value it represents; the empty expansion
+     * represents zero. These are only used on the slow path, so they allocate freely.
+     */
+
+    /**
+     * Returns the exact difference a - b as an expansion.
+     */
+    private static double[] difference(double a, double b) {
+        double x = a - b;
+        double bVirtual = a - x;
+        double aVirtual = x + bVirtual;
+        double bRoundoff = bVirtual - b;
+        double aRoundoff = a - aVirtual;
+        return compact(aRoundoff + bRoundoff, x);
+    }
+
+    /**
+     * Returns the exact product of two expansions as an expansion.
+     */
+    private static double[] multiply(double[] e, double[] f) {
+        double[] product = new double[0];
+        for (double b : f)
+            product = sum(product, scale(e, b));
+        return product;
+    }
+
+    /**
+     * Returns the exact product of an expansion and a double as an expansion.
+     */
+    private static double[] scale(double[] e, double b) {
+        double[] h = new double[2 * e.length];
+        int length = 0;
+        double bHi = splitHi(b);
+        double bLo = b - bHi;
+        double q = 0;
+        for (int i = 0; i < e.length; i++) {
+            double a = e[i];
+            double product = a * b;
+            double aHi = splitHi(a);
+            double aLo = a - aHi;
+            double productTail = aLo * bLo - (((product - aHi * bHi) - aLo * bHi) - aHi * bLo);
+            if (i == 0) {
+                q = product;
+                if (productTail != 0)
+                    h[length++] = productTail;
+                continue;
+            }
+            // Add the product's tail to q, then the product itself.
+            double sum = q + productTail;
+            double tail = twoSumTail(q, productTail, sum);
+            if (tail != 0)
+                h[length++] = tail;
+            q = product + sum;
+            tail = fastTwoSumTail(product, sum, q);
+            if (tail != 0)
+                h[length++] = tail;
+        }
+        if (q != 0)
+            h[length++] = q;
+        return Arrays.copyOf(h, length);
+    }
+
+    /**
+     * Returns the exact sum of two expansions as an expansion, by adding the components of f to e
+     * one at a time.
+     */
+    private static double[] sum(double[] e, double[] f) {
+        double[] h = e;
+        for (double b : f) {
+            double[] next = new double[h.length + 1];
+            int length = 0;
+            double q = b;
+            for (double a : h) {
+                double sum = q + a;
+                double tail = twoSumTail(q, a, sum);
+                q = sum;
+                if (tail != 0)
+                    next[length++] = tail;
+            }
+            if (q != 0)
+                next[length++] = q;
+            h = Arrays.copyOf(next, length);
+        }
+        return h;
+    }
+
+    private static double[] negate(double[] e) {
+        double[] negated = new double[e.length];
+        for (int i = 0; i < e.length; i++)
+            negated[i] = -e[i];
+        return negated;
+    }
+
+    /**
+     * Returns the largest component of an expansion, which has the sign of the expansion.
+     */
+    private static double mostSignificant(double[] e) {
+        return e.length == 0 ? 0 : e[e.length - 1];
+    }
+
+    private static double[] compact(double lo, double hi) {
+        if (lo == 0)
+            return hi == 0 ? new double[0] : new double[] { hi };
+        return new double[] { lo, hi };
+    }
+
+    /**
+     * Returns the roundoff error of sum = a + b.
+     */
+    private static double twoSumTail(double a, double b, double sum) {
+        double bVirtual = sum - a;
+        double aVirtual = sum - bVirtual;
+        double bRoundoff = b - bVirtual;
+        double aRoundoff = a - aVirtual;
+        return aRoundoff + bRoundoff;
+    }
+
+    /**
+     * Returns the roundoff error of sum = a + b, where |a| &gt;= |b|.
+     */
+    private static double fastTwoSumTail(double a, double b, double sum) {
+        double bVirtual = sum - a;
+        return b - bVirtual;
+    }
+
+    /**
+     * Returns the high half of a double split into two non-overlapping 26-bit halves.
+     */
+    private static double splitHi(double a) {
+        double c = SPLITTER * a;
+        double aBig = c - a;
+        return c - aBig;
+    }
+
+    private Predicates() {
+    }
+}
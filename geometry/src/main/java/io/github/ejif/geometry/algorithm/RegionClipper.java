@@ -0,0 +1,131 @@
+package io.github.ejif.geometry.algorithm;
+
+import java.util.Arrays;
+
+import io.github.ejif.geometry.Rectangle;
+
+/**
+ * Computes the Voronoi regions of points clipped to a rectangle, without materializing any
+ * {@link io.github.ejif.geometry.Region} or {@link io.github.ejif.geometry.DirectedEdge} objects.
+ *
+ * Each Voronoi region is convex and equal to the intersection of the half-planes closer to its
+ * point than to each neighboring point, so the clipped region is computed by cutting the rectangle
+ * with those half-planes. The vertices are written into buffers that are reused between calls, so
+ * an instance is not thread-safe; use one instance per thread.
+ */
+public final class RegionClipper {
+
+    private final VoronoiAdjacency adjacency;
+    private final Rectangle bounds;
+    private double[] xs = new double[16];
+    private double[] ys = new double[16];
+    private double[] nextXs = new double[16];
+    private double[] nextYs = new double[16];
+
+    /**
+     * Creates a clipper for the regions of the given adjacency.
+     *
+     * @param adjacency
+     *            the Voronoi adjacency of the points
+     * @param bounds
+     *            the rectangle to clip the regions to
+     */
+    public RegionClipper(VoronoiAdjacency adjacency, Rectangle bounds) {
+        this.adjacency = adjacency;
+        this.bounds = bounds;
+    }
+
+    /**
+     * Computes the region of the given point, clipped to the rectangle. The vertices of the clipped
+     * region, in counterclockwise order, are available from {@link #getXs()} and {@link #getYs()}
+     * until the next call.
+     *
+     * @param pointIndex
+     *            the index of the point
+     * @return the number of vertices of the clipped region, which is less than 3 if the region does
+     *         not intersect the interior of the rectangle
+     */
+    public int clip(int pointIndex) {
+        xs[0] = bounds.minX;
+        ys[0] = bounds.minY;
+        xs[1] = bounds.maxX;
+        ys[1] = bounds.minY;
+        xs[2] = bounds.maxX;
+        ys[2] = bounds.maxY;
+        xs[3] = bounds.minX;
+        ys[3] = bounds.maxY;
+        int numVertices = 4;
+
+        double px = adjacency.getX(pointIndex);
+        double py = adjacency.getY(pointIndex);
+        int end = adjacency.getNeighborEnd(pointIndex);
+        for (int k = adjacency.getNeighborStart(pointIndex); k < end && numVertices > 0; k++) {
+            int neighbor = adjacency.getNeighbor(k);
+            double qx = adjacency.getX(neighbor);
+            double qy = adjacency.getY(neighbor);
+            numVertices = cut((px + qx) / 2, (py + qy) / 2, qx - px, qy - py, numVertices);
+        }
+        return numVertices;
+    }
+
+    /**
+     * Returns the x coordinates of the vertices of the last clipped region. The array may be longer
+     * than the number of vertices.
+     *
+     * @return the x coordinates
+     */
+    public double[] getXs() {
+        return xs;
+    }
+
+    /**
+     * Returns the y coordinates of the vertices of the last clipped region. The array may be longer
+     * than the number of vertices.
+     *
+     * @return the y coordinates
+     */
+    public double[] getYs() {
+        return ys;
+    }
+
+    /**
+     * Keeps the part of the current polygon on the side of the line through (mx, my) perpendicular
+     * to (ux, uy) that (ux, uy) points away from.
+     */
+    private int cut(double mx, double my, double ux, double uy, int numVertices) {
+        if (nextXs.length < numVertices + 1) {
+            nextXs = Arrays.copyOf(nextXs, 2 * (numVertices + 1));
+            nextYs = Arrays.copyOf(nextYs, 2 * (numVertices + 1));
+        }
+        int numNextVertices = 0;
+        double prevX = xs[numVertices - 1];
+        double prevY = ys[numVertices - 1];
+        double prevD = (prevX - mx) * ux + (prevY - my) * uy;
+        for (int i = 0; i < numVertices; i++) {
+            double x = xs[i];
+            double y = ys[i];
+            double d = (x - mx) * ux + (y - my) * uy;
+            if (prevD < 0 && d > 0 || prevD > 0 && d < 0) {
+                double t = prevD / (prevD - d);
+                nextXs[numNextVertices] = prevX + (x - prevX) * t;
+                nextYs[numNextVertices] = prevY + (y - prevY) * t;
+                numNextVertices++;
+            }
+            if (d <= 0) {
+                nextXs[numNextVertices] = x;
+                nextYs[numNextVertices] = y;
+                numNextVertices++;
+            }
+            prevX = x;
+            prevY = y;
+            prevD = d;
+        }
+        double[] tmpXs = xs;
+        double[] tmpYs = ys;
+        xs = nextXs;
+        ys = nextYs;
+        nextXs = tmpXs;
+        nextYs = tmpYs;
+        return numNextVertices;
+    }
+}
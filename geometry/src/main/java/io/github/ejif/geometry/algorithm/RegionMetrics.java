@@ -0,0 +1,194 @@
+package io.github.ejif.geometry.algorithm;
+
+import java.util.stream.IntStream;
+
+import io.github.ejif.geometry.Rectangle;
+
+/**
+ * The area, centroid, perimeter, and bounding box of the Voronoi region of every point, clipped to a
+ * rectangle, stored in arrays indexed by point, such as for balancing load between the regions or
+ * for moving each point to the centroid of its region.
+ *
+ * The regions are clipped with a {@link RegionClipper} and measured from its vertex buffers, so no
+ * {@link io.github.ejif.geometry.Region} objects are created. A region that does not intersect the
+ * interior of the rectangle has an area and perimeter of 0, and a centroid and bounding box of NaN.
+ */
+public final class RegionMetrics {
+
+    // The number of points that each task clips with its own clipper when computing in parallel.
+    private static final int CHUNK_SIZE = 1024;
+
+    private final double[] areas;
+    private final double[] centroidXs;
+    private final double[] centroidYs;
+    private final double[] perimeters;
+    private final double[] minXs;
+    private final double[] minYs;
+    private final double[] maxXs;
+    private final double[] maxYs;
+
+    private RegionMetrics(int numPoints) {
+        this.areas = new double[numPoints];
+        this.centroidXs = new double[numPoints];
+        this.centroidYs = new double[numPoints];
+        this.perimeters = new double[numPoints];
+        this.minXs = new double[numPoints];
+        this.minYs = new double[numPoints];
+        this.maxXs = new double[numPoints];
+        this.maxYs = new double[numPoints];
+    }
+
+    /**
+     * Computes the metrics of the regions of all points of the given adjacency, clipped to the given
+     * rectangle, in O(n) expected time in total.
+     *
+     * @param adjacency
+     *            the Voronoi adjacency of the points
+     * @param bounds
+     *            the rectangle to clip the regions to
+     * @param parallel
+     *            whether to process the points in parallel
+     * @return the metrics of the regions
+     */
+    public static RegionMetrics compute(VoronoiAdjacency adjacency, Rectangle bounds, boolean parallel) {
+        int numPoints = adjacency.getNumPoints();
+        RegionMetrics metrics = new RegionMetrics(numPoints);
+        IntStream chunks = IntStream.range(0, (numPoints + CHUNK_SIZE - 1) / CHUNK_SIZE);
+        if (parallel)
+            chunks = chunks.parallel();
+        chunks.forEach(chunk -> {
+            RegionClipper clipper = new RegionClipper(adjacency, bounds);
+            int end = Math.min(numPoints, (chunk + 1) * CHUNK_SIZE);
+            for (int pointIndex = chunk * CHUNK_SIZE; pointIndex < end; pointIndex++)
+                metrics.measure(pointIndex, clipper.clip(pointIndex), clipper.getXs(), clipper.getYs(),
+                    adjacency.getX(pointIndex), adjacency.getY(pointIndex));
+        });
+        return metrics;
+    }
+
+    /**
+     * Returns the area of the clipped region of each point.
+     *
+     * @return the areas, indexed by point
+     */
+    public double[] getAreas() {
+        return areas;
+    }
+
+    /**
+     * Returns the x coordinate of the centroid of the clipped region of each point.
+     *
+     * @return the x coordinates, indexed by point
+     */
+    public double[] getCentroidXs() {
+        return centroidXs;
+    }
+
+    /**
+     * Returns the y coordinate of the centroid of the clipped region of each point.
+     *
+     * @return the y coordinates, indexed by point
+     */
+    public double[] getCentroidYs() {
+        return centroidYs;
+    }
+
+    /**
+     * Returns the perimeter of the clipped region of each point, including the parts on the
+     * boundary of the rectangle.
+     *
+     * @return the perimeters, indexed by point
+     */
+    public double[] getPerimeters() {
+        return perimeters;
+    }
+
+    /**
+     * Returns the smallest x coordinate of the clipped region of each point, or NaN if it is empty.
+     *
+     * @return the x coordinates, indexed by point
+     */
+    public double[] getMinXs() {
+        return minXs;
+    }
+
+    /**
+     * Returns the smallest y coordinate of the clipped region of each point, or NaN if it is empty.
+     *
+     * @return the y coordinates, indexed by point
+     */
+    public double[] getMinYs() {
+        return minYs;
+    }
+
+    /**
+     * Returns the largest x coordinate of the clipped region of each point, or NaN if it is empty.
+     *
+     * @return the x coordinates, indexed by point
+     */
+    public double[] getMaxXs() {
+        return maxXs;
+    }
+
+    /**
+     * Returns the largest y coordinate of the clipped region of each point, or NaN if it is empty.
+     *
+     * @return the y coordinates, indexed by point
+     */
+    public double[] getMaxYs() {
+        return maxYs;
+    }
+
+    /**
+     * Stores the metrics of the given polygon as those of the given point. The vertices are taken
+     * relative to the point, which is close to the polygon, to reduce rounding errors.
+     */
+    private void measure(int pointIndex, int numVertices, double[] xs, double[] ys, double px, double py) {
+        if (numVertices < 3) {
+            centroidXs[pointIndex] = Double.NaN;
+            centroidYs[pointIndex] = Double.NaN;
+            minXs[pointIndex] = Double.NaN;
+            minYs[pointIndex] = Double.NaN;
+            maxXs[pointIndex] = Double.NaN;
+            maxYs[pointIndex] = Double.NaN;
+            return;
+        }
+        double doubleArea = 0;
+        double sumX = 0;
+        double sumY = 0;
+        double perimeter = 0;
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        double prevX = xs[numVertices - 1] - px;
+        double prevY = ys[numVertices - 1] - py;
+        for (int i = 0; i < numVertices; i++) {
+            double x = xs[i] - px;
+            double y = ys[i] - py;
+            double cross = prevX * y - x * prevY;
+            doubleArea += cross;
+            sumX += (prevX + x) * cross;
+            sumY += (prevY + y) * cross;
+            double dx = x - prevX;
+            double dy = y - prevY;
+            perimeter += Math.sqrt(dx * dx + dy * dy);
+            minX = Math.min(minX, xs[i]);
+            minY = Math.min(minY, ys[i]);
+            maxX = Math.max(maxX, xs[i]);
+            maxY = Math.max(maxY, ys[i]);
+            prevX = x;
+            prevY = y;
+        }
+        areas[pointIndex] = doubleArea / 2;
+        // A region with three or more vertices may still have no area if it only touches a corner
+        // or side of the rectangle; its centroid is then the center of its bounding box.
+        centroidXs[pointIndex] = doubleArea > 0 ? px + sumX / (3 * doubleArea) : (minX + maxX) / 2;
+        centroidYs[pointIndex] = doubleArea > 0 ? py + sumY / (3 * doubleArea) : (minY + maxY) / 2;
+        perimeters[pointIndex] = perimeter;
+        minXs[pointIndex] = minX;
+        minYs[pointIndex] = minY;
+        maxXs[pointIndex] = maxX;
+        maxYs[pointIndex] = maxY;
+    }
+}
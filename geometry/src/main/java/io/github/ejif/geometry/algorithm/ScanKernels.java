@@ -0,0 +1,169 @@
+package io.github.ejif.geometry.algorithm;
+
+/**
+ * Kernels that evaluate the same computation for many points at once, over packed coordinate
+ * arrays: the closest of many points to a query point, and the side of a line that each of many
+ * points is on.
+ *
+ * The kernels are scalar loops unless the JVM supports the Vector API. If the library jar is run on
+ * Java 16 or later with {@code --add-modules jdk.incubator.vector}, and was built with a JDK 16 or
+ * later (see the geometry build file), ranges of at least {@link #MIN_VECTOR_LENGTH} points are
+ * evaluated a vector of points at a time by a kernel in the versioned part of the multi-release jar.
+ * The results are the same either way.
+ */
+public final class ScanKernels {
+
+    /**
+     * The smallest number of points that the Vector API kernels are used for. Loading the vectors
+     * costs more than it saves for fewer points.
+     */
+    public static final int MIN_VECTOR_LENGTH = 64;
+
+    // Scales the largest finite coordinates down so that the square of twice them does not overflow.
+    private static final double SCALE_DOWN = 0x1p-520;
+
+    private static final String VECTOR_KERNEL_CLASS = "io.github.ejif.geometry.algorithm.VectorScanKernel";
+
+    private static final Kernel SCALAR_KERNEL = new ScalarKernel();
+    private static final Kernel VECTOR_KERNEL = loadVectorKernel();
+
+    /**
+     * Finds the index of the closest point to (x, y) among the points with indices from start
+     * (inclusive) to end (exclusive). If there are multiple closest points, the one with the
+     * smallest index is returned.
+     *
+     * @param xs
+     *            the x coordinates of the points
+     * @param ys
+     *            the y coordinates of the points
+     * @param start
+     *            the index of the first point
+     * @param end
+     *            the index after the last point
+     * @param x
+     *            the x coordinate of the query point
+     * @param y
+     *            the y coordinate of the query point
+     * @return the index of the closest point, or -1 if there are no points
+     */
+    public static int findClosestIndex(double[] xs, double[] ys, int start, int end, double x, double y) {
+        return kernel(start, end).findClosestIndex(xs, ys, start, end, x, y);
+    }
+
+    /**
+     * Writes the value of {@link Predicates#orientation}(a, b, p) into orientations[i - start] for
+     * each point p with index i from start (inclusive) to end (exclusive): positive if p is to the
+     * left of the line from a to b, negative if it is to the right, and zero if it is on the line.
+     *
+     * @param ax
+     *            the x coordinate of a
+     * @param ay
+     *            the y coordinate of a
+     * @param bx
+     *            the x coordinate of b
+     * @param by
+     *            the y coordinate of b
+     * @param xs
+     *            the x coordinates of the points
+     * @param ys
+     *            the y coordinates of the points
+     * @param start
+     *            the index of the first point
+     * @param end
+     *            the index after the last point
+     * @param orientations
+     *            the array to write the orientations to, of length at least end - start
+     */
+    public static void findOrientations(double ax, double ay, double bx, double by, double[] xs, double[] ys, int start, int end,
+            double[] orientations) {
+        kernel(start, end).findOrientations(ax, ay, bx, by, xs, ys, start, end, orientations);
+    }
+
+    /**
+     * Returns whether the Vector API kernels are used for long enough ranges of points.
+     */
+    public static boolean isVectorized() {
+        return VECTOR_KERNEL != SCALAR_KERNEL;
+    }
+
+    /**
+     * Finds the closest point as {@link #findClosestIndex} does, with all coordinates scaled down by
+     * a power of two so that no squared distance overflows. The kernels fall back to this if every
+     * squared distance overflows or is NaN; if every one is NaN, the first point is returned.
+     */
+    static int findClosestIndexScaledDown(double[] xs, double[] ys, int start, int end, double x, double y) {
+        if (start == end)
+            return -1;
+        double scaledX = x * SCALE_DOWN;
+        double scaledY = y * SCALE_DOWN;
+        int closest = start;
+        double closestDistance = Double.POSITIVE_INFINITY;
+        for (int i = start; i < end; i++) {
+            double dx = xs[i] * SCALE_DOWN - scaledX;
+            double dy = ys[i] * SCALE_DOWN - scaledY;
+            double distance = dx * dx + dy * dy;
+            if (distance < closestDistance) {
+                closest = i;
+                closestDistance = distance;
+            }
+        }
+        return closest;
+    }
+
+    private static Kernel kernel(int start, int end) {
+        return end - start >= MIN_VECTOR_LENGTH ? VECTOR_KERNEL : SCALAR_KERNEL;
+    }
+
+    /**
+     * Loads the Vector API kernel, which only exists in the jar for Java 16 or later, and only links
+     * if the jdk.incubator.vector module is resolved.
+     */
+    private static Kernel loadVectorKernel() {
+        try {
+            return (Kernel) Class.forName(VECTOR_KERNEL_CLASS).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return SCALAR_KERNEL;
+        }
+    }
+
+    /**
+     * An implementation of the kernels.
+     */
+    interface Kernel {
+
+        int findClosestIndex(double[] xs, double[] ys, int start, int end, double x, double y);
+
+        void findOrientations(double ax, double ay, double bx, double by, double[] xs, double[] ys, int start, int end,
+                double[] orientations);
+    }
+
+    private static final class ScalarKernel implements Kernel {
+
+        @Override
+        public int findClosestIndex(double[] xs, double[] ys, int start, int end, double x, double y) {
+            int closest = -1;
+            double closestDistance = Double.POSITIVE_INFINITY;
+            for (int i = start; i < end; i++) {
+                double dx = xs[i] - x;
+                double dy = ys[i] - y;
+                double distance = dx * dx + dy * dy;
+                if (distance < closestDistance) {
+                    closest = i;
+                    closestDistance = distance;
+                }
+            }
+            // If no squared distance is finite, they may only have overflowed.
+            return closest == -1 ? findClosestIndexScaledDown(xs, ys, start, end, x, y) : closest;
+        }
+
+        @Override
+        public void findOrientations(double ax, double ay, double bx, double by, double[] xs, double[] ys, int start, int end,
+                double[] orientations) {
+            for (int i = start; i < end; i++)
+                orientations[i - start] = Predicates.orientation(ax, ay, bx, by, xs[i], ys[i]);
+        }
+    }
+
+    private ScanKernels() {
+    }
+}
@@ -2,11 +2,14 @@
 package io.github.ejif.geometry.algorithm;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
+import javax.annotation.Nullable;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -15,7 +18,6 @@ import com.google.common.base.Strings;
 
 import io.github.ejif.geometry.DirectedEdge;
 import io.github.ejif.geometry.Point;
-import lombok.Builder;
 import lombok.Data;
 
 /**
@@ -29,6 +31,19 @@ public final class TrapezoidalMap {
 
     private DagNode root;
     private double shear;
+    private int depth;
+    // Buffers for addCanonicalLine(), reused between edges: the trapezoids crossed by the edge,
+    // the trapezoids above and below the edge that replace them, and whether the edge moved to the
+    // top right or bottom right neighbor of each crossed trapezoid.
+    private Trapezoid[] originalTrapezoids = new Trapezoid[16];
+    private Trapezoid[] topTrapezoids = new Trapezoid[16];
+    private Trapezoid[] bottomTrapezoids = new Trapezoid[16];
+    private boolean[] movedToRightTops = new boolean[16];
+    // The search for the trapezoid containing an end-point of an edge, reused between searches.
+    private final FindTrapezoidDagNodeVisitor findTrapezoidVisitor = new FindTrapezoidDagNodeVisitor();
+    // Set while adding edges with addEdges().
+    @Nullable
+    private ConflictLists conflictLists;
 
     /**
      * Creates a trapezoidal map with a random shear (to ensure that no two distinct points share
@@ -40,11 +55,14 @@ public final class TrapezoidalMap {
 
     @VisibleForTesting
     TrapezoidalMap(Random random) {
-        this.root = Trapezoid.builder()
-            .region(-1)
-            .left(new Point(Double.NEGATIVE_INFINITY, 0))
-            .right(new Point(Double.POSITIVE_INFINITY, 0))
-            .build();
+        this(random, -1);
+    }
+
+    /**
+     * Creates a trapezoidal map where the entire plane initially belongs to the given region.
+     */
+    TrapezoidalMap(Random random, int initialRegion) {
+        this.root = new Trapezoid(initialRegion, new Point(Double.NEGATIVE_INFINITY, 0), new Point(Double.POSITIVE_INFINITY, 0));
         // We use a small shear for simplicity when testing, but there is no requirement that
         // end-points need to be at least 1e-6 away from each other; the entire plane is sheared
         // the same amount anyway.
@@ -63,21 +81,50 @@ public final class TrapezoidalMap {
      *            an ID of the region on the right of the edge
      */
     public void addEdge(DirectedEdge edge, int leftRegion, int rightRegion) {
-        double newDx = edge.getDx() + shear * edge.getDy();
-        assert newDx != 0;
-        if (newDx < 0)
-            edge = edge.flip();
-        DirectedEdge shearedEdge = DirectedEdge.builder()
-            .anyPoint(shear(edge.getAnyPoint()))
-            .dx(Math.abs(newDx))
-            .dy(edge.getDy())
-            .startPoint(edge.getStartPoint() == null ? new Point(Double.NEGATIVE_INFINITY, 0) : shear(edge.getStartPoint()))
-            .endPoint(edge.getEndPoint() == null ? new Point(Double.POSITIVE_INFINITY, 0) : shear(edge.getEndPoint()))
-            .build();
-        if (newDx < 0)
-            addCanonicalLine(shearedEdge, rightRegion, leftRegion);
+        if (isFlipped(edge))
+            addCanonicalLine(canonicalize(edge), rightRegion, leftRegion);
         else
-            addCanonicalLine(shearedEdge, leftRegion, rightRegion);
+            addCanonicalLine(canonicalize(edge), leftRegion, rightRegion);
+    }
+
+    /**
+     * Adds the given directed edges to the trapezoidal map, in the given order. None of the edges
+     * can intersect each other or the edges already in the map, other than sharing end-points. The
+     * result is the same as calling {@link #addEdge} for each edge, but is faster for many edges.
+     *
+     * Instead of searching the map for both end-points of each added edge, every end-point that has
+     * not been added yet is kept in a conflict list of the trapezoid containing it. When a trapezoid
+     * is split, its end-points are moved to the new trapezoids, which only needs to look at the few
+     * nodes that replaced it. The edges should be in random order, so that the map is expected to
+     * have O(log n) depth, and the conflict lists are expected to take O(n log n) time to maintain.
+     *
+     * @param edges
+     *            the edges to add
+     * @param leftRegions
+     *            the ID of the region on the left of each edge
+     * @param rightRegions
+     *            the ID of the region on the right of each edge
+     * @throws IllegalArgumentException if the arrays don't have the same length as the list of
+     *             edges
+     */
+    public void addEdges(List<DirectedEdge> edges, int[] leftRegions, int[] rightRegions) throws IllegalArgumentException {
+        if (leftRegions.length != edges.size() || rightRegions.length != edges.size())
+            throw new IllegalArgumentException("Edge and region arrays must have the same length.");
+        DirectedEdge[] canonicalEdges = new DirectedEdge[edges.size()];
+        for (int i = 0; i < canonicalEdges.length; i++)
+            canonicalEdges[i] = canonicalize(edges.get(i));
+        conflictLists = new ConflictLists(canonicalEdges);
+        try {
+            for (int i = 0; i < canonicalEdges.length; i++) {
+                if (isFlipped(edges.get(i)))
+                    addCanonicalLine(canonicalEdges[i], rightRegions[i], leftRegions[i]);
+                else
+                    addCanonicalLine(canonicalEdges[i], leftRegions[i], rightRegions[i]);
+            }
+        } finally {
+            conflictLists.clear();
+            conflictLists = null;
+        }
     }
 
     /**
@@ -88,14 +135,44 @@ public final class TrapezoidalMap {
      * @return the ID of the region
      */
     public int findRegion(Point point) {
-        Point shearedPoint = shear(point);
-        return root.visit(new FindTrapezoidDagNodeVisitor(DirectedEdge.builder()
-            .anyPoint(shearedPoint)
-            .dx(0)
-            .dy(0)
-            .startPoint(shearedPoint)
-            .endPoint(shearedPoint)
-            .build())).region;
+        return findRegion(point.x, point.y);
+    }
+
+    /**
+     * Finds the ID of the region that the given point is in, without allocating any objects. The
+     * point must be finite.
+     *
+     * @param x
+     *            the x coordinate of the point
+     * @param y
+     *            the y coordinate of the point
+     * @return the ID of the region
+     */
+    public int findRegion(double x, double y) {
+        // This is the same search as FindTrapezoidDagNodeVisitor on the degenerate edge from the
+        // sheared point to itself, unrolled into a loop.
+        double shearedX = x + shear * y;
+        DagNode node = root;
+        while (true) {
+            if (node instanceof XNodeDagNode) {
+                XNodeDagNode xNode = (XNodeDagNode) node;
+                node = shearedX < xNode.x ? xNode.left : xNode.right;
+            } else if (node instanceof YNodeDagNode) {
+                YNodeDagNode yNode = (YNodeDagNode) node;
+                node = yNode.isAbove(shearedX, y) ? yNode.top : yNode.bottom;
+            } else {
+                return ((Trapezoid) node).region;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of nodes on the longest path from the root of the search structure to a
+     * trapezoid, which bounds the number of steps taken by {@link #findRegion}. This is O(log n) in
+     * expectation if the edges were added in random order.
+     */
+    int getDepth() {
+        return depth;
     }
 
     @Override
@@ -107,6 +184,33 @@ public final class TrapezoidalMap {
         return new Point(point.x + shear * point.y, point.y);
     }
 
+    /**
+     * Returns whether the given edge goes from right to left after shearing.
+     */
+    private boolean isFlipped(DirectedEdge edge) {
+        double newDx = edge.getDx() + shear * edge.getDy();
+        assert newDx != 0;
+        return newDx < 0;
+    }
+
+    /**
+     * Returns the given edge after shearing, directed from left to right, with points at infinity
+     * in place of missing end-points.
+     */
+    private DirectedEdge canonicalize(DirectedEdge edge) {
+        double newDx = edge.getDx() + shear * edge.getDy();
+        boolean flipped = newDx < 0;
+        Point startPoint = flipped ? edge.getEndPoint() : edge.getStartPoint();
+        Point endPoint = flipped ? edge.getStartPoint() : edge.getEndPoint();
+        return DirectedEdge.builder()
+            .anyPoint(shear(edge.getAnyPoint()))
+            .dx(Math.abs(newDx))
+            .dy(flipped ? -edge.getDy() : edge.getDy())
+            .startPoint(startPoint == null ? new Point(Double.NEGATIVE_INFINITY, 0) : shear(startPoint))
+            .endPoint(endPoint == null ? new Point(Double.POSITIVE_INFINITY, 0) : shear(endPoint))
+            .build();
+    }
+
     private void addCanonicalLine(DirectedEdge edge, int topRegion, int bottomRegion) {
         assert edge.getDx() > 0;
         assert edge.getStartPoint() != null;
@@ -114,10 +218,14 @@ public final class TrapezoidalMap {
 
         // First split the trapezoid containing the left end-point vertically on that end-point. Do
         // the same for the trapezoid containing the right end-point.
-        Trapezoid startTrapezoid = root.visit(new FindTrapezoidDagNodeVisitor(edge));
+        Trapezoid startTrapezoid = conflictLists == null
+                ? root.visit(findTrapezoidVisitor.reset(edge, false))
+                : conflictLists.findStartTrapezoid();
         if (startTrapezoid.left.x != edge.getStartPoint().x)
             startTrapezoid = (Trapezoid) splitVertically(startTrapezoid, edge.getStartPoint()).right;
-        Trapezoid endTrapezoid = root.visit(new FindTrapezoidDagNodeVisitor(edge.flip()));
+        Trapezoid endTrapezoid = conflictLists == null
+                ? root.visit(findTrapezoidVisitor.reset(edge, true))
+                : conflictLists.findEndTrapezoid();
         if (endTrapezoid.right.x != edge.getEndPoint().x)
             endTrapezoid = (Trapezoid) splitVertically(endTrapezoid, edge.getEndPoint()).left;
         log.debug("Start trapezoid: {}", startTrapezoid);
@@ -130,35 +238,35 @@ public final class TrapezoidalMap {
 
         // Split every trapezoid (from the start trapezoid to the end trapezoid) horizontally,
         // along the inserted edge.
-        List<Trapezoid> originalTrapezoids = new ArrayList<>();
-        List<Trapezoid> topTrapezoids = new ArrayList<>();
-        List<Trapezoid> bottomTrapezoids = new ArrayList<>();
-        List<Boolean> movedToRightTops = new ArrayList<>();
+        double anyX = edge.getAnyPoint().x;
+        double anyY = edge.getAnyPoint().y;
+        double laterX = anyX + edge.getDx();
+        double laterY = anyY + edge.getDy();
+        int numMoves = 0;
         Trapezoid currentTrapezoid = startTrapezoid;
         while (true) {
             // Split the current trapezoid into a top and bottom.
-            Trapezoid topTrapezoid = currentTrapezoid.toBuilder()
-                .region(topRegion)
-                .build();
-            Trapezoid bottomTrapezoid = currentTrapezoid.toBuilder()
-                .region(bottomRegion)
-                .build();
+            Trapezoid topTrapezoid = currentTrapezoid.withRegion(topRegion);
+            Trapezoid bottomTrapezoid = currentTrapezoid.withRegion(bottomRegion);
             replaceNode(currentTrapezoid, YNodeDagNode.of(edge, topTrapezoid, bottomTrapezoid));
-            originalTrapezoids.add(currentTrapezoid);
-            topTrapezoids.add(topTrapezoid);
-            bottomTrapezoids.add(bottomTrapezoid);
+            ensureCapacity(numMoves + 1);
+            originalTrapezoids[numMoves] = currentTrapezoid;
+            topTrapezoids[numMoves] = topTrapezoid;
+            bottomTrapezoids[numMoves] = bottomTrapezoid;
 
             if (currentTrapezoid == endTrapezoid)
                 break;
 
-            // Figure out whether to move to the top right trapezoid or the bottom right trapezoid.
-            Point rightIntersection = getPointAt(edge, currentTrapezoid.right.x);
-            if (rightIntersection.y > currentTrapezoid.right.y && currentTrapezoid.rightTop != null) {
+            // Figure out whether to move to the top right trapezoid or the bottom right trapezoid,
+            // depending on which side of the edge the right end-point of the current trapezoid is.
+            Point right = currentTrapezoid.right;
+            double rightToEdge = Predicates.crossProduct(anyX, anyY, laterX, laterY, anyX, anyY, right.x, right.y);
+            if (rightToEdge < 0 && currentTrapezoid.rightTop != null) {
                 currentTrapezoid = currentTrapezoid.rightTop;
-                movedToRightTops.add(true);
-            } else if (rightIntersection.y < currentTrapezoid.right.y && currentTrapezoid.rightBottom != null) {
+                movedToRightTops[numMoves++] = true;
+            } else if (rightToEdge > 0 && currentTrapezoid.rightBottom != null) {
                 currentTrapezoid = currentTrapezoid.rightBottom;
-                movedToRightTops.add(false);
+                movedToRightTops[numMoves++] = false;
             } else {
                 // This means the inserted edge intersects the end-point of another line, but that
                 // can only happen at the right end-point of the inserted edge, so we should have
@@ -170,60 +278,69 @@ public final class TrapezoidalMap {
         // Merge the split trapezoids. If the inserted edge moved to the top right trapezoid, then
         // the inserted edge blocks the boundary from the point below, so the two top trapezoids
         // can be merged (similarly for merging the bottom two trapezoids).
-        for (int startIndex = 0; startIndex < movedToRightTops.size(); startIndex++) {
-            boolean movedToRightTop = movedToRightTops.get(startIndex);
+        for (int startIndex = 0; startIndex < numMoves; startIndex++) {
+            boolean movedToRightTop = movedToRightTops[startIndex];
             int endIndex = startIndex + 1;
-            while (endIndex < movedToRightTops.size() && movedToRightTops.get(endIndex) == movedToRightTop)
+            while (endIndex < numMoves && movedToRightTops[endIndex] == movedToRightTop)
                 endIndex++;
-            List<Trapezoid> trapezoids = movedToRightTop ? topTrapezoids : bottomTrapezoids;
-            Trapezoid mergedTrapezoid = trapezoids.get(startIndex).toBuilder()
-                .right(trapezoids.get(endIndex).right)
-                .rightTop(trapezoids.get(endIndex).rightTop)
-                .rightBottom(trapezoids.get(endIndex).rightBottom)
-                .build();
+            Trapezoid[] trapezoids = movedToRightTop ? topTrapezoids : bottomTrapezoids;
+            Trapezoid mergedTrapezoid = trapezoids[startIndex].withRight(trapezoids[endIndex]);
             for (int i = startIndex; i <= endIndex; i++) {
-                replaceNode(trapezoids.get(i), mergedTrapezoid);
-                trapezoids.set(i, mergedTrapezoid);
+                replaceNode(trapezoids[i], mergedTrapezoid);
+                trapezoids[i] = mergedTrapezoid;
             }
             startIndex = endIndex + 1;
         }
 
         // Update all trapezoid pointers.
         if (startTrapezoid.leftTop != null)
-            replaceRightTrapezoids(startTrapezoid.leftTop, startTrapezoid, topTrapezoids.get(0), bottomTrapezoids.get(0));
+            replaceRightTrapezoids(startTrapezoid.leftTop, startTrapezoid, topTrapezoids[0], bottomTrapezoids[0]);
         if (startTrapezoid.leftBottom != null)
-            replaceRightTrapezoids(startTrapezoid.leftBottom, startTrapezoid, topTrapezoids.get(0), bottomTrapezoids.get(0));
-        for (int i = 0; i < movedToRightTops.size(); i++) {
-            if (topTrapezoids.get(i) != topTrapezoids.get(i + 1)) {
-                replaceLeftTrapezoid(topTrapezoids.get(i + 1), originalTrapezoids.get(i), topTrapezoids.get(i));
-                replaceRightTrapezoid(topTrapezoids.get(i), originalTrapezoids.get(i + 1), topTrapezoids.get(i + 1));
-                replaceLeftTrapezoid(topTrapezoids.get(i).rightTop, originalTrapezoids.get(i), topTrapezoids.get(i));
-                replaceRightTrapezoid(topTrapezoids.get(i + 1).leftTop, originalTrapezoids.get(i + 1), topTrapezoids.get(i + 1));
+            replaceRightTrapezoids(startTrapezoid.leftBottom, startTrapezoid, topTrapezoids[0], bottomTrapezoids[0]);
+        for (int i = 0; i < numMoves; i++) {
+            if (topTrapezoids[i] != topTrapezoids[i + 1]) {
+                replaceLeftTrapezoid(topTrapezoids[i + 1], originalTrapezoids[i], topTrapezoids[i]);
+                replaceRightTrapezoid(topTrapezoids[i], originalTrapezoids[i + 1], topTrapezoids[i + 1]);
+                replaceLeftTrapezoid(topTrapezoids[i].rightTop, originalTrapezoids[i], topTrapezoids[i]);
+                replaceRightTrapezoid(topTrapezoids[i + 1].leftTop, originalTrapezoids[i + 1], topTrapezoids[i + 1]);
             }
-            if (bottomTrapezoids.get(i) != bottomTrapezoids.get(i + 1)) {
-                replaceLeftTrapezoid(bottomTrapezoids.get(i + 1), originalTrapezoids.get(i), bottomTrapezoids.get(i));
-                replaceRightTrapezoid(bottomTrapezoids.get(i), originalTrapezoids.get(i + 1), bottomTrapezoids.get(i + 1));
-                replaceLeftTrapezoid(bottomTrapezoids.get(i).rightBottom, originalTrapezoids.get(i), bottomTrapezoids.get(i));
-                replaceRightTrapezoid(bottomTrapezoids.get(i + 1).leftBottom, originalTrapezoids.get(i + 1), bottomTrapezoids.get(i + 1));
+            if (bottomTrapezoids[i] != bottomTrapezoids[i + 1]) {
+                replaceLeftTrapezoid(bottomTrapezoids[i + 1], originalTrapezoids[i], bottomTrapezoids[i]);
+                replaceRightTrapezoid(bottomTrapezoids[i], originalTrapezoids[i + 1], bottomTrapezoids[i + 1]);
+                replaceLeftTrapezoid(bottomTrapezoids[i].rightBottom, originalTrapezoids[i], bottomTrapezoids[i]);
+                replaceRightTrapezoid(bottomTrapezoids[i + 1].leftBottom, originalTrapezoids[i + 1], bottomTrapezoids[i + 1]);
             }
         }
-        Trapezoid endTopTrapezoid = topTrapezoids.get(movedToRightTops.size());
-        Trapezoid endBottomTrapezoid = bottomTrapezoids.get(movedToRightTops.size());
+        Trapezoid endTopTrapezoid = topTrapezoids[numMoves];
+        Trapezoid endBottomTrapezoid = bottomTrapezoids[numMoves];
         if (endTrapezoid.rightTop != null)
             replaceLeftTrapezoids(endTrapezoid.rightTop, endTrapezoid, endTopTrapezoid, endBottomTrapezoid);
         if (endTrapezoid.rightBottom != null)
             replaceLeftTrapezoids(endTrapezoid.rightBottom, endTrapezoid, endTopTrapezoid, endBottomTrapezoid);
 
+        // Don't hold on to replaced trapezoids.
+        Arrays.fill(originalTrapezoids, 0, numMoves + 1, null);
+        Arrays.fill(topTrapezoids, 0, numMoves + 1, null);
+        Arrays.fill(bottomTrapezoids, 0, numMoves + 1, null);
+
+        if (conflictLists != null)
+            conflictLists.finishEdge();
         log.debug("Trapezoidal map:\n{}\n", this);
     }
 
+    private void ensureCapacity(int numTrapezoids) {
+        if (numTrapezoids <= originalTrapezoids.length)
+            return;
+        int capacity = Math.max(numTrapezoids, 2 * originalTrapezoids.length);
+        originalTrapezoids = Arrays.copyOf(originalTrapezoids, capacity);
+        topTrapezoids = Arrays.copyOf(topTrapezoids, capacity);
+        bottomTrapezoids = Arrays.copyOf(bottomTrapezoids, capacity);
+        movedToRightTops = Arrays.copyOf(movedToRightTops, capacity);
+    }
+
     private XNodeDagNode splitVertically(Trapezoid trapezoid, Point splitPoint) {
-        Trapezoid leftTrapezoid = trapezoid.toBuilder()
-            .right(splitPoint)
-            .build();
-        Trapezoid rightTrapezoid = trapezoid.toBuilder()
-            .left(splitPoint)
-            .build();
+        Trapezoid leftTrapezoid = trapezoid.withRight(splitPoint);
+        Trapezoid rightTrapezoid = trapezoid.withLeft(splitPoint);
         XNodeDagNode node = XNodeDagNode.of(splitPoint.x, leftTrapezoid, rightTrapezoid);
         replaceNode(trapezoid, node);
 
@@ -263,43 +380,55 @@ public final class TrapezoidalMap {
             trapezoid.rightBottom = newRightBottom;
     }
 
-    private void replaceNode(DagNode oldNode, DagNode newNode) {
+    private void replaceNode(Trapezoid oldNode, DagNode newNode) {
         if (oldNode == root)
             root = newNode;
-        newNode.getParents().addAll(oldNode.getParents());
-        for (DagNode parent : oldNode.getParents()) {
-            parent.visit(new DagNodeVisitor<Void>() {
-
-                @Override
-                public Void visitXNode(XNodeDagNode node) {
-                    if (node.left == oldNode)
-                        node.left = newNode;
-                    else if (node.right == oldNode)
-                        node.right = newNode;
-                    return null;
-                }
-
-                @Override
-                public Void visitYNode(YNodeDagNode node) {
-                    if (node.top == oldNode)
-                        node.top = newNode;
-                    else if (node.bottom == oldNode)
-                        node.bottom = newNode;
-                    return null;
-                }
-
-                @Override
-                public Void visitTrapezoid(Trapezoid trapezoid) {
-                    throw new IllegalStateException("Parent should not be a trapezoid.");
-                }
-            });
+        // The new node takes the place of the old node, and the trapezoids below a new X or Y node
+        // are one level deeper. No other depths change, since nodes only gain parents when they are
+        // created or merged.
+        newNode.setDepth(Math.max(newNode.getDepth(), oldNode.depth));
+        if (newNode instanceof XNodeDagNode) {
+            XNodeDagNode xNode = (XNodeDagNode) newNode;
+            updateDepth(xNode.left, xNode.depth + 1);
+            updateDepth(xNode.right, xNode.depth + 1);
+        } else if (newNode instanceof YNodeDagNode) {
+            YNodeDagNode yNode = (YNodeDagNode) newNode;
+            updateDepth(yNode.top, yNode.depth + 1);
+            updateDepth(yNode.bottom, yNode.depth + 1);
+        }
+        if (conflictLists != null)
+            conflictLists.replace(oldNode, newNode);
+        List<DagNode> parents = oldNode.getParents();
+        newNode.getParents().addAll(parents);
+        for (int i = 0; i < parents.size(); i++) {
+            DagNode parent = parents.get(i);
+            if (parent instanceof XNodeDagNode) {
+                XNodeDagNode xNode = (XNodeDagNode) parent;
+                if (xNode.left == oldNode)
+                    xNode.left = newNode;
+                else if (xNode.right == oldNode)
+                    xNode.right = newNode;
+            } else if (parent instanceof YNodeDagNode) {
+                YNodeDagNode yNode = (YNodeDagNode) parent;
+                if (yNode.top == oldNode)
+                    yNode.top = newNode;
+                else if (yNode.bottom == oldNode)
+                    yNode.bottom = newNode;
+            } else {
+                throw new IllegalStateException("Parent should not be a trapezoid.");
+            }
         }
     }
 
-    private static Point getPointAt(DirectedEdge edge, double x) {
+    private void updateDepth(DagNode node, int nodeDepth) {
+        node.setDepth(Math.max(node.getDepth(), nodeDepth));
+        depth = Math.max(depth, node.getDepth());
+    }
+
+    private static double getYAt(DirectedEdge edge, double x) {
         assert edge.getDx() != 0;
         Point p = edge.getAnyPoint();
-        return new Point(x, p.y - (p.x - x) / edge.getDx() * edge.getDy());
+        return p.y - (p.x - x) / edge.getDx() * edge.getDy();
     }
 
     private interface DagNode {
@@ -308,6 +437,11 @@ public final class TrapezoidalMap {
 
         List<DagNode> getParents();
 
+        // The number of nodes on the longest path from the root to this node.
+        int getDepth();
+
+        void setDepth(int depth);
+
         <T> T visit(DagNodeVisitor<T> visitor);
 
         String toString(int indent);
@@ -320,7 +454,8 @@ public final class TrapezoidalMap {
         final double x;
         DagNode left;
         DagNode right;
-        final List<DagNode> parents = new ArrayList<>();
+        final List<DagNode> parents = new ArrayList<>(2);
+        int depth;
 
         static XNodeDagNode of(double x, DagNode left, DagNode right) {
             XNodeDagNode node = new XNodeDagNode(x);
@@ -364,7 +499,31 @@ public final class TrapezoidalMap {
         final DirectedEdge edge;
         DagNode top;
         DagNode bottom;
-        final List<DagNode> parents = new ArrayList<>();
+        final List<DagNode> parents = new ArrayList<>(2);
+        int depth;
+
+        // The edge's anyPoint, getAnyLaterPoint(), start point and end point, for searches that
+        // don't dereference the edge.
+        final double anyX;
+        final double anyY;
+        final double laterX;
+        final double laterY;
+        final double startX;
+        final double startY;
+        final double endX;
+        final double endY;
+
+        YNodeDagNode(DirectedEdge edge) {
+            this.edge = edge;
+            this.anyX = edge.getAnyPoint().x;
+            this.anyY = edge.getAnyPoint().y;
+            this.laterX = anyX + edge.getDx();
+            this.laterY = anyY + edge.getDy();
+            this.startX = edge.getStartPoint().x;
+            this.startY = edge.getStartPoint().y;
+            this.endX = edge.getEndPoint().x;
+            this.endY = edge.getEndPoint().y;
+        }
 
         static YNodeDagNode of(DirectedEdge edge, DagNode top, DagNode bottom) {
             YNodeDagNode node = new YNodeDagNode(edge);
@@ -377,6 +536,16 @@ public final class TrapezoidalMap {
             return node;
         }
 
+        /**
+         * Returns whether the given (sheared) point is strictly above the line of this node's edge,
+         * consistently with {@link FindTrapezoidDagNodeVisitor} for a degenerate edge at the point.
+         */
+        boolean isAbove(double x, double y) {
+            if (x == startX && y == startY || x == endX && y == endY)
+                return false;
+            return Predicates.crossProduct(anyX, anyY, laterX, laterY, anyX, anyY, x, y) > 0;
+        }
+
         @Override
         public <T> T visit(DagNodeVisitor<T> visitor) {
             return visitor.visitYNode(this);
@@ -404,7 +573,6 @@ public final class TrapezoidalMap {
         }
     }
 
-    @Builder(toBuilder = true)
     @Data
     private static final class Trapezoid implements DagNode {
 
@@ -416,7 +584,57 @@ public final class TrapezoidalMap {
         Trapezoid leftBottom;
         Trapezoid rightTop;
         Trapezoid rightBottom;
-        final List<DagNode> parents = new ArrayList<>();
+        final List<DagNode> parents = new ArrayList<>(2);
+        int depth;
+
+        // The end-points in this trapezoid that have not been added yet, while adding edges with
+        // addEdges(), and the node that replaced this trapezoid, if any.
+        int[] conflicts;
+        int numConflicts;
+        DagNode replacement;
+
+        Trapezoid(int region, Point left, Point right) {
+            this.region = region;
+            this.left = left;
+            this.right = right;
+        }
+
+        /**
+         * Returns a copy of this trapezoid (with the same neighbors) in the given region.
+         */
+        Trapezoid withRegion(int newRegion) {
+            return withNeighbors(new Trapezoid(newRegion, left, right), this, this);
+        }
+
+        /**
+         * Returns a copy of this trapezoid that starts at the given point instead.
+         */
+        Trapezoid withLeft(Point newLeft) {
+            return withNeighbors(new Trapezoid(region, newLeft, right), this, this);
+        }
+
+        /**
+         * Returns a copy of this trapezoid that ends at the given point instead.
+         */
+        Trapezoid withRight(Point newRight) {
+            return withNeighbors(new Trapezoid(region, left, newRight), this, this);
+        }
+
+        /**
+         * Returns a copy of this trapezoid that ends where the given trapezoid ends, with the right
+         * neighbors of the given trapezoid.
+         */
+        Trapezoid withRight(Trapezoid other) {
+            return withNeighbors(new Trapezoid(region, left, other.right), this, other);
+        }
+
+        private static Trapezoid withNeighbors(Trapezoid trapezoid, Trapezoid leftSource, Trapezoid rightSource) {
+            trapezoid.leftTop = leftSource.leftTop;
+            trapezoid.leftBottom = leftSource.leftBottom;
+            trapezoid.rightTop = rightSource.rightTop;
+            trapezoid.rightBottom = rightSource.rightBottom;
+            return trapezoid;
+        }
 
         @Override
         public <T> T visit(DagNodeVisitor<T> visitor) {
@@ -444,6 +662,160 @@ public final class TrapezoidalMap {
         }
     }
 
+    /**
+     * The conflict lists used by {@link #addEdges}. Element 2i is the start point of edge i, and
+     * element 2i + 1 is its end point. Each element is located as if searching for the edge
+     * starting at that point, like {@link FindTrapezoidDagNodeVisitor}, but with the coordinates
+     * of the edges in arrays.
+     */
+    private final class ConflictLists {
+
+        // The point of each element, the x coordinate of the other end-point of its edge, and the
+        // direction of its edge away from the point.
+        final double[] xs;
+        final double[] ys;
+        final double[] otherXs;
+        final double[] dxs;
+        final double[] dys;
+        // The anyPoint of each edge.
+        final double[] anyXs;
+        final double[] anyYs;
+        // The edges, for the general search of the elements at infinity (of rays and lines).
+        final DirectedEdge[] edges;
+        final Trapezoid[] trapezoids;
+        final List<Trapezoid> replacedTrapezoids = new ArrayList<>();
+        int numAddedEdges;
+
+        ConflictLists(DirectedEdge[] edges) {
+            int numElements = 2 * edges.length;
+            this.xs = new double[numElements];
+            this.ys = new double[numElements];
+            this.otherXs = new double[numElements];
+            this.dxs = new double[numElements];
+            this.dys = new double[numElements];
+            this.anyXs = new double[edges.length];
+            this.anyYs = new double[edges.length];
+            this.edges = edges;
+            this.trapezoids = new Trapezoid[numElements];
+            for (int i = 0; i < edges.length; i++) {
+                DirectedEdge edge = edges[i];
+                xs[2 * i] = otherXs[2 * i + 1] = edge.getStartPoint().x;
+                ys[2 * i] = edge.getStartPoint().y;
+                xs[2 * i + 1] = otherXs[2 * i] = edge.getEndPoint().x;
+                ys[2 * i + 1] = edge.getEndPoint().y;
+                dxs[2 * i] = edge.getDx();
+                dys[2 * i] = edge.getDy();
+                dxs[2 * i + 1] = -edge.getDx();
+                dys[2 * i + 1] = -edge.getDy();
+                anyXs[i] = edge.getAnyPoint().x;
+                anyYs[i] = edge.getAnyPoint().y;
+            }
+            for (int element = 0; element < numElements; element++)
+                add(element, locate(element, root));
+        }
+
+        Trapezoid findStartTrapezoid() {
+            return trapezoids[2 * numAddedEdges];
+        }
+
+        Trapezoid findEndTrapezoid() {
+            relocate();
+            return trapezoids[2 * numAddedEdges + 1];
+        }
+
+        void finishEdge() {
+            numAddedEdges++;
+            relocate();
+        }
+
+        void replace(Trapezoid trapezoid, DagNode node) {
+            trapezoid.replacement = node;
+            if (trapezoid.numConflicts > 0)
+                replacedTrapezoids.add(trapezoid);
+        }
+
+        /**
+         * Moves the elements in replaced trapezoids to the trapezoids that now contain them, by
+         * searching from the nodes that replaced them.
+         */
+        void relocate() {
+            for (Trapezoid trapezoid : replacedTrapezoids) {
+                for (int i = 0; i < trapezoid.numConflicts; i++) {
+                    int element = trapezoid.conflicts[i];
+                    if (element / 2 >= numAddedEdges)
+                        add(element, locate(element, trapezoid.replacement));
+                }
+                trapezoid.conflicts = null;
+                trapezoid.numConflicts = 0;
+            }
+            replacedTrapezoids.clear();
+        }
+
+        /**
+         * Returns the current trapezoid containing the given element, searching from the given
+         * node. Trapezoids reached along the way may themselves have been replaced, for example by
+         * merging, in which case the search continues from their replacements.
+         */
+        Trapezoid locate(int element, DagNode node) {
+            double x = xs[element];
+            if (Double.isInfinite(x)) {
+                FindTrapezoidDagNodeVisitor visitor = findTrapezoidVisitor.reset(edges[element / 2], element % 2 == 1);
+                Trapezoid trapezoid;
+                while ((trapezoid = node.visit(visitor)).replacement != null)
+                    node = trapezoid.replacement;
+                return trapezoid;
+            }
+            double y = ys[element];
+            while (true) {
+                if (node instanceof XNodeDagNode) {
+                    XNodeDagNode xNode = (XNodeDagNode) node;
+                    node = x < xNode.x || x == xNode.x && otherXs[element] < xNode.x ? xNode.left : xNode.right;
+                } else if (node instanceof YNodeDagNode) {
+                    YNodeDagNode yNode = (YNodeDagNode) node;
+                    node = isAbove(element, x, y, yNode) ? yNode.top : yNode.bottom;
+                } else {
+                    Trapezoid trapezoid = (Trapezoid) node;
+                    if (trapezoid.replacement == null)
+                        return trapezoid;
+                    node = trapezoid.replacement;
+                }
+            }
+        }
+
+        private boolean isAbove(int element, double x, double y, YNodeDagNode node) {
+            if (x == node.startX && y == node.startY || x == node.endX && y == node.endY) {
+                // The edges share the point, so compare their directions.
+                double anyX = anyXs[element / 2];
+                double anyY = anyYs[element / 2];
+                return Predicates.crossProduct(
+                    anyX, anyY, anyX + dxs[element], anyY + dys[element],
+                    node.anyX, node.anyY, node.laterX, node.laterY) < 0;
+            }
+            return Predicates.crossProduct(node.anyX, node.anyY, node.laterX, node.laterY, node.anyX, node.anyY, x, y) > 0;
+        }
+
+        void add(int element, Trapezoid trapezoid) {
+            trapezoids[element] = trapezoid;
+            if (trapezoid.conflicts == null)
+                trapezoid.conflicts = new int[4];
+            else if (trapezoid.numConflicts == trapezoid.conflicts.length)
+                trapezoid.conflicts = Arrays.copyOf(trapezoid.conflicts, 2 * trapezoid.numConflicts);
+            trapezoid.conflicts[trapezoid.numConflicts++] = element;
+        }
+
+        /**
+         * Releases the remaining conflict lists.
+         */
+        void clear() {
+            for (Trapezoid trapezoid : trapezoids) {
+                if (trapezoid != null) {
+                    trapezoid.conflicts = null;
+                    trapezoid.numConflicts = 0;
+                }
+            }
+        }
+    }
+
     private interface DagNodeVisitor<T> {
 
         T visitXNode(XNodeDagNode node);
@@ -453,14 +825,33 @@ public final class TrapezoidalMap {
         T visitTrapezoid(Trapezoid trapezoid);
     }
 
-    @Data
+    /**
+     * Finds the trapezoid containing the start point of an edge, or the trapezoid that the edge
+     * enters from its start point if a trapezoid ends there. The edge may be searched for in its
+     * flipped direction, starting from its end point, without creating the flipped edge.
+     */
     private static final class FindTrapezoidDagNodeVisitor implements DagNodeVisitor<Trapezoid> {
 
-        final DirectedEdge edge;
+        DirectedEdge edge;
+        boolean flipped;
+
+        FindTrapezoidDagNodeVisitor reset(DirectedEdge edge, boolean flipped) {
+            this.edge = edge;
+            this.flipped = flipped;
+            return this;
+        }
+
+        Point getStartPoint() {
+            return flipped ? edge.getEndPoint() : edge.getStartPoint();
+        }
+
+        Point getEndPoint() {
+            return flipped ? edge.getStartPoint() : edge.getEndPoint();
+        }
 
         @Override
         public Trapezoid visitXNode(XNodeDagNode node) {
-            if (edge.getStartPoint().x < node.x || edge.getStartPoint().x == node.x && edge.getEndPoint().x < node.x) {
+            if (getStartPoint().x < node.x || getStartPoint().x == node.x && getEndPoint().x < node.x) {
                 return node.left.visit(this);
             } else {
                 return node.right.visit(this);
@@ -469,32 +860,32 @@ public final class TrapezoidalMap {
 
         @Override
         public Trapezoid visitYNode(YNodeDagNode node) {
-            if (Double.isInfinite(edge.getStartPoint().x)) {
-                double x = edge.getStartPoint().x == Double.POSITIVE_INFINITY
-                        ? Math.max(edge.getEndPoint().x, node.edge.getStartPoint().x) + 1
-                        : Math.min(edge.getEndPoint().x, node.edge.getEndPoint().x) - 1;
+            if (Double.isInfinite(getStartPoint().x)) {
+                double x = getStartPoint().x == Double.POSITIVE_INFINITY
+                        ? Math.max(getEndPoint().x, node.edge.getStartPoint().x) + 1
+                        : Math.min(getEndPoint().x, node.edge.getEndPoint().x) - 1;
                 if (Double.isInfinite(x))
                     x = 0;
-                if (getPointAt(edge, x).y > getPointAt(node.edge, x).y)
+                if (getYAt(edge, x) > getYAt(node.edge, x))
                     return node.top.visit(this);
                 else
                     return node.bottom.visit(this);
-            } else if (edge.getStartPoint().equals(node.edge.getStartPoint()) || edge.getStartPoint().equals(node.edge.getEndPoint())) {
-                double newLineToOldLine = Points.crossProduct(
-                    edge.getAnyPoint(),
-                    edge.getAnyLaterPoint(),
-                    node.edge.getAnyPoint(),
-                    node.edge.getAnyLaterPoint());
+            } else if (getStartPoint().equals(node.edge.getStartPoint()) || getStartPoint().equals(node.edge.getEndPoint())) {
+                Point anyPoint = edge.getAnyPoint();
+                double dx = flipped ? -edge.getDx() : edge.getDx();
+                double dy = flipped ? -edge.getDy() : edge.getDy();
+                double newLineToOldLine = Predicates.crossProduct(
+                    anyPoint.x, anyPoint.y, anyPoint.x + dx, anyPoint.y + dy,
+                    node.anyX, node.anyY, node.laterX, node.laterY);
                 if (newLineToOldLine < 0)
                     return node.top.visit(this);
                 else
                     return node.bottom.visit(this);
             } else {
-                double oldLineToPoint = Points.crossProduct(
-                    node.edge.getAnyPoint(),
-                    node.edge.getAnyLaterPoint(),
-                    node.edge.getAnyPoint(),
-                    edge.getStartPoint());
+                Point startPoint = getStartPoint();
+                double oldLineToPoint = Predicates.crossProduct(
+                    node.anyX, node.anyY, node.laterX, node.laterY,
+                    node.anyX, node.anyY, startPoint.x, startPoint.y);
                 if (oldLineToPoint > 0)
                     return node.top.visit(this);
                 else
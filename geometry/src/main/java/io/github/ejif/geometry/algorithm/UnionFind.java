@@ -0,0 +1,48 @@
+package io.github.ejif.geometry.algorithm;
+
+/**
+ * A disjoint-set forest over the integers 0 to n - 1, stored in primitive arrays, with union by
+ * size and path halving.
+ */
+final class UnionFind {
+
+    private final int[] parents;
+    private final int[] sizes;
+
+    UnionFind(int n) {
+        this.parents = new int[n];
+        this.sizes = new int[n];
+        for (int i = 0; i < n; i++) {
+            parents[i] = i;
+            sizes[i] = 1;
+        }
+    }
+
+    int find(int i) {
+        while (parents[i] != i) {
+            parents[i] = parents[parents[i]];
+            i = parents[i];
+        }
+        return i;
+    }
+
+    /**
+     * Merges the sets containing i and j.
+     *
+     * @return true if i and j were in different sets
+     */
+    boolean union(int i, int j) {
+        int rootI = find(i);
+        int rootJ = find(j);
+        if (rootI == rootJ)
+            return false;
+        if (sizes[rootI] < sizes[rootJ]) {
+            int tmp = rootI;
+            rootI = rootJ;
+            rootJ = tmp;
+        }
+        parents[rootJ] = rootI;
+        sizes[rootI] += sizes[rootJ];
+        return true;
+    }
+}
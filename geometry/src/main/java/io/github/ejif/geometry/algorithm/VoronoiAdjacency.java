@@ -0,0 +1,252 @@
+package io.github.ejif.geometry.algorithm;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import javax.annotation.Nullable;
+
+import io.github.ejif.geometry.DelaunayTriangulation;
+import io.github.ejif.geometry.Point;
+import io.github.ejif.geometry.VoronoiDiagram;
+import io.github.ejif.geometry.VoronoiDiagram.Border;
+
+/**
+ * A compact representation of which points share a border in a Voronoi diagram (equivalently, the
+ * edges of the Delaunay graph), along with the coordinates of the points in packed arrays.
+ *
+ * The neighbors of the point with index i are getNeighbor(k) for getNeighborStart(i) &lt;= k &lt;
+ * getNeighborEnd(i).
+ */
+public final class VoronoiAdjacency {
+
+    private final double[] xs;
+    private final double[] ys;
+    private final int[] offsets;
+    private final int[] neighbors;
+
+    private VoronoiAdjacency(double[] xs, double[] ys, int[] offsets, int[] neighbors) {
+        this.xs = xs;
+        this.ys = ys;
+        this.offsets = offsets;
+        this.neighbors = neighbors;
+    }
+
+    /**
+     * Creates the adjacency of the given Voronoi diagram.
+     *
+     * @param points
+     *            the points that the Voronoi diagram was created from
+     * @param diagram
+     *            the Voronoi diagram
+     * @return the adjacency
+     */
+    public static VoronoiAdjacency create(List<Point> points, VoronoiDiagram diagram) {
+        int[] edges = new int[2 * diagram.getBorders().size()];
+        int numEdgeIndices = 0;
+        for (Border border : diagram.getBorders()) {
+            edges[numEdgeIndices++] = border.getLeftPointIndex();
+            edges[numEdgeIndices++] = border.getRightPointIndex();
+        }
+        return create(xs(points), ys(points), edges);
+    }
+
+    /**
+     * Creates the adjacency of the given Delaunay triangulation. Points on a common circle may share
+     * an edge even though their Voronoi regions only touch at a vertex, which does not change the
+     * regions computed from the adjacency.
+     *
+     * @param points
+     *            the points that the Delaunay triangulation was created from
+     * @param triangulation
+     *            the Delaunay triangulation
+     * @return the adjacency
+     */
+    public static VoronoiAdjacency create(List<Point> points, DelaunayTriangulation triangulation) {
+        return create(xs(points), ys(points), triangulation.getEdges());
+    }
+
+    /**
+     * Creates the adjacency of the points with the given coordinates, where point edges[2i] shares a
+     * border with point edges[2i + 1]. The arrays are not copied.
+     */
+    static VoronoiAdjacency create(double[] xs, double[] ys, int[] edges) {
+        int numPoints = xs.length;
+        int[] offsets = new int[numPoints + 1];
+        for (int pointIndex : edges)
+            offsets[pointIndex + 1]++;
+        for (int i = 0; i < numPoints; i++)
+            offsets[i + 1] += offsets[i];
+        int[] neighbors = new int[offsets[numPoints]];
+        int[] next = new int[numPoints];
+        System.arraycopy(offsets, 0, next, 0, numPoints);
+        for (int i = 0; i < edges.length; i += 2) {
+            neighbors[next[edges[i]]++] = edges[i + 1];
+            neighbors[next[edges[i + 1]]++] = edges[i];
+        }
+        return new VoronoiAdjacency(xs, ys, offsets, neighbors);
+    }
+
+    private static double[] xs(List<Point> points) {
+        double[] xs = new double[points.size()];
+        for (int i = 0; i < xs.length; i++)
+            xs[i] = points.get(i).x;
+        return xs;
+    }
+
+    private static double[] ys(List<Point> points) {
+        double[] ys = new double[points.size()];
+        for (int i = 0; i < ys.length; i++)
+            ys[i] = points.get(i).y;
+        return ys;
+    }
+
+    public int getNumPoints() {
+        return xs.length;
+    }
+
+    public double getX(int pointIndex) {
+        return xs[pointIndex];
+    }
+
+    public double getY(int pointIndex) {
+        return ys[pointIndex];
+    }
+
+    public int getNeighborStart(int pointIndex) {
+        return offsets[pointIndex];
+    }
+
+    public int getNeighborEnd(int pointIndex) {
+        return offsets[pointIndex + 1];
+    }
+
+    public int getNeighbor(int k) {
+        return neighbors[k];
+    }
+
+    /**
+     * Finds the point closest to (x, y) by walking from the given point to whichever neighbor is
+     * closest to (x, y), until no neighbor is closer. This is correct because if a point is not the
+     * closest point to (x, y), then (x, y) lies strictly beyond one of the borders of its region,
+     * so the point on the other side of that border is strictly closer. The number of steps is
+     * small when the start point is close to (x, y).
+     *
+     * @param startPointIndex
+     *            the index of the point to start walking from
+     * @param x
+     *            the x coordinate of the query point
+     * @param y
+     *            the y coordinate of the query point
+     * @param maxSteps
+     *            the maximum number of steps to take
+     * @return the index of the closest point, or -1 if it was not reached within maxSteps steps
+     */
+    public int walk(int startPointIndex, double x, double y, int maxSteps) {
+        int current = startPointIndex;
+        double currentDistance = distanceSquared(current, x, y);
+        for (int step = 0;; step++) {
+            int next = -1;
+            for (int k = offsets[current]; k < offsets[current + 1]; k++) {
+                int neighbor = neighbors[k];
+                double distance = distanceSquared(neighbor, x, y);
+                if (distance < currentDistance) {
+                    next = neighbor;
+                    currentDistance = distance;
+                }
+            }
+            if (next == -1)
+                return current;
+            if (step == maxSteps)
+                return -1;
+            current = next;
+        }
+    }
+
+    /**
+     * Returns the squared distance from the given point to (x, y).
+     *
+     * @param pointIndex
+     *            the index of the point
+     * @param x
+     *            the x coordinate
+     * @param y
+     *            the y coordinate
+     * @return the squared distance
+     */
+    public double distanceSquared(int pointIndex, double x, double y) {
+        double dx = xs[pointIndex] - x;
+        double dy = ys[pointIndex] - y;
+        return dx * dx + dy * dy;
+    }
+
+    /**
+     * Finds the nearest other point to the given point. The nearest other point always shares a
+     * border with the point, since the midpoint between them is closer to both than to any other
+     * point, so only the neighbors of the point are considered.
+     *
+     * @param pointIndex
+     *            the index of the point
+     * @return the index of the nearest other point, or -1 if the point has no neighbors
+     */
+    public int findNearestNeighbor(int pointIndex) {
+        int nearest = -1;
+        double nearestDistance = Double.POSITIVE_INFINITY;
+        for (int k = offsets[pointIndex]; k < offsets[pointIndex + 1]; k++) {
+            int neighbor = neighbors[k];
+            double distance = distanceSquared(neighbor, xs[pointIndex], ys[pointIndex]);
+            if (distance < nearestDistance) {
+                nearest = neighbor;
+                nearestDistance = distance;
+            }
+        }
+        return nearest;
+    }
+
+    /**
+     * Finds the nearest other point to every point, in O(n) time in total.
+     *
+     * @param indices
+     *            the array to store the index of the nearest other point to each point in, or -1 for
+     *            a point with no neighbors; must have length at least n
+     * @param distances
+     *            the array to store the distance to the nearest other point from each point in, or
+     *            infinity for a point with no neighbors; must have length at least n
+     * @param parallel
+     *            whether to process the points in parallel
+     */
+    public void findNearestNeighbors(int[] indices, double[] distances, boolean parallel) {
+        IntStream pointIndices = IntStream.range(0, getNumPoints());
+        if (parallel)
+            pointIndices = pointIndices.parallel();
+        pointIndices.forEach(i -> {
+            int nearest = findNearestNeighbor(i);
+            indices[i] = nearest;
+            distances[i] = nearest == -1 ? Double.POSITIVE_INFINITY : Math.sqrt(distanceSquared(nearest, xs[i], ys[i]));
+        });
+    }
+
+    /**
+     * Finds the two closest distinct points, in O(n) time. The closest pair always shares a border,
+     * so only the borders are considered.
+     *
+     * @return the indices of the two closest points, in increasing order, or null if no two points
+     *         share a border
+     */
+    @Nullable
+    public int[] findClosestPair() {
+        int[] closestPair = null;
+        double closestDistance = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < getNumPoints(); i++)
+            for (int k = offsets[i]; k < offsets[i + 1]; k++) {
+                int neighbor = neighbors[k];
+                if (neighbor < i)
+                    continue;
+                double distance = distanceSquared(neighbor, xs[i], ys[i]);
+                if (distance < closestDistance) {
+                    closestPair = new int[] { i, neighbor };
+                    closestDistance = distance;
+                }
+            }
+        return closestPair;
+    }
+}
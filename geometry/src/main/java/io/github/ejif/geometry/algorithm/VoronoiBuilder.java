@@ -0,0 +1,615 @@
+package io.github.ejif.geometry.algorithm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Joiner;
+import com.google.common.collect.Sets;
+
+import io.github.ejif.geometry.DelaunayTriangulation;
+import io.github.ejif.geometry.DirectedEdge;
+import io.github.ejif.geometry.Point;
+import io.github.ejif.geometry.RationalPoint;
+import io.github.ejif.geometry.VoronoiDiagram;
+import io.github.ejif.geometry.VoronoiDiagram.Border;
+import lombok.Data;
+
+/**
+ * Computes Voronoi diagrams and Delaunay triangulations using Fortune's algorithm. See
+ * http://www.cs.sfu.ca/~binay/813.2011/Fortune.pdf.
+ *
+ * If every point has integer coordinates of absolute value at most
+ * {@link LatticePredicates#MAX_COORDINATE}, orientations and circumcenters are computed exactly
+ * with {@link LatticePredicates}, so that cocircular and collinear points are handled
+ * consistently.
+ *
+ * A builder keeps its event queue, beach line, and other working collections, as well as the
+ * events and arcs it creates, and reuses them for later builds. Building many diagrams with the
+ * same builder therefore allocates little beyond the returned diagrams. A builder is not
+ * thread-safe; use one builder per thread.
+ *
+ * The sweep records each Voronoi vertex directly on the (up to two) vertices of each pair of
+ * adjacent points, which are numbered in a primitive hash map, so the borders can be built from
+ * each pair independently, and in parallel for large diagrams.
+ */
+public final class VoronoiBuilder {
+
+    private static final Logger log = LoggerFactory.getLogger(VoronoiBuilder.class);
+
+    // Process vertex events (removing an arc) before processing point events on the same line.
+    private static final Comparator<Event> EVENT_ORDER = (e1, e2) -> e1.x != e2.x
+            ? Double.compare(e1.x, e2.x)
+            : Integer.compare(e1.getTiebreak(), e2.getTiebreak());
+
+    private final PriorityQueue<Event> events = new PriorityQueue<>(EVENT_ORDER);
+
+    /**
+     * Manage a sorted set of all arcs on the beach line. An arc is a contiguous section of a
+     * parabola on the beach line. Even though multiple arcs on the beach line may be part of the
+     * same parabola, the arc's previous and next neighbors uniquely define the arc.
+     * <p>
+     * The order of arcs depends on the sweep line, but Fortune's algorithm guarantees that the
+     * order will be stable as long as we add each new arc in the proper place, and remove each arc
+     * once we arrive at its corresponding vertex event.
+     */
+    private final TreeMap<Arc, Arc> arcs = new TreeMap<>(this::compareArcs);
+
+    // Borders are built in parallel for diagrams with at least this many pairs of adjacent points.
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    // The indices of each adjacent set of 3 points in the Voronoi diagram, and their circumcenter.
+    private int[] vertexPointIndices = new int[3 * 64];
+    private Point[] circumcenters = new Point[64];
+    private int numVertices;
+
+    // Each pair of adjacent points, keyed by pairKey(), and the (up to two) vertices on their
+    // border, or -1.
+    private final LongIndexMap pairs = new LongIndexMap(128);
+    private int[] pairVertices = new int[2 * 128];
+    private final IntHashSet collinearPointIndices = new IntHashSet(16);
+
+    // Events and arcs created by earlier builds, which are reused by later builds.
+    private final List<PointEvent> pointEventPool = new ArrayList<>();
+    private final List<VertexEvent> vertexEventPool = new ArrayList<>();
+    private final List<Arc> arcPool = new ArrayList<>();
+    private int numVertexEvents;
+    private int numArcs;
+
+    private List<Point> points;
+    private boolean lattice;
+    private double sweepX;
+
+    /**
+     * Computes the Voronoi diagram of the given points. The resulting borders will all satisfy
+     * leftPointIndex &lt; rightPointIndex.
+     *
+     * @param points
+     *            the points to compute the Voronoi diagram of
+     * @return the Voronoi diagram
+     */
+    public VoronoiDiagram createVoronoiDiagram(List<Point> points) {
+        sweep(points);
+        if (log.isDebugEnabled())
+            for (int vertex = 0; vertex < numVertices; vertex++)
+                log.debug("Vertex at {} (circumcenter of {})", circumcenters[vertex],
+                    Arrays.toString(Arrays.copyOfRange(vertexPointIndices, 3 * vertex, 3 * vertex + 3)));
+
+        // Special case: all points are collinear; add a line between each adjacent two points.
+        if (pairs.size() == 0)
+            addCollinearPairs();
+
+        /**
+         * For each pair of adjacent points in the Voronoi diagram, each vertex on their border
+         * gives a ray emanating away from the vertex. If there is only one ray, then store that ray
+         * in the Voronoi diagram; otherwise, if there are two rays, then store the line segment
+         * equal to the intersection of the two rays.
+         */
+        Border[] borders = new Border[pairs.size()];
+        IntStream pairIndices = IntStream.range(0, pairs.size());
+        if (pairs.size() >= PARALLEL_THRESHOLD)
+            pairIndices = pairIndices.parallel();
+        pairIndices.forEach(pair -> borders[pair] = toBorder(pair));
+
+        Set<Border> borderSet = Sets.newHashSetWithExpectedSize(borders.length);
+        for (Border border : borders)
+            if (border != null)
+                borderSet.add(border);
+        finish();
+        return new VoronoiDiagram(borderSet);
+    }
+
+    /**
+     * Computes the Delaunay triangulation of the given points.
+     *
+     * @param points
+     *            the points to compute the Delaunay triangulation of
+     * @return the Delaunay triangulation
+     * @see Voronoi#createDelaunayTriangulation
+     */
+    public DelaunayTriangulation createDelaunayTriangulation(List<Point> points) {
+        sweep(points);
+        int[] triangles = new int[3 * numVertices];
+        for (int vertex = 0; vertex < numVertices; vertex++) {
+            int i1 = vertexPointIndices[3 * vertex];
+            int i2 = vertexPointIndices[3 * vertex + 1];
+            int i3 = vertexPointIndices[3 * vertex + 2];
+            // Store each triangle in counterclockwise order.
+            if (orientation(i1, i2, i3) < 0) {
+                int tmp = i2;
+                i2 = i3;
+                i3 = tmp;
+            }
+            triangles[3 * vertex] = i1;
+            triangles[3 * vertex + 1] = i2;
+            triangles[3 * vertex + 2] = i3;
+        }
+        if (pairs.size() == 0)
+            addCollinearPairs();
+
+        int[] edgeArray = new int[2 * pairs.size()];
+        for (int pair = 0; pair < pairs.size(); pair++) {
+            long key = pairs.getKey(pair);
+            edgeArray[2 * pair] = (int) (key >>> 32);
+            edgeArray[2 * pair + 1] = (int) key;
+        }
+        finish();
+        return new DelaunayTriangulation(edgeArray, triangles);
+    }
+
+    /**
+     * Moves the sweep line across the given points from left to right, leaving the Voronoi vertices
+     * in {@link #vertexPointIndices} and {@link #pairs}, and the final beach line in {@link #arcs}.
+     */
+    private void sweep(List<Point> points) {
+        this.points = points;
+        this.lattice = true;
+        for (Point point : points)
+            lattice &= LatticePredicates.isLatticePoint(point);
+        events.clear();
+        arcs.clear();
+        pairs.clear();
+        numVertices = 0;
+        numVertexEvents = 0;
+        numArcs = 0;
+
+        // Maintain a priority queue of events as we move the sweep line from left to right.
+        for (int pointIndex = 0; pointIndex < points.size(); pointIndex++) {
+            if (pointIndex == pointEventPool.size())
+                pointEventPool.add(new PointEvent());
+            PointEvent event = pointEventPool.get(pointIndex);
+            event.x = points.get(pointIndex).x;
+            event.pointIndex = pointIndex;
+            events.add(event);
+        }
+
+        while (!events.isEmpty()) {
+            logArcs();
+            log.debug("Events: {}", events);
+            Event e = events.poll();
+            log.debug("Processing event {}", e);
+            log.debug("");
+            if (e instanceof PointEvent) {
+                PointEvent event = (PointEvent) e;
+
+                // Insert degenerate arc at [point.y, point.y].
+                Arc arc = newArc(event.pointIndex, null, null);
+                sweepX = event.x;
+                Arc prev = arcs.lowerKey(arc);
+                if (prev != null && getMin(prev) < getMin(arc) && getMax(arc) < getMax(prev)) {
+                    Arc next = newArc(prev.pointIndex, arc, prev.next);
+                    arc.prev = prev;
+                    arc.next = next;
+                    prev.next = arc;
+                    if (next.next != null)
+                        next.next.prev = next;
+                    arcs.put(arc, arc);
+                    arcs.put(next, next);
+                } else if (prev != null && prev.next != null) {
+                    // point.y is exactly between two existing intervals.
+                    arc.prev = prev;
+                    arc.next = prev.next;
+                    prev.next = arc;
+                    arc.next.prev = arc;
+                    arcs.put(arc, arc);
+
+                    // If the points are not collinear, there is a vertex right here.
+                    if (orientation(arc.pointIndex, arc.prev.pointIndex, arc.next.pointIndex) != 0) {
+                        addVertex(arc.prev.pointIndex, arc.pointIndex, arc.next.pointIndex,
+                            circumcenter(arc.prev.pointIndex, arc.pointIndex, arc.next.pointIndex));
+                    }
+                } else {
+                    arc.prev = prev;
+                    arc.next = prev == null ? (arcs.isEmpty() ? null : arcs.firstKey()) : prev.next;
+                    if (arc.prev != null)
+                        arc.prev.next = arc;
+                    if (arc.next != null)
+                        arc.next.prev = arc;
+                    arcs.put(arc, arc);
+                }
+
+                /**
+                 * Check the two new sets of adjacent three arcs to see if either or both trigger a
+                 * vertex event later on. (The previous and next arcs have the same focus, so they
+                 * cannot trigger a vertex event with the current arc.)
+                 */
+                if (arc.prev != null && arc.prev.prev != null)
+                    processArc(arc.prev);
+                if (arc.next != null && arc.next.next != null)
+                    processArc(arc.next);
+            } else if (e instanceof VertexEvent) {
+                VertexEvent event = (VertexEvent) e;
+                Arc toRemove = event.toRemove;
+                // If this arc was already removed by another vertex event, then ignore it.
+                if (toRemove.equals(arcs.get(toRemove))) {
+                    arcs.remove(toRemove);
+                    if (toRemove.prev != null)
+                        toRemove.prev.next = toRemove.next;
+                    if (toRemove.next != null)
+                        toRemove.next.prev = toRemove.prev;
+                    addVertex(toRemove.prev.pointIndex, toRemove.pointIndex, toRemove.next.pointIndex, event.circumcenter);
+
+                    // Process the two new sets of adjacent three arcs after this arc is removed.
+                    if (toRemove.prev != null && toRemove.prev.prev != null)
+                        processArc(toRemove.prev);
+                    if (toRemove.next != null && toRemove.next.next != null)
+                        processArc(toRemove.next);
+                }
+            }
+        }
+    }
+
+    /**
+     * Releases the references to the points and results of the last build, so that they can be
+     * garbage collected while the builder is kept for later builds.
+     */
+    private void finish() {
+        points = null;
+        arcs.clear();
+        pairs.clear();
+        Arrays.fill(circumcenters, 0, numVertices, null);
+        numVertices = 0;
+        for (int i = 0; i < numVertexEvents; i++)
+            vertexEventPool.get(i).circumcenter = null;
+    }
+
+    /**
+     * Records the Voronoi vertex at the circumcenter of the three given points, on the border of
+     * each pair of them. If the same three points were already recorded, only their circumcenter is
+     * replaced.
+     */
+    private void addVertex(int i, int j, int k, Point circumcenter) {
+        int pair = addPair(i, j);
+        for (int slot = 2 * pair; slot < 2 * pair + 2; slot++) {
+            int vertex = pairVertices[slot];
+            if (vertex != -1 && hasPointIndex(vertex, i) && hasPointIndex(vertex, j) && hasPointIndex(vertex, k)) {
+                circumcenters[vertex] = circumcenter;
+                return;
+            }
+        }
+
+        if (numVertices == circumcenters.length) {
+            circumcenters = Arrays.copyOf(circumcenters, 2 * numVertices);
+            vertexPointIndices = Arrays.copyOf(vertexPointIndices, 6 * numVertices);
+        }
+        int vertex = numVertices++;
+        vertexPointIndices[3 * vertex] = i;
+        vertexPointIndices[3 * vertex + 1] = j;
+        vertexPointIndices[3 * vertex + 2] = k;
+        circumcenters[vertex] = circumcenter;
+        addPairVertex(pair, vertex);
+        addPairVertex(addPair(j, k), vertex);
+        addPairVertex(addPair(k, i), vertex);
+    }
+
+    private boolean hasPointIndex(int vertex, int pointIndex) {
+        return vertexPointIndices[3 * vertex] == pointIndex
+                || vertexPointIndices[3 * vertex + 1] == pointIndex
+                || vertexPointIndices[3 * vertex + 2] == pointIndex;
+    }
+
+    /**
+     * Returns the index of the pair of the two given points, adding it without any vertices if it
+     * is new.
+     */
+    private int addPair(int i, int j) {
+        int numPairs = pairs.size();
+        int pair = pairs.add(pairKey(i, j));
+        if (pair == numPairs) {
+            if (2 * pair == pairVertices.length)
+                pairVertices = Arrays.copyOf(pairVertices, 4 * pair);
+            pairVertices[2 * pair] = -1;
+            pairVertices[2 * pair + 1] = -1;
+        }
+        return pair;
+    }
+
+    private void addPairVertex(int pair, int vertex) {
+        if (pairVertices[2 * pair] == -1)
+            pairVertices[2 * pair] = vertex;
+        else if (pairVertices[2 * pair + 1] == -1)
+            pairVertices[2 * pair + 1] = vertex;
+        else
+            assert false;
+    }
+
+    /**
+     * Returns a key for the pair of the two given points, with the smaller index in the upper half.
+     */
+    private static long pairKey(int i, int j) {
+        return (long) Math.min(i, j) << 32 | Math.max(i, j);
+    }
+
+    /**
+     * For an arc on the beachline surrounded by an arc before and after it, add a vertex event at
+     * the rightmost point of the circumcircle of their foci.
+     */
+    private void processArc(Arc arc) {
+        // The cross product must be positive, otherwise this arc will never collapse into a point.
+        if (orientation(arc.pointIndex, arc.prev.pointIndex, arc.next.pointIndex) <= 0)
+            return;
+        if (numVertexEvents == vertexEventPool.size())
+            vertexEventPool.add(new VertexEvent());
+        VertexEvent event = vertexEventPool.get(numVertexEvents++);
+        Point point = points.get(arc.pointIndex);
+        if (lattice) {
+            RationalPoint circumcenter = latticeCircumcenter(arc.pointIndex, arc.prev.pointIndex, arc.next.pointIndex);
+            event.x = LatticePredicates.rightmostX(circumcenter, (long) point.x, (long) point.y);
+            event.circumcenter = circumcenter.toPoint();
+        } else {
+            Point circumcenter = Points.circumcenter(point, points.get(arc.prev.pointIndex), points.get(arc.next.pointIndex));
+            event.x = circumcenter.x + Points.distance(point, circumcenter);
+            event.circumcenter = circumcenter;
+        }
+        event.toRemove = arc;
+        events.add(event);
+    }
+
+    /**
+     * Returns the cross product of the vector from point i to point j with the vector from point i
+     * to point k, which has the exact sign.
+     */
+    private double orientation(int i, int j, int k) {
+        Point pi = points.get(i);
+        Point pj = points.get(j);
+        Point pk = points.get(k);
+        if (lattice)
+            return LatticePredicates.orientation((long) pi.x, (long) pi.y, (long) pj.x, (long) pj.y, (long) pk.x, (long) pk.y);
+        return Predicates.orientation(pi.x, pi.y, pj.x, pj.y, pk.x, pk.y);
+    }
+
+    private Point circumcenter(int i, int j, int k) {
+        if (lattice)
+            return latticeCircumcenter(i, j, k).toPoint();
+        return Points.circumcenter(points.get(i), points.get(j), points.get(k));
+    }
+
+    private RationalPoint latticeCircumcenter(int i, int j, int k) {
+        Point pi = points.get(i);
+        Point pj = points.get(j);
+        Point pk = points.get(k);
+        return LatticePredicates.circumcenter((long) pi.x, (long) pi.y, (long) pj.x, (long) pj.y, (long) pk.x, (long) pk.y);
+    }
+
+    private Arc newArc(int pointIndex, Arc prev, Arc next) {
+        if (numArcs == arcPool.size())
+            arcPool.add(new Arc());
+        Arc arc = arcPool.get(numArcs++);
+        arc.pointIndex = pointIndex;
+        arc.prev = prev;
+        arc.next = next;
+        return arc;
+    }
+
+    /**
+     * Orders arcs by the interval of the beach line that they cover at the current sweep line,
+     * first by the lower end and then by the upper end.
+     */
+    private int compareArcs(Arc arc1, Arc arc2) {
+        double min1 = getMin(arc1);
+        double min2 = getMin(arc2);
+        return min1 != min2 ? Double.compare(min1, min2) : Double.compare(getMax(arc1), getMax(arc2));
+    }
+
+    private double getMin(Arc arc) {
+        Point currPoint = points.get(arc.pointIndex);
+
+        // If the focus of the parabola is on the sweep line, the parabola is a degenerate
+        // horizontal ray passing through the focus.
+        if (currPoint.x == sweepX)
+            return currPoint.y;
+        return arc.prev == null
+                ? Double.NEGATIVE_INFINITY
+                : findIntersection(sweepX, currPoint, points.get(arc.prev.pointIndex));
+    }
+
+    private double getMax(Arc arc) {
+        Point currPoint = points.get(arc.pointIndex);
+        if (currPoint.x == sweepX)
+            return currPoint.y;
+        return arc.next == null
+                ? Double.POSITIVE_INFINITY
+                : findIntersection(sweepX, points.get(arc.next.pointIndex), currPoint);
+    }
+
+    /**
+     * Logs the current arcs in the beach line and verifies that invariants are satisfied; used for
+     * debugging only.
+     */
+    private void logArcs() {
+        if (!log.isDebugEnabled())
+            return;
+        List<String> arcStrings = new ArrayList<>();
+        if (!arcs.isEmpty())
+            for (Arc arc = arcs.firstKey(); arc != null; arc = arc.next)
+                arcStrings.add(String.format("%s [%.9f, %.9f]", arc, getMin(arc), getMax(arc)));
+        log.debug("Arcs at {}: {}", sweepX, Joiner.on(", ").join(arcStrings));
+        log.debug("Arcs: {}", arcs);
+
+        int count = 0;
+        if (!arcs.isEmpty())
+            for (Arc arc = arcs.firstKey(); arc != null; arc = arc.next) {
+                assert arcs.containsKey(arc);
+                if (arc.prev != null)
+                    assert arc.prev.next == arc;
+                if (arc.next != null)
+                    assert arc.next.prev == arc;
+                count++;
+            }
+        assert arcs.size() == count;
+    }
+
+    /**
+     * Adds each pair of adjacent points on the final beach line, which are the adjacent pairs of
+     * points if all points are collinear.
+     */
+    private void addCollinearPairs() {
+        if (arcs.isEmpty())
+            return;
+        collinearPointIndices.clear();
+        for (Arc arc = arcs.firstKey(); arc != null && collinearPointIndices.add(arc.pointIndex); arc = arc.next)
+            if (arc.next != null)
+                addPair(arc.pointIndex, arc.next.pointIndex);
+        collinearPointIndices.clear();
+    }
+
+    /**
+     * Finds the intersection point y of the two parabolas such that the first parabola is closer to
+     * the directrix at y + epsilon.
+     *
+     * @param xs
+     *            the directrix of the two parabolas
+     * @param p1
+     *            the focus of the first parabola
+     * @param p2
+     *            the focus of the second parabola
+     * @return the intersection point with the given property
+     */
+    private static double findIntersection(double xs, Point p1, Point p2) {
+        double x1 = p1.x;
+        double y1 = p1.y;
+        double x2 = p2.x;
+        double y2 = p2.y;
+        if (x1 == xs)
+            return y1;
+        if (x2 == xs)
+            return y2;
+        double A = 1 / (x1 - xs) - 1 / (x2 - xs);
+        double B = y1 / (x1 - xs) - y2 / (x2 - xs);
+        double C = (y1 * y1 + x1 * x1 - xs * xs) / (x1 - xs) - (y2 * y2 + x2 * x2 - xs * xs) / (x2 - xs);
+        if (A == 0)
+            return (y1 + y2) / 2;
+        double iy1 = (B - Math.sqrt(B * B - A * C)) / A;
+        double iy2 = (B + Math.sqrt(B * B - A * C)) / A;
+        return (iy1 - y1) / (x1 - xs) > (iy1 - y2) / (x2 - xs) ? iy1 : iy2;
+    }
+
+    /**
+     * Returns the border of the given pair of adjacent points, or null if it is empty.
+     */
+    private Border toBorder(int pair) {
+        long key = pairs.getKey(pair);
+        int leftPointIndex = (int) (key >>> 32);
+        int rightPointIndex = (int) key;
+        int vertex1 = pairVertices[2 * pair];
+        int vertex2 = pairVertices[2 * pair + 1];
+        if (vertex1 == -1)
+            return toBorder(leftPointIndex, rightPointIndex, null, null);
+        Point point1 = circumcenters[vertex1];
+        if (vertex2 == -1) {
+            if (isAfterPoint(leftPointIndex, rightPointIndex, vertex1))
+                return toBorder(leftPointIndex, rightPointIndex, point1, null);
+            else
+                return toBorder(leftPointIndex, rightPointIndex, null, point1);
+        }
+        Point point2 = circumcenters[vertex2];
+        if (point1.equals(point2))
+            return null;
+        if (isAfterPoint(leftPointIndex, rightPointIndex, vertex1))
+            return toBorder(leftPointIndex, rightPointIndex, point1, point2);
+        else
+            return toBorder(leftPointIndex, rightPointIndex, point2, point1);
+    }
+
+    /**
+     * Returns true if the ray from the given vertex along the border of the given pair of points
+     * includes points after the vertex, i.e. the ray points in the opposite direction as the third
+     * point of the vertex from the line (i1, i2).
+     */
+    private boolean isAfterPoint(int i1, int i2, int vertex) {
+        int i3 = vertexPointIndices[3 * vertex] + vertexPointIndices[3 * vertex + 1] + vertexPointIndices[3 * vertex + 2] - i1 - i2;
+        return orientation(i1, i2, i3) < 0;
+    }
+
+    private Border toBorder(int leftPointIndex, int rightPointIndex, Point startPoint, Point endPoint) {
+        Point pl = points.get(leftPointIndex);
+        Point pr = points.get(rightPointIndex);
+        return new Border(leftPointIndex, rightPointIndex, DirectedEdge.builder()
+            .anyPoint(new Point((pl.x + pr.x) / 2, (pl.y + pr.y) / 2))
+            .dx(pl.y - pr.y)
+            .dy(pr.x - pl.x)
+            .startPoint(startPoint)
+            .endPoint(endPoint)
+            .build());
+    }
+
+    private static abstract class Event {
+
+        double x;
+
+        abstract int getTiebreak();
+    }
+
+    private static final class PointEvent extends Event {
+
+        int pointIndex;
+
+        @Override
+        int getTiebreak() {
+            return 1;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("VoronoiBuilder.PointEvent(x=%s, pointIndex=%s)", x, pointIndex);
+        }
+    }
+
+    private static final class VertexEvent extends Event {
+
+        Arc toRemove;
+        Point circumcenter;
+
+        @Override
+        int getTiebreak() {
+            return 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("VoronoiBuilder.VertexEvent(x=%s, toRemove=%s, circumcenter=%s)", x, toRemove, circumcenter);
+        }
+    }
+
+    @Data
+    private static class Arc {
+
+        int pointIndex;
+        Arc prev;
+        Arc next;
+
+        @Override
+        public String toString() {
+            return String.format("VoronoiBuilder.Arc(pointIndex=%s, prev=%s, next=%s)", pointIndex, prev == null ? "_" : prev.pointIndex,
+                next == null ? "_" : next.pointIndex);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package io.github.ejif.geometry.algorithm;
+
+import java.nio.IntBuffer;
+import java.util.stream.IntStream;
+
+import io.github.ejif.geometry.PixelTransform;
+
+/**
+ * Fills a grid of pixels with the index of the point closest to each pixel, by walking the Voronoi
+ * regions along each row of the grid.
+ *
+ * Each row is a line in world coordinates. Starting from the region containing the first pixel of
+ * the row, the parameter at which the row leaves the region is computed from the borders of the
+ * region, all pixels up to that parameter are filled at once, and the walk continues into the
+ * neighboring region. The work done is proportional to the number of pixels plus the number of
+ * borders crossed, instead of a point location per pixel.
+ */
+public final class VoronoiRasterizer {
+
+    private final VoronoiAdjacency adjacency;
+    private final int width;
+    private final int height;
+    private final PixelTransform transform;
+
+    /**
+     * Creates a rasterizer for a grid of the given size.
+     *
+     * @param adjacency
+     *            the Voronoi adjacency of the points
+     * @param width
+     *            the number of columns of the grid
+     * @param height
+     *            the number of rows of the grid
+     * @param transform
+     *            the transform from pixel coordinates (col, row) to world coordinates
+     * @throws IllegalArgumentException
+     *             if there are no points
+     */
+    public VoronoiRasterizer(VoronoiAdjacency adjacency, int width, int height, PixelTransform transform)
+            throws IllegalArgumentException {
+        if (adjacency.getNumPoints() == 0)
+            throw new IllegalArgumentException("Point set contains no points.");
+        this.adjacency = adjacency;
+        this.width = width;
+        this.height = height;
+        this.transform = transform;
+    }
+
+    /**
+     * Returns a new array containing the index of the closest point to each pixel, in row-major
+     * order. If there are multiple closest points, an arbitrary one is used.
+     *
+     * @param parallel
+     *            whether to split the rows across threads of the common fork-join pool
+     * @return the labels
+     */
+    public int[] rasterize(boolean parallel) {
+        int[] labels = new int[Math.multiplyExact(width, height)];
+        rasterize(IntBuffer.wrap(labels), parallel);
+        return labels;
+    }
+
+    /**
+     * Writes the index of the closest point to each pixel into the given buffer, at index row *
+     * width + col. The buffer can be backed by an array or by a memory-mapped file; only absolute
+     * puts are used, so its position is not changed.
+     *
+     * @param labels
+     *            the buffer to write to, with capacity at least width * height
+     * @param parallel
+     *            whether to split the rows across threads of the common fork-join pool
+     */
+    public void rasterize(IntBuffer labels, boolean parallel) {
+        // Find the region containing the first pixel of every row by walking down the first
+        // column, which is cheap since consecutive rows are close to each other.
+        int[] rowStarts = new int[height];
+        int current = 0;
+        for (int row = 0; row < height; row++) {
+            current = adjacency.walk(current, transform.getX(0, row), transform.getY(0, row), Integer.MAX_VALUE);
+            rowStarts[row] = current;
+        }
+        IntStream rows = IntStream.range(0, height);
+        if (parallel)
+            rows = rows.parallel();
+        rows.forEach(row -> rasterizeRow(labels, row, rowStarts[row]));
+    }
+
+    private void rasterizeRow(IntBuffer labels, int row, int startPointIndex) {
+        double x0 = transform.getX(0, row);
+        double y0 = transform.getY(0, row);
+        double dx = transform.m00;
+        double dy = transform.m10;
+        int offset = row * width;
+        int current = startPointIndex;
+        int col = 0;
+        while (col < width) {
+            // Make sure that the current region contains this pixel, which may not be the case
+            // after crossing a border exactly at a vertex of the Voronoi diagram.
+            current = adjacency.walk(current, x0 + col * dx, y0 + col * dy, Integer.MAX_VALUE);
+
+            // The row leaves the current region at the smallest parameter t at which it crosses
+            // the bisector with one of the neighbors, moving away from the current point.
+            double px = adjacency.getX(current);
+            double py = adjacency.getY(current);
+            double exitT = Double.POSITIVE_INFINITY;
+            int next = current;
+            int end = adjacency.getNeighborEnd(current);
+            for (int k = adjacency.getNeighborStart(current); k < end; k++) {
+                int neighbor = adjacency.getNeighbor(k);
+                double ux = adjacency.getX(neighbor) - px;
+                double uy = adjacency.getY(neighbor) - py;
+                double slope = dx * ux + dy * uy;
+                if (slope <= 0)
+                    continue;
+                double t = -((x0 - (px + ux / 2)) * ux + (y0 - (py + uy / 2)) * uy) / slope;
+                if (t < exitT) {
+                    exitT = t;
+                    next = neighbor;
+                }
+            }
+
+            int lastCol = exitT >= width - 1 ? width - 1 : Math.max(col, (int) Math.floor(exitT));
+            for (; col <= lastCol; col++)
+                labels.put(offset + col, current);
+            current = next;
+        }
+    }
+}
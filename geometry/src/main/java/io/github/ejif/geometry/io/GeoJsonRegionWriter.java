@@ -0,0 +1,59 @@
+package io.github.ejif.geometry.io;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes Voronoi regions as a GeoJSON FeatureCollection, where each region is a Feature with a
+ * Polygon geometry and a "pointIndex" property. The collection is streamed to the output as regions
+ * are written, so it is never held in memory as a whole.
+ */
+public final class GeoJsonRegionWriter implements RegionWriter {
+
+    private final Writer writer;
+    private boolean isFirstRegion = true;
+
+    /**
+     * Creates a writer and writes the start of the FeatureCollection to the given output stream.
+     *
+     * @param out
+     *            the output stream to write to; it is not closed by this writer
+     * @throws IOException
+     *             if writing fails
+     */
+    public GeoJsonRegionWriter(OutputStream out) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16);
+        writer.write("{\"type\":\"FeatureCollection\",\"features\":[");
+    }
+
+    @Override
+    public void writeRegion(int pointIndex, double[] xs, double[] ys, int numVertices) throws IOException {
+        if (!isFirstRegion)
+            writer.write(',');
+        isFirstRegion = false;
+        writer.write("{\"type\":\"Feature\",\"properties\":{\"pointIndex\":");
+        writer.write(Integer.toString(pointIndex));
+        writer.write("},\"geometry\":{\"type\":\"Polygon\",\"coordinates\":[[");
+        // GeoJSON rings are closed, so the first vertex is repeated at the end.
+        for (int i = 0; i <= numVertices; i++) {
+            if (i > 0)
+                writer.write(',');
+            writer.write('[');
+            writer.write(Double.toString(xs[i % numVertices]));
+            writer.write(',');
+            writer.write(Double.toString(ys[i % numVertices]));
+            writer.write(']');
+        }
+        writer.write("]]}}");
+    }
+
+    @Override
+    public void finish() throws IOException {
+        writer.write("]}");
+        writer.flush();
+    }
+}
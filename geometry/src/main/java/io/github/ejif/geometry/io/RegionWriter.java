@@ -0,0 +1,68 @@
+package io.github.ejif.geometry.io;
+
+import java.io.IOException;
+import java.util.List;
+
+import io.github.ejif.geometry.Point;
+import io.github.ejif.geometry.Rectangle;
+import io.github.ejif.geometry.VoronoiDiagram;
+import io.github.ejif.geometry.algorithm.RegionClipper;
+import io.github.ejif.geometry.algorithm.VoronoiAdjacency;
+
+/**
+ * Writes Voronoi regions as polygons, one region at a time.
+ */
+public interface RegionWriter {
+
+    /**
+     * Writes the region of a point as a polygon. The coordinate arrays are only valid for the
+     * duration of the call.
+     *
+     * @param pointIndex
+     *            the index of the point that the region belongs to
+     * @param xs
+     *            the x coordinates of the vertices of the region, in counterclockwise order
+     * @param ys
+     *            the y coordinates of the vertices of the region, in counterclockwise order
+     * @param numVertices
+     *            the number of vertices (at least 3)
+     * @throws IOException
+     *             if writing fails
+     */
+    void writeRegion(int pointIndex, double[] xs, double[] ys, int numVertices) throws IOException;
+
+    /**
+     * Writes anything remaining after the last region and flushes all buffered output.
+     *
+     * @throws IOException
+     *             if writing fails
+     */
+    void finish() throws IOException;
+
+    /**
+     * Clips each region of the given Voronoi diagram to the given rectangle and writes it to the
+     * given writer as soon as it is computed, followed by {@link #finish()}. Regions that do not
+     * intersect the interior of the rectangle are skipped. Apart from the adjacency of the diagram,
+     * the memory used does not depend on the number of regions.
+     *
+     * @param points
+     *            the points that the Voronoi diagram was created from
+     * @param diagram
+     *            the Voronoi diagram
+     * @param bounds
+     *            the rectangle to clip the regions to
+     * @param writer
+     *            the writer to write the clipped regions to
+     * @throws IOException
+     *             if writing fails
+     */
+    static void writeRegions(List<Point> points, VoronoiDiagram diagram, Rectangle bounds, RegionWriter writer) throws IOException {
+        RegionClipper clipper = new RegionClipper(VoronoiAdjacency.create(points, diagram), bounds);
+        for (int pointIndex = 0; pointIndex < points.size(); pointIndex++) {
+            int numVertices = clipper.clip(pointIndex);
+            if (numVertices >= 3)
+                writer.writeRegion(pointIndex, clipper.getXs(), clipper.getYs(), numVertices);
+        }
+        writer.finish();
+    }
+}
@@ -0,0 +1,799 @@
+package io.github.ejif.geometry.io;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import javax.annotation.Nullable;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import io.github.ejif.geometry.DirectedEdge;
+import io.github.ejif.geometry.Point;
+import io.github.ejif.geometry.Rectangle;
+import io.github.ejif.geometry.VoronoiDiagram;
+import io.github.ejif.geometry.VoronoiDiagram.Border;
+import io.github.ejif.geometry.algorithm.Predicates;
+import io.github.ejif.geometry.algorithm.ScanKernels;
+import io.github.ejif.geometry.algorithm.VoronoiBuilder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * Builds the Voronoi diagram of a file of sites that may not fit in memory, and writes its borders
+ * with a {@link VoronoiDiagramWriter}.
+ *
+ * The sites file contains the coordinates of each site as two doubles x and y, in the byte order of
+ * {@link DataOutputStream} (as written by {@link #writeSites}), and the index of a site is its
+ * position in the file. The bounding box of the sites is split into a grid of tiles with about a
+ * given number of sites each. Each tile is built with a {@link VoronoiBuilder} from its own sites and
+ * those in a halo around it, which are copied to a temporary file per tile while streaming through
+ * the sites file, so the memory used depends on the size of the tiles rather than on the number of
+ * sites.
+ *
+ * The halo of a tile starts as a rectangle a few average distances between sites wider than the
+ * tile. A border of a site in the tile is final if no site outside of the halo can change it: the
+ * part of the bounding box inside the circle around each of its vertices through its sites is in
+ * one of the rectangles of the halo, and if it is a ray, the half-plane beyond the line through its
+ * sites is empty (which is checked against the convex hull of all sites, found along with the
+ * bounding box). A tile whose borders are not all final (such as next to a large empty area) is
+ * built again in another pass through the sites file, with those circles added to its halo. Since
+ * a border is cut off by the first site that the circles through its sites reach as they move
+ * along it, a missing circle is replaced by the first of those circles that contains a vertex of the
+ * convex hull or a whole non-empty cell of a grid of site counts (counted in the first pass that
+ * copies sites to tiles), if that comes earlier. So the halo grows step by step across an empty
+ * area, instead of reaching all the sites on the far side of it, and a ray into a non-empty
+ * half-plane only adds the half-plane to the halo if that circle does not cut it off (which rounding
+ * errors could cause). Near the edge of the bounding box, vertices can be far away, but their
+ * circles only reach into the bounding box as thin slivers along its edge, so the halo stays small.
+ * Each border is written by the tile of its left site, so every border of the diagram is written
+ * exactly once.
+ *
+ * A builder is not thread-safe; use one builder per thread.
+ */
+public final class TiledVoronoiBuilder {
+
+    /**
+     * The default maximum number of sites in a tile (excluding its halo).
+     */
+    public static final int DEFAULT_MAX_SITES_PER_TILE = 1 << 20;
+
+    // The width of the first halo around each tile, in average distances between adjacent sites.
+    private static final double INITIAL_HALO_SPACINGS = 4;
+    // The circles of vertices are enlarged by this fraction of their radius and of the coordinates,
+    // so that rounding errors never make a border final too early.
+    private static final double TOLERANCE = 1e-9;
+    private static final int SITE_BYTES = 2 * Double.BYTES;
+    // The number of sites to add to the convex hull at once.
+    private static final int HULL_CHUNK_SIZE = 1 << 16;
+    // The number of cells of the grid of site counts along each side of a tile, and at most along
+    // each side of the bounding box.
+    private static final int COUNT_CELLS_PER_TILE = 8;
+    private static final int MAX_COUNT_GRID_SIZE = 1 << 11;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final int maxSitesPerTile;
+    private final boolean parallel;
+    private final ThreadLocal<VoronoiBuilder> voronoiBuilders = ThreadLocal.withInitial(VoronoiBuilder::new);
+
+    private int numPasses;
+    private final AtomicInteger maxTileSites = new AtomicInteger();
+
+    /**
+     * Creates a builder with the default maximum number of sites per tile, which builds tiles in
+     * parallel.
+     */
+    public TiledVoronoiBuilder() {
+        this(DEFAULT_MAX_SITES_PER_TILE, true);
+    }
+
+    /**
+     * Creates a builder.
+     *
+     * @param maxSitesPerTile
+     *            the maximum average number of sites in a tile (excluding its halo)
+     * @param parallel
+     *            whether to build tiles in parallel, which uses memory for as many tiles as there
+     *            are threads in the common fork-join pool
+     * @throws IllegalArgumentException
+     *             if the maximum number of sites per tile is not positive
+     */
+    public TiledVoronoiBuilder(int maxSitesPerTile, boolean parallel) throws IllegalArgumentException {
+        if (maxSitesPerTile <= 0)
+            throw new IllegalArgumentException("Maximum number of sites per tile must be positive.");
+        this.maxSitesPerTile = maxSitesPerTile;
+        this.parallel = parallel;
+    }
+
+    /**
+     * Writes the given sites to a channel in the format read by {@link #build}.
+     *
+     * @param sites
+     *            the sites
+     * @param channel
+     *            the channel to write to; it is not closed
+     * @throws IOException
+     *             if writing to the channel fails
+     */
+    public static void writeSites(Iterable<Point> sites, WritableByteChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        for (Point site : sites) {
+            if (buffer.remaining() < SITE_BYTES)
+                flush(buffer, channel);
+            buffer.putDouble(site.x);
+            buffer.putDouble(site.y);
+        }
+        flush(buffer, channel);
+    }
+
+    /**
+     * Builds the Voronoi diagram of the sites in the given file, and writes its borders to the
+     * given channel, followed by the end marker. The borders are the same as those of
+     * {@link VoronoiBuilder#createVoronoiDiagram}, but in no particular order.
+     *
+     * @param sitesFile
+     *            the file of sites
+     * @param channel
+     *            the channel to write to; it is not closed
+     * @throws IOException
+     *             if reading the sites or writing the borders fails, or the length of the sites file
+     *             is not a multiple of the size of a site
+     */
+    public void build(Path sitesFile, WritableByteChannel channel) throws IOException {
+        numPasses = 0;
+        maxTileSites.set(0);
+        Grid grid = createGrid(sitesFile);
+        VoronoiDiagramWriter writer = new VoronoiDiagramWriter(channel);
+        if (grid == null) {
+            writer.finish();
+            return;
+        }
+        Path tileDirectory = Files.createTempDirectory("voronoi-tiles");
+        try {
+            Tile[] tiles = new Tile[grid.numTiles()];
+            for (int tile = 0; tile < tiles.length; tile++) {
+                tiles[tile] = new Tile();
+                tiles[tile].rectangles.add(grid.getRectangle(tile, grid.initialHalo));
+            }
+            int[] pendingTiles = IntStream.range(0, grid.numTiles()).toArray();
+            while (pendingTiles.length > 0) {
+                Path[] tileFiles = partition(sitesFile, grid, pendingTiles, tiles, tileDirectory);
+                IntStream tileStream = Arrays.stream(pendingTiles);
+                if (parallel)
+                    tileStream = tileStream.parallel();
+                pendingTiles = tileStream
+                    .filter(tile -> {
+                        try {
+                            return !buildTile(grid, tile, tiles[tile], tileFiles[tile], writer);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    })
+                    .toArray();
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            try (Stream<Path> files = Files.list(tileDirectory)) {
+                for (Path file : (Iterable<Path>) files::iterator)
+                    Files.delete(file);
+            }
+            Files.delete(tileDirectory);
+        }
+        writer.finish();
+    }
+
+    /**
+     * Returns the number of passes through the sites file made by the last build, including the
+     * first one that finds the bounding box of the sites.
+     */
+    @VisibleForTesting
+    int getNumPasses() {
+        return numPasses;
+    }
+
+    /**
+     * Returns the largest number of sites in a tile and its halo that the last build loaded into
+     * memory at once.
+     */
+    @VisibleForTesting
+    int getMaxTileSites() {
+        return maxTileSites.get();
+    }
+
+    /**
+     * Finds the bounding box of the sites, and splits it into tiles.
+     *
+     * @return the tiles, or null if there are no sites
+     */
+    @Nullable
+    private Grid createGrid(Path sitesFile) throws IOException {
+        double[] bounds = { Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY };
+        List<Point> hull = new ArrayList<>();
+        long numSites = readSites(sitesFile, (siteIndex, x, y) -> {
+            bounds[0] = Math.min(bounds[0], x);
+            bounds[1] = Math.min(bounds[1], y);
+            bounds[2] = Math.max(bounds[2], x);
+            bounds[3] = Math.max(bounds[3], y);
+            hull.add(new Point(x, y));
+            if (hull.size() >= HULL_CHUNK_SIZE)
+                convexHull(hull);
+        });
+        if (numSites == 0)
+            return null;
+        convexHull(hull);
+
+        int gridSize = (int) Math.ceil(Math.sqrt((double) numSites / maxSitesPerTile));
+        double width = bounds[2] - bounds[0];
+        double height = bounds[3] - bounds[1];
+        // The average distance between adjacent sites, even if they are all on a line.
+        double spacing = Math.max(Math.sqrt(width * height / numSites), Math.max(width, height) / numSites);
+        return new Grid(bounds[0], bounds[1], bounds[2], bounds[3], gridSize, width / gridSize, height / gridSize,
+            INITIAL_HALO_SPACINGS * spacing, hull);
+    }
+
+    /**
+     * Replaces the given points by the vertices of their convex hull, in counterclockwise order
+     * (Andrew's monotone chain algorithm). Points on an edge of the hull are not vertices.
+     */
+    private static void convexHull(List<Point> points) {
+        points.sort(Comparator.comparingDouble((Point p) -> p.x).thenComparingDouble(p -> p.y));
+        Point[] hull = new Point[2 * points.size()];
+        int size = 0;
+        for (int pass = 0; pass < 2; pass++) {
+            // The lower hull from left to right, then the upper hull from right to left.
+            int start = size;
+            for (int i = 0; i < points.size(); i++) {
+                Point p = points.get(pass == 0 ? i : points.size() - 1 - i);
+                while (size >= start + 2 && orientation(hull[size - 2], hull[size - 1], p) <= 0)
+                    size--;
+                hull[size++] = p;
+            }
+            // The last point is the first point of the other half.
+            size--;
+        }
+        points.clear();
+        points.addAll(Arrays.asList(hull).subList(0, Math.max(size, 1)));
+    }
+
+    /**
+     * Copies the sites of each given tile and its halo to a new file. The first time, also counts
+     * the sites in each cell of the grid of site counts.
+     *
+     * @return the file of each tile, indexed by tile
+     */
+    private Path[] partition(Path sitesFile, Grid grid, int[] pendingTiles, Tile[] tiles, Path tileDirectory) throws IOException {
+        // The tiles whose halos reach into each tile.
+        List<List<Integer>> reachingTiles = new ArrayList<>();
+        for (int i = 0; i < grid.numTiles(); i++)
+            reachingTiles.add(new ArrayList<>());
+        for (int tile : pendingTiles) {
+            Rectangle bounds = tiles[tile].getBounds();
+            for (int row = grid.row(bounds.minY); row <= grid.row(bounds.maxY); row++)
+                for (int column = grid.column(bounds.minX); column <= grid.column(bounds.maxX); column++)
+                    reachingTiles.get(row * grid.size + column).add(tile);
+        }
+        int[][] reachingTileArrays = reachingTiles.stream()
+            .map(list -> list.stream().mapToInt(Integer::intValue).toArray())
+            .toArray(int[][]::new);
+
+        Path[] tileFiles = new Path[grid.numTiles()];
+        DataOutputStream[] outputs = new DataOutputStream[grid.numTiles()];
+        try {
+            for (int tile : pendingTiles) {
+                tileFiles[tile] = Files.createTempFile(tileDirectory, "tile", null);
+                outputs[tile] = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tileFiles[tile]), BUFFER_SIZE));
+            }
+            boolean countSites = !grid.hasSiteCounts;
+            readSites(sitesFile, (siteIndex, x, y) -> {
+                if (countSites)
+                    grid.siteCounts[grid.countCell(x, y)]++;
+                for (int tile : reachingTileArrays[grid.tile(x, y)])
+                    if (tiles[tile].contains(x, y)) {
+                        outputs[tile].writeInt(siteIndex);
+                        outputs[tile].writeDouble(x);
+                        outputs[tile].writeDouble(y);
+                    }
+            });
+            grid.hasSiteCounts = true;
+        } finally {
+            for (DataOutputStream output : outputs)
+                if (output != null)
+                    output.close();
+        }
+        return tileFiles;
+    }
+
+    /**
+     * Builds the Voronoi diagram of the sites of the given tile and its halo, and writes the borders
+     * of the sites in the tile if they are all final. Otherwise, adds the regions that the borders
+     * need to be final to the halo.
+     *
+     * @return whether the borders were written
+     */
+    private boolean buildTile(Grid grid, int tileIndex, Tile tile, Path tileFile, VoronoiDiagramWriter writer) throws IOException {
+        int numSites = (int) (Files.size(tileFile) / (Integer.BYTES + SITE_BYTES));
+        maxTileSites.accumulateAndGet(numSites, Math::max);
+        int[] siteIndices = new int[numSites];
+        List<Point> sites = new ArrayList<>(numSites);
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(tileFile), BUFFER_SIZE))) {
+            for (int i = 0; i < numSites; i++) {
+                siteIndices[i] = input.readInt();
+                sites.add(new Point(input.readDouble(), input.readDouble()));
+            }
+        }
+        Files.delete(tileFile);
+
+        // The sites were copied in order of their indices, so each border still has its left site
+        // first.
+        VoronoiDiagram diagram = voronoiBuilders.get().createVoronoiDiagram(sites);
+        boolean coversAllSites = tile.covers(grid.getBounds());
+        List<Rectangle> requiredRectangles = new ArrayList<>();
+        Set<HalfPlane> requiredHalfPlanes = new HashSet<>();
+        List<Border> borders = new ArrayList<>();
+        for (Border border : diagram.getBorders()) {
+            Point leftSite = sites.get(border.getLeftPointIndex());
+            Point rightSite = sites.get(border.getRightPointIndex());
+            boolean leftInTile = grid.tile(leftSite.x, leftSite.y) == tileIndex;
+            if (!leftInTile && grid.tile(rightSite.x, rightSite.y) != tileIndex)
+                continue;
+            if (!coversAllSites) {
+                DirectedEdge edge = border.getEdge();
+                addRequiredRegion(grid, tile, edge.getStartPoint(), leftSite, rightSite, -edge.getDx(), -edge.getDy(),
+                    requiredRectangles, requiredHalfPlanes);
+                addRequiredRegion(grid, tile, edge.getEndPoint(), leftSite, rightSite, edge.getDx(), edge.getDy(),
+                    requiredRectangles, requiredHalfPlanes);
+            }
+            if (leftInTile)
+                borders.add(border);
+        }
+        if (!requiredRectangles.isEmpty() || !requiredHalfPlanes.isEmpty()) {
+            requiredRectangles.forEach(tile::addRectangle);
+            tile.halfPlanes.addAll(requiredHalfPlanes);
+            return false;
+        }
+
+        borders.sort(Comparator.comparingInt(Border::getLeftPointIndex).thenComparingInt(Border::getRightPointIndex));
+        synchronized (writer) {
+            for (Border border : borders) {
+                int left = border.getLeftPointIndex();
+                int right = border.getRightPointIndex();
+                writer.writeBorder(new Border(siteIndices[left], siteIndices[right], border.getEdge()), sites.get(left), sites.get(right));
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds the region that must be in the halo of the given tile for no site outside of it to
+     * change the given end of a border between the given sites, unless it already is. If the end is
+     * a vertex, that is the part of the bounding box inside the circle around it through the sites,
+     * or inside an earlier circle along the border that already contains sites. If it is a ray, and
+     * the half-plane on the side of the line through the sites that (dx, dy) points to contains
+     * sites, it is the part of the bounding box inside the first circle along the ray that contains
+     * sites, or the half-plane if that circle is already in the halo.
+     */
+    private static void addRequiredRegion(Grid grid, Tile tile, @Nullable Point vertex, Point leftSite, Point rightSite, double dx,
+            double dy, List<Rectangle> rectangles, Set<HalfPlane> halfPlanes) {
+        if (vertex == null) {
+            HalfPlane halfPlane = grid.getHalfPlane(leftSite, rightSite, dx, dy);
+            if (tile.halfPlanes.contains(halfPlane) || grid.isEmpty(halfPlane))
+                return;
+            Rectangle cutBounds = grid.getCutCircleBounds(leftSite, rightSite, dx, dy, null);
+            if (cutBounds != null && !tile.covers(cutBounds))
+                rectangles.add(cutBounds);
+            else
+                halfPlanes.add(halfPlane);
+        } else {
+            Rectangle circleBounds = grid.getCircleBounds(vertex, leftSite);
+            if (circleBounds == null || tile.covers(circleBounds))
+                return;
+            // A vertex far from the halo (such as across a large empty area) is usually cut off by
+            // sites that are much closer than the ones its circle reaches.
+            Rectangle cutBounds = grid.getCutCircleBounds(leftSite, rightSite, dx, dy, vertex);
+            rectangles.add(cutBounds == null || tile.covers(cutBounds) ? circleBounds : cutBounds);
+        }
+    }
+
+    private static double orientation(Point a, Point b, Point c) {
+        return Predicates.orientation(a.x, a.y, b.x, b.y, c.x, c.y);
+    }
+
+    /**
+     * Passes the index and coordinates of each site in the given file to the given consumer.
+     *
+     * @return the number of sites
+     */
+    private long readSites(Path sitesFile, SiteConsumer consumer) throws IOException {
+        numPasses++;
+        long size = Files.size(sitesFile);
+        if (size % SITE_BYTES != 0)
+            throw new IOException("Sites file length is not a multiple of " + SITE_BYTES + " bytes.");
+        if (size / SITE_BYTES > Integer.MAX_VALUE)
+            throw new IOException("Sites file contains more than " + Integer.MAX_VALUE + " sites.");
+        int numSites = (int) (size / SITE_BYTES);
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(sitesFile), BUFFER_SIZE))) {
+            for (int siteIndex = 0; siteIndex < numSites; siteIndex++)
+                consumer.accept(siteIndex, input.readDouble(), input.readDouble());
+        }
+        return numSites;
+    }
+
+    private static void flush(ByteBuffer buffer, WritableByteChannel channel) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+        buffer.clear();
+    }
+
+    @FunctionalInterface
+    private interface SiteConsumer {
+
+        void accept(int siteIndex, double x, double y) throws IOException;
+    }
+
+    /**
+     * The halo of a tile that is not built yet, which is made of rectangles (starting with one
+     * around the tile) and of half-planes; the sites of the tile and its halo are those inside any
+     * of them.
+     */
+    private static final class Tile {
+
+        final List<Rectangle> rectangles = new ArrayList<>();
+        final Set<HalfPlane> halfPlanes = new HashSet<>();
+
+        boolean contains(double x, double y) {
+            for (Rectangle rectangle : rectangles)
+                if (rectangle.contains(x, y))
+                    return true;
+            for (HalfPlane halfPlane : halfPlanes)
+                if (halfPlane.contains(x, y))
+                    return true;
+            return false;
+        }
+
+        /**
+         * Returns whether the given rectangle is inside one of the rectangles of the halo.
+         */
+        boolean covers(Rectangle rectangle) {
+            for (Rectangle r : rectangles)
+                if (r.contains(rectangle.minX, rectangle.minY) && r.contains(rectangle.maxX, rectangle.maxY))
+                    return true;
+            return false;
+        }
+
+        /**
+         * Adds a rectangle to the halo, merged with each rectangle that it overlaps if the bounding
+         * box of both is not larger than the area they cover together, such as for the thin
+         * rectangles of adjacent vertices along an edge of the bounding box of the sites. Merging
+         * other rectangles could add sites that neither of them needs.
+         */
+        void addRectangle(Rectangle rectangle) {
+            boolean merged;
+            do {
+                merged = false;
+                for (Iterator<Rectangle> it = rectangles.iterator(); it.hasNext();) {
+                    Rectangle other = it.next();
+                    Rectangle union = union(rectangle, other);
+                    if (area(union) <= (area(rectangle) + area(other) - overlap(rectangle, other)) * (1 + TOLERANCE)) {
+                        it.remove();
+                        rectangle = union;
+                        merged = true;
+                    }
+                }
+            } while (merged);
+            rectangles.add(rectangle);
+        }
+
+        /**
+         * Returns the bounding box of the part of the halo inside the bounding box of the sites.
+         */
+        Rectangle getBounds() {
+            Rectangle bounds = rectangles.get(0);
+            for (Rectangle rectangle : rectangles)
+                bounds = union(bounds, rectangle);
+            for (HalfPlane halfPlane : halfPlanes)
+                bounds = union(bounds, halfPlane.getBounds());
+            return bounds;
+        }
+
+        private static Rectangle union(Rectangle r1, Rectangle r2) {
+            return new Rectangle(Math.min(r1.minX, r2.minX), Math.min(r1.minY, r2.minY), Math.max(r1.maxX, r2.maxX),
+                Math.max(r1.maxY, r2.maxY));
+        }
+
+        private static double area(Rectangle rectangle) {
+            return (rectangle.maxX - rectangle.minX) * (rectangle.maxY - rectangle.minY);
+        }
+
+        private static double overlap(Rectangle r1, Rectangle r2) {
+            double width = Math.min(r1.maxX, r2.maxX) - Math.max(r1.minX, r2.minX);
+            double height = Math.min(r1.maxY, r2.maxY) - Math.max(r1.minY, r2.minY);
+            return width > 0 && height > 0 ? width * height : 0;
+        }
+    }
+
+    /**
+     * The open half-plane on one side of the line through two sites, which contains the circles
+     * along a ray between them. The bounds of its part of the bounding box of the sites are only
+     * used to skip most sites quickly.
+     */
+    @Data
+    private static final class HalfPlane {
+
+        private final Point site1;
+        private final Point site2;
+        // Whether the half-plane is to the left of the line from the first site to the second.
+        private final boolean left;
+        @EqualsAndHashCode.Exclude
+        private final Rectangle bounds;
+
+        boolean contains(double x, double y) {
+            return bounds.contains(x, y) && side(site1, site2, left, x, y) > 0;
+        }
+
+        /**
+         * Returns a number that is positive if the given point is strictly inside the half-plane,
+         * negative if it is strictly outside, and proportional to its distance from the line.
+         */
+        static double side(Point site1, Point site2, boolean left, double x, double y) {
+            double orientation = Predicates.orientation(site1.x, site1.y, site2.x, site2.y, x, y);
+            return left ? orientation : -orientation;
+        }
+    }
+
+    /**
+     * The tiles that the bounding box of the sites is split into, in rows of columns.
+     */
+    private static final class Grid {
+
+        final double minX;
+        final double minY;
+        final double maxX;
+        final double maxY;
+        final int size;
+        final double tileWidth;
+        final double tileHeight;
+        final double initialHalo;
+        // The largest absolute value of a coordinate.
+        final double scale;
+        // The coordinates of the vertices of the convex hull of the sites.
+        final double[] hullXs;
+        final double[] hullYs;
+        // The number of sites in each cell of a finer grid over the bounding box, in rows of
+        // columns, once they have been counted.
+        final int countGridSize;
+        final double cellWidth;
+        final double cellHeight;
+        final int[] siteCounts;
+        boolean hasSiteCounts;
+
+        Grid(double minX, double minY, double maxX, double maxY, int size, double tileWidth, double tileHeight, double initialHalo,
+                List<Point> hull) {
+            this.minX = minX;
+            this.minY = minY;
+            this.maxX = maxX;
+            this.maxY = maxY;
+            this.size = size;
+            this.tileWidth = tileWidth;
+            this.tileHeight = tileHeight;
+            this.initialHalo = initialHalo;
+            this.scale = Math.max(Math.max(Math.abs(minX), Math.abs(maxX)), Math.max(Math.abs(minY), Math.abs(maxY)));
+            this.hullXs = hull.stream().mapToDouble(p -> p.x).toArray();
+            this.hullYs = hull.stream().mapToDouble(p -> p.y).toArray();
+            this.countGridSize = Math.min(COUNT_CELLS_PER_TILE * size, MAX_COUNT_GRID_SIZE);
+            this.cellWidth = (maxX - minX) / countGridSize;
+            this.cellHeight = (maxY - minY) / countGridSize;
+            this.siteCounts = new int[countGridSize * countGridSize];
+        }
+
+        int numTiles() {
+            return size * size;
+        }
+
+        int column(double x) {
+            return tileWidth > 0 ? (int) Math.max(0, Math.min(size - 1, (x - minX) / tileWidth)) : 0;
+        }
+
+        int row(double y) {
+            return tileHeight > 0 ? (int) Math.max(0, Math.min(size - 1, (y - minY) / tileHeight)) : 0;
+        }
+
+        int tile(double x, double y) {
+            return row(y) * size + column(x);
+        }
+
+        int countCell(double x, double y) {
+            return countRow(y) * countGridSize + countColumn(x);
+        }
+
+        private int countColumn(double x) {
+            return cellWidth > 0 ? (int) Math.max(0, Math.min(countGridSize - 1, (x - minX) / cellWidth)) : 0;
+        }
+
+        private int countRow(double y) {
+            return cellHeight > 0 ? (int) Math.max(0, Math.min(countGridSize - 1, (y - minY) / cellHeight)) : 0;
+        }
+
+        Rectangle getBounds() {
+            return new Rectangle(minX, minY, maxX, maxY);
+        }
+
+        /**
+         * Returns the given tile with a halo of the given width around it.
+         */
+        Rectangle getRectangle(int tile, double halo) {
+            return new Rectangle(
+                minX + tile % size * tileWidth - halo,
+                minY + tile / size * tileHeight - halo,
+                minX + (tile % size + 1) * tileWidth + halo,
+                minY + (tile / size + 1) * tileHeight + halo);
+        }
+
+        /**
+         * Returns a bounding box of the part of the bounding box of the sites inside the circle
+         * around the given center through the given point, or null if there is none. The circle
+         * only reaches into the bounding box up to the chords where it crosses the lines along its
+         * sides.
+         */
+        @Nullable
+        Rectangle getCircleBounds(Point center, Point point) {
+            double radius = Math.hypot(point.x - center.x, point.y - center.y);
+            radius += TOLERANCE * (radius + scale);
+            double dx = Math.max(0, Math.max(minX - center.x, center.x - maxX));
+            double dy = Math.max(0, Math.max(minY - center.y, center.y - maxY));
+            if (dx >= radius || dy >= radius)
+                return null;
+            double halfWidth = Math.sqrt(radius * radius - dy * dy);
+            double halfHeight = Math.sqrt(radius * radius - dx * dx);
+            return new Rectangle(
+                Math.max(center.x - halfWidth, minX),
+                Math.max(center.y - halfHeight, minY),
+                Math.min(center.x + halfWidth, maxX),
+                Math.min(center.y + halfHeight, maxY));
+        }
+
+        /**
+         * Returns the half-plane bounded by the line through the two given sites, on the side that
+         * (dx, dy) points to. (dx, dy) is perpendicular to the line, so only its sign matters.
+         */
+        HalfPlane getHalfPlane(Point site1, Point site2, double dx, double dy) {
+            boolean left = dx * (site1.y - site2.y) + dy * (site2.x - site1.x) > 0;
+            // Clip the bounding box to the half-plane, counterclockwise from its bottom left corner.
+            double[] xs = { minX, maxX, maxX, minX };
+            double[] ys = { minY, minY, maxY, maxY };
+            double[] bounds = { Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY };
+            for (int i = 0; i < 4; i++) {
+                int j = (i + 1) % 4;
+                double side1 = HalfPlane.side(site1, site2, left, xs[i], ys[i]);
+                double side2 = HalfPlane.side(site1, site2, left, xs[j], ys[j]);
+                if (side1 >= 0)
+                    addToBounds(bounds, xs[i], ys[i]);
+                if (side1 > 0 && side2 < 0 || side1 < 0 && side2 > 0) {
+                    double t = side1 / (side1 - side2);
+                    addToBounds(bounds, xs[i] + t * (xs[j] - xs[i]), ys[i] + t * (ys[j] - ys[i]));
+                }
+            }
+            double margin = TOLERANCE * scale;
+            return new HalfPlane(site1, site2, left,
+                new Rectangle(bounds[0] - margin, bounds[1] - margin, bounds[2] + margin, bounds[3] + margin));
+        }
+
+        /**
+         * Returns a bounding box of the part of the bounding box of the sites inside the first
+         * circle through the two given sites, moving along the border between them in the
+         * direction of (dx, dy), that contains a vertex of the convex hull or a whole cell with
+         * sites in it, but not past the given vertex at the end of the border (if any). That circle
+         * contains the site that cuts the border off, or one before it. Returns null if there is no
+         * such circle.
+         *
+         * The center of a circle through the sites is m + t * d, with m the midpoint of the sites
+         * and d the unit vector along the border, and it passes through another point p if
+         * t = (|p - m|^2 - |m - site|^2) / (2 d . (p - m)). A cell on that side of the sites is
+         * inside the circle once t is at least that of each of its corners. The cells are searched
+         * in rings around m, until the ring is too far away to contain an earlier cell.
+         */
+        @Nullable
+        Rectangle getCutCircleBounds(Point site1, Point site2, double dx, double dy, @Nullable Point vertex) {
+            double length = Math.hypot(dx, dy);
+            double ux = dx / length;
+            double uy = dy / length;
+            double mx = (site1.x + site2.x) / 2;
+            double my = (site1.y + site2.y) / 2;
+            double halfDistanceSquared = ((site1.x - mx) * (site1.x - mx) + (site1.y - my) * (site1.y - my));
+            double maxT = vertex == null ? Double.POSITIVE_INFINITY : ux * (vertex.x - mx) + uy * (vertex.y - my);
+            if (maxT < 0) {
+                // The vertex is behind m, so the circles grow towards it on the other side of the
+                // sites, and the search goes that way instead.
+                ux = -ux;
+                uy = -uy;
+                maxT = -maxT;
+            }
+            double bestT = maxT;
+            for (int i = 0; i < hullXs.length; i++) {
+                double px = hullXs[i] - mx;
+                double py = hullYs[i] - my;
+                double along = ux * px + uy * py;
+                // Skip the sites themselves, which are on the line through m across the border.
+                if (along > TOLERANCE * scale)
+                    bestT = Math.min(bestT, (px * px + py * py - halfDistanceSquared) / (2 * along));
+            }
+            if (cellWidth > 0 && cellHeight > 0) {
+                int centerColumn = countColumn(mx);
+                int centerRow = countRow(my);
+                double minCellSize = Math.min(cellWidth, cellHeight);
+                for (int ring = 0; ring < countGridSize; ring++) {
+                    double distance = (ring - 1) * minCellSize;
+                    if (distance > 0 && (distance - halfDistanceSquared / distance) / 2 >= bestT)
+                        break;
+                    for (int row = centerRow - ring; row <= centerRow + ring; row++) {
+                        if (row < 0 || row >= countGridSize)
+                            continue;
+                        // Only the first and last rows of the ring have cells other than at its sides.
+                        int step = row == centerRow - ring || row == centerRow + ring ? 1 : Math.max(2 * ring, 1);
+                        for (int column = centerColumn - ring; column <= centerColumn + ring; column += step) {
+                            if (column < 0 || column >= countGridSize || siteCounts[row * countGridSize + column] == 0)
+                                continue;
+                            double cellT = Double.NEGATIVE_INFINITY;
+                            for (int corner = 0; corner < 4; corner++) {
+                                double px = minX + (column + corner % 2) * cellWidth - mx;
+                                double py = minY + (row + corner / 2) * cellHeight - my;
+                                double along = ux * px + uy * py;
+                                if (!(along > 0)) {
+                                    cellT = Double.POSITIVE_INFINITY;
+                                    break;
+                                }
+                                cellT = Math.max(cellT, (px * px + py * py - halfDistanceSquared) / (2 * along));
+                            }
+                            bestT = Math.min(bestT, cellT);
+                        }
+                    }
+                }
+            }
+            if (vertex != null && bestT >= maxT)
+                return getCircleBounds(vertex, site1);
+            if (bestT == Double.POSITIVE_INFINITY)
+                return null;
+            return getCircleBounds(new Point(mx + bestT * ux, my + bestT * uy), site1);
+        }
+
+        /**
+         * Returns whether there are no sites inside the given half-plane. Only the vertices of the
+         * convex hull need to be checked.
+         */
+        boolean isEmpty(HalfPlane halfPlane) {
+            Point site1 = halfPlane.getSite1();
+            Point site2 = halfPlane.getSite2();
+            double[] orientations = new double[hullXs.length];
+            ScanKernels.findOrientations(site1.x, site1.y, site2.x, site2.y, hullXs, hullYs, 0, hullXs.length, orientations);
+            for (double orientation : orientations)
+                if (halfPlane.isLeft() ? orientation > 0 : orientation < 0)
+                    return false;
+            return true;
+        }
+
+        private static void addToBounds(double[] bounds, double x, double y) {
+            bounds[0] = Math.min(bounds[0], x);
+            bounds[1] = Math.min(bounds[1], y);
+            bounds[2] = Math.max(bounds[2], x);
+            bounds[3] = Math.max(bounds[3], y);
+        }
+    }
+}
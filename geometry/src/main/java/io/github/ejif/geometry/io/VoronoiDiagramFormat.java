@@ -0,0 +1,74 @@
+package io.github.ejif.geometry.io;
+
+import io.github.ejif.geometry.DirectedEdge;
+import io.github.ejif.geometry.Point;
+
+/**
+ * Constants and helpers shared by {@link VoronoiDiagramWriter} and {@link VoronoiDiagramReader}.
+ *
+ * The format is a header followed by a stream of border records and an end marker:
+ *
+ * <pre>
+ * header:  int magic, byte version, byte vertexWindowBits
+ * border:  byte flags,
+ *          varint zigzag(leftPointIndex - previous leftPointIndex),
+ *          varint zigzag(rightPointIndex - leftPointIndex),
+ *          [double x, double y]                  if LEFT_SITE (coordinates of the left point)
+ *          [double x, double y]                  if RIGHT_SITE (coordinates of the right point)
+ *          [double x, double y, double dx, double dy] if EXPLICIT_LINE
+ *          [vertex]                              if HAS_START
+ *          [vertex]                              if HAS_END
+ * vertex:  varint r; r == 0 is followed by double x, double y (a new vertex), otherwise the vertex
+ *          is the r-th most recently written vertex
+ * end:     byte END
+ * </pre>
+ *
+ * The line of a border is normally implicit: it is the perpendicular bisector of its left and right
+ * points, exactly as constructed by {@link io.github.ejif.geometry.algorithm.Voronoi}. The
+ * coordinates of each point are written once, the first time the point is referenced.
+ */
+final class VoronoiDiagramFormat {
+
+    static final int MAGIC = 0x564F524E;
+    static final byte VERSION = 1;
+    static final int DEFAULT_VERTEX_WINDOW_BITS = 16;
+    static final int BUFFER_SIZE = 1 << 16;
+
+    static final int HAS_START = 1;
+    static final int HAS_END = 1 << 1;
+    static final int EXPLICIT_LINE = 1 << 2;
+    static final int LEFT_SITE = 1 << 3;
+    static final int RIGHT_SITE = 1 << 4;
+    static final int END = 1 << 7;
+
+    /**
+     * Returns whether the line of the given edge is the perpendicular bisector of the two points,
+     * constructed the same way as {@link #bisector}.
+     */
+    static boolean isBisector(DirectedEdge edge, Point leftPoint, Point rightPoint) {
+        return Double.compare(edge.getDx(), leftPoint.y - rightPoint.y) == 0
+            && Double.compare(edge.getDy(), rightPoint.x - leftPoint.x) == 0
+            && edge.getAnyPoint().equals(new Point((leftPoint.x + rightPoint.x) / 2, (leftPoint.y + rightPoint.y) / 2));
+    }
+
+    static DirectedEdge bisector(Point leftPoint, Point rightPoint, Point startPoint, Point endPoint) {
+        return DirectedEdge.builder()
+            .anyPoint(new Point((leftPoint.x + rightPoint.x) / 2, (leftPoint.y + rightPoint.y) / 2))
+            .dx(leftPoint.y - rightPoint.y)
+            .dy(rightPoint.x - leftPoint.x)
+            .startPoint(startPoint)
+            .endPoint(endPoint)
+            .build();
+    }
+
+    static int zigzag(int n) {
+        return (n << 1) ^ (n >> 31);
+    }
+
+    static int unzigzag(int n) {
+        return (n >>> 1) ^ -(n & 1);
+    }
+
+    private VoronoiDiagramFormat() {
+    }
+}
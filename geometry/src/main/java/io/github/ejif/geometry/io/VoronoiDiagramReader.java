@@ -0,0 +1,189 @@
+package io.github.ejif.geometry.io;
+
+import static io.github.ejif.geometry.io.VoronoiDiagramFormat.BUFFER_SIZE;
+import static io.github.ejif.geometry.io.VoronoiDiagramFormat.END;
+import static io.github.ejif.geometry.io.VoronoiDiagramFormat.EXPLICIT_LINE;
+import static io.github.ejif.geometry.io.VoronoiDiagramFormat.HAS_END;
+import static io.github.ejif.geometry.io.VoronoiDiagramFormat.HAS_START;
+import static io.github.ejif.geometry.io.VoronoiDiagramFormat.LEFT_SITE;
+import static io.github.ejif.geometry.io.VoronoiDiagramFormat.MAGIC;
+import static io.github.ejif.geometry.io.VoronoiDiagramFormat.RIGHT_SITE;
+import static io.github.ejif.geometry.io.VoronoiDiagramFormat.VERSION;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+import io.github.ejif.geometry.DirectedEdge;
+import io.github.ejif.geometry.Point;
+import io.github.ejif.geometry.VoronoiDiagram;
+import io.github.ejif.geometry.VoronoiDiagram.Border;
+
+/**
+ * Reads Voronoi diagram borders written by {@link VoronoiDiagramWriter}. Borders can be read one at
+ * a time with {@link #readBorder}, so that a large diagram can be processed without being held in
+ * memory as a whole.
+ */
+public final class VoronoiDiagramReader {
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private final double[] vertexXs;
+    private final double[] vertexYs;
+    private double[] siteXs = new double[16];
+    private double[] siteYs = new double[16];
+    private int numVertices;
+    private int previousLeftPointIndex;
+    private boolean finished;
+
+    /**
+     * Creates a reader and reads the header of the format from the given channel.
+     *
+     * @param channel
+     *            the channel to read from; it is not closed by this reader
+     * @throws IOException
+     *             if reading from the channel fails, or the channel does not contain a Voronoi
+     *             diagram in the expected format
+     */
+    public VoronoiDiagramReader(ReadableByteChannel channel) throws IOException {
+        this.channel = channel;
+        buffer.flip();
+        require(Integer.BYTES + 2);
+        if (buffer.getInt() != MAGIC)
+            throw new IOException("Channel does not contain an encoded Voronoi diagram.");
+        byte version = buffer.get();
+        if (version != VERSION)
+            throw new IOException("Unsupported Voronoi diagram format version " + version + ".");
+        int vertexWindowSize = 1 << buffer.get();
+        this.vertexXs = new double[vertexWindowSize];
+        this.vertexYs = new double[vertexWindowSize];
+    }
+
+    /**
+     * Reads all remaining borders into a Voronoi diagram.
+     *
+     * @param channel
+     *            the channel to read from; it is not closed
+     * @return the Voronoi diagram
+     * @throws IOException
+     *             if reading from the channel fails, or the channel does not contain a Voronoi
+     *             diagram in the expected format
+     */
+    public static VoronoiDiagram read(ReadableByteChannel channel) throws IOException {
+        VoronoiDiagramReader reader = new VoronoiDiagramReader(channel);
+        Set<Border> borders = new HashSet<>();
+        for (Border border = reader.readBorder(); border != null; border = reader.readBorder())
+            borders.add(border);
+        return new VoronoiDiagram(borders);
+    }
+
+    /**
+     * Reads the next border.
+     *
+     * @return the border, or null if the end marker was reached
+     * @throws IOException
+     *             if reading from the channel fails, or the channel ends before the end marker
+     */
+    @Nullable
+    public Border readBorder() throws IOException {
+        if (finished)
+            return null;
+        require(1);
+        int flags = buffer.get() & 0xFF;
+        if (flags == END) {
+            finished = true;
+            return null;
+        }
+        int leftPointIndex = previousLeftPointIndex + VoronoiDiagramFormat.unzigzag(getVarint());
+        int rightPointIndex = leftPointIndex + VoronoiDiagramFormat.unzigzag(getVarint());
+        previousLeftPointIndex = leftPointIndex;
+
+        if ((flags & LEFT_SITE) != 0)
+            putSite(leftPointIndex, getPoint());
+        if ((flags & RIGHT_SITE) != 0)
+            putSite(rightPointIndex, getPoint());
+        Point anyPoint = null;
+        double dx = 0;
+        double dy = 0;
+        if ((flags & EXPLICIT_LINE) != 0) {
+            anyPoint = getPoint();
+            require(2 * Double.BYTES);
+            dx = buffer.getDouble();
+            dy = buffer.getDouble();
+        }
+        Point startPoint = (flags & HAS_START) != 0 ? getVertex() : null;
+        Point endPoint = (flags & HAS_END) != 0 ? getVertex() : null;
+
+        DirectedEdge edge = anyPoint == null
+                ? VoronoiDiagramFormat.bisector(getSite(leftPointIndex), getSite(rightPointIndex), startPoint, endPoint)
+                : DirectedEdge.builder()
+                    .anyPoint(anyPoint)
+                    .dx(dx)
+                    .dy(dy)
+                    .startPoint(startPoint)
+                    .endPoint(endPoint)
+                    .build();
+        return new Border(leftPointIndex, rightPointIndex, edge);
+    }
+
+    private Point getVertex() throws IOException {
+        int mask = vertexXs.length - 1;
+        int r = getVarint();
+        if (r != 0) {
+            int vertexIndex = numVertices - r;
+            return new Point(vertexXs[vertexIndex & mask], vertexYs[vertexIndex & mask]);
+        }
+        Point vertex = getPoint();
+        vertexXs[numVertices & mask] = vertex.x;
+        vertexYs[numVertices & mask] = vertex.y;
+        numVertices++;
+        return vertex;
+    }
+
+    private void putSite(int pointIndex, Point site) {
+        if (pointIndex >= siteXs.length) {
+            int newLength = Math.max(pointIndex + 1, 2 * siteXs.length);
+            siteXs = Arrays.copyOf(siteXs, newLength);
+            siteYs = Arrays.copyOf(siteYs, newLength);
+        }
+        siteXs[pointIndex] = site.x;
+        siteYs[pointIndex] = site.y;
+    }
+
+    private Point getSite(int pointIndex) {
+        return new Point(siteXs[pointIndex], siteYs[pointIndex]);
+    }
+
+    private Point getPoint() throws IOException {
+        require(2 * Double.BYTES);
+        return new Point(buffer.getDouble(), buffer.getDouble());
+    }
+
+    private int getVarint() throws IOException {
+        int value = 0;
+        for (int shift = 0;; shift += 7) {
+            require(1);
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0)
+                return value;
+        }
+    }
+
+    private void require(int numBytes) throws IOException {
+        if (buffer.remaining() >= numBytes)
+            return;
+        buffer.compact();
+        while (buffer.position() < numBytes) {
+            if (channel.read(buffer) < 0)
+                throw new EOFException("Channel ended before the end of the Voronoi diagram.");
+        }
+        buffer.flip();
+    }
+}
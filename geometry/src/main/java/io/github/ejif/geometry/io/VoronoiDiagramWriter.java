@@ -0,0 +1,213 @@
+package io.github.ejif.geometry.io;
+
+import static io.github.ejif.geometry.io.VoronoiDiagramFormat.BUFFER_SIZE;
+import static io.github.ejif.geometry.io.VoronoiDiagramFormat.DEFAULT_VERTEX_WINDOW_BITS;
+import static io.github.ejif.geometry.io.VoronoiDiagramFormat.END;
+import static io.github.ejif.geometry.io.VoronoiDiagramFormat.EXPLICIT_LINE;
+import static io.github.ejif.geometry.io.VoronoiDiagramFormat.HAS_END;
+import static io.github.ejif.geometry.io.VoronoiDiagramFormat.HAS_START;
+import static io.github.ejif.geometry.io.VoronoiDiagramFormat.LEFT_SITE;
+import static io.github.ejif.geometry.io.VoronoiDiagramFormat.MAGIC;
+import static io.github.ejif.geometry.io.VoronoiDiagramFormat.RIGHT_SITE;
+import static io.github.ejif.geometry.io.VoronoiDiagramFormat.VERSION;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import io.github.ejif.geometry.DirectedEdge;
+import io.github.ejif.geometry.Point;
+import io.github.ejif.geometry.VoronoiDiagram;
+import io.github.ejif.geometry.VoronoiDiagram.Border;
+
+/**
+ * Writes the borders of a Voronoi diagram to a channel in a compact binary format (see
+ * {@link VoronoiDiagramFormat}), which can be read back with {@link VoronoiDiagramReader}.
+ *
+ * Borders are written through a fixed-size buffer, so the encoded diagram is never held in memory
+ * as a whole. Vertices shared between borders are written once and then referenced, as long as they
+ * are referenced again within the most recent 2^16 vertices; sorting the borders by point index
+ * (as {@link #write} does) keeps most references within that window.
+ */
+public final class VoronoiDiagramWriter {
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private final BitSet writtenSites = new BitSet();
+    private final Map<Point, Integer> vertexIndices = new HashMap<>();
+    private final Point[] vertexWindow;
+    private int numVertices;
+    private int previousLeftPointIndex;
+
+    /**
+     * Creates a writer and writes the header of the format to the given channel.
+     *
+     * @param channel
+     *            the channel to write to; it is not closed by this writer
+     * @throws IOException
+     *             if writing to the channel fails
+     */
+    public VoronoiDiagramWriter(WritableByteChannel channel) throws IOException {
+        this(channel, DEFAULT_VERTEX_WINDOW_BITS);
+    }
+
+    @VisibleForTesting
+    VoronoiDiagramWriter(WritableByteChannel channel, int vertexWindowBits) throws IOException {
+        this.channel = channel;
+        this.vertexWindow = new Point[1 << vertexWindowBits];
+        buffer.putInt(MAGIC);
+        buffer.put(VERSION);
+        buffer.put((byte) vertexWindowBits);
+    }
+
+    /**
+     * Writes all borders of the given Voronoi diagram, sorted by point index, followed by the end
+     * marker.
+     *
+     * @param points
+     *            the points that the Voronoi diagram was created from
+     * @param diagram
+     *            the Voronoi diagram
+     * @param channel
+     *            the channel to write to; it is not closed
+     * @throws IOException
+     *             if writing to the channel fails
+     */
+    public static void write(List<Point> points, VoronoiDiagram diagram, WritableByteChannel channel) throws IOException {
+        List<Border> borders = new ArrayList<>(diagram.getBorders());
+        borders.sort(Comparator.comparingInt(Border::getLeftPointIndex).thenComparingInt(Border::getRightPointIndex));
+        VoronoiDiagramWriter writer = new VoronoiDiagramWriter(channel);
+        for (Border border : borders)
+            writer.writeBorder(border, points.get(border.getLeftPointIndex()), points.get(border.getRightPointIndex()));
+        writer.finish();
+    }
+
+    /**
+     * Writes a single border. If the left and right points are given and the border's line is their
+     * perpendicular bisector (as for every border created by
+     * {@link io.github.ejif.geometry.algorithm.Voronoi}), the line is encoded implicitly by the two
+     * point indices; otherwise the line is written explicitly.
+     *
+     * @param border
+     *            the border to write
+     * @param leftPoint
+     *            the point with index border.leftPointIndex, or null if unknown
+     * @param rightPoint
+     *            the point with index border.rightPointIndex, or null if unknown
+     * @throws IOException
+     *             if writing to the channel fails
+     */
+    public void writeBorder(Border border, @Nullable Point leftPoint, @Nullable Point rightPoint) throws IOException {
+        DirectedEdge edge = border.getEdge();
+        int leftPointIndex = border.getLeftPointIndex();
+        int rightPointIndex = border.getRightPointIndex();
+        boolean explicit = leftPoint == null || rightPoint == null || !VoronoiDiagramFormat.isBisector(edge, leftPoint, rightPoint);
+        boolean writeLeftSite = !explicit && !writtenSites.get(leftPointIndex);
+        boolean writeRightSite = !explicit && !writtenSites.get(rightPointIndex);
+
+        int flags = 0;
+        if (edge.getStartPoint() != null)
+            flags |= HAS_START;
+        if (edge.getEndPoint() != null)
+            flags |= HAS_END;
+        if (explicit)
+            flags |= EXPLICIT_LINE;
+        if (writeLeftSite)
+            flags |= LEFT_SITE;
+        if (writeRightSite)
+            flags |= RIGHT_SITE;
+
+        ensureRemaining(1 + 2 * 5);
+        buffer.put((byte) flags);
+        putVarint(VoronoiDiagramFormat.zigzag(leftPointIndex - previousLeftPointIndex));
+        putVarint(VoronoiDiagramFormat.zigzag(rightPointIndex - leftPointIndex));
+        previousLeftPointIndex = leftPointIndex;
+
+        if (writeLeftSite) {
+            putPoint(leftPoint);
+            writtenSites.set(leftPointIndex);
+        }
+        if (writeRightSite) {
+            putPoint(rightPoint);
+            writtenSites.set(rightPointIndex);
+        }
+        if (explicit) {
+            putPoint(edge.getAnyPoint());
+            ensureRemaining(2 * Double.BYTES);
+            buffer.putDouble(edge.getDx());
+            buffer.putDouble(edge.getDy());
+        }
+        if (edge.getStartPoint() != null)
+            putVertex(edge.getStartPoint());
+        if (edge.getEndPoint() != null)
+            putVertex(edge.getEndPoint());
+    }
+
+    /**
+     * Writes the end marker and flushes all buffered bytes to the channel. No more borders can be
+     * written afterwards.
+     *
+     * @throws IOException
+     *             if writing to the channel fails
+     */
+    public void finish() throws IOException {
+        ensureRemaining(1);
+        buffer.put((byte) END);
+        flush();
+    }
+
+    private void putVertex(Point vertex) throws IOException {
+        Integer vertexIndex = vertexIndices.get(vertex);
+        if (vertexIndex != null) {
+            putVarint(numVertices - vertexIndex);
+            return;
+        }
+        putVarint(0);
+        putPoint(vertex);
+
+        int mask = vertexWindow.length - 1;
+        Point evicted = vertexWindow[numVertices & mask];
+        if (evicted != null)
+            vertexIndices.remove(evicted);
+        vertexWindow[numVertices & mask] = vertex;
+        vertexIndices.put(vertex, numVertices);
+        numVertices++;
+    }
+
+    private void putPoint(Point point) throws IOException {
+        ensureRemaining(2 * Double.BYTES);
+        buffer.putDouble(point.x);
+        buffer.putDouble(point.y);
+    }
+
+    private void putVarint(int value) throws IOException {
+        ensureRemaining(5);
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private void ensureRemaining(int numBytes) throws IOException {
+        if (buffer.remaining() < numBytes)
+            flush();
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+        buffer.clear();
+    }
+}
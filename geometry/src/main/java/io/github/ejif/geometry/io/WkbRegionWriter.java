@@ -0,0 +1,62 @@
+package io.github.ejif.geometry.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Writes Voronoi regions as a sequence of records, each consisting of the point index as a
+ * little-endian int, followed by the region as a little-endian (NDR) WKB Polygon with a single
+ * closed ring. Records are streamed to the output through a fixed-size buffer.
+ */
+public final class WkbRegionWriter implements RegionWriter {
+
+    private static final byte WKB_NDR = 1;
+    private static final int WKB_POLYGON = 3;
+
+    private final OutputStream out;
+    private final ByteBuffer buffer = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+
+    /**
+     * Creates a writer to the given output stream.
+     *
+     * @param out
+     *            the output stream to write to; it is not closed by this writer
+     */
+    public WkbRegionWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void writeRegion(int pointIndex, double[] xs, double[] ys, int numVertices) throws IOException {
+        ensureRemaining(Integer.BYTES + 1 + 3 * Integer.BYTES);
+        buffer.putInt(pointIndex);
+        buffer.put(WKB_NDR);
+        buffer.putInt(WKB_POLYGON);
+        buffer.putInt(1);
+        buffer.putInt(numVertices + 1);
+        // WKB rings are closed, so the first vertex is repeated at the end.
+        for (int i = 0; i <= numVertices; i++) {
+            ensureRemaining(2 * Double.BYTES);
+            buffer.putDouble(xs[i % numVertices]);
+            buffer.putDouble(ys[i % numVertices]);
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        flush();
+        out.flush();
+    }
+
+    private void ensureRemaining(int numBytes) throws IOException {
+        if (buffer.remaining() < numBytes)
+            flush();
+    }
+
+    private void flush() throws IOException {
+        out.write(buffer.array(), 0, buffer.position());
+        buffer.clear();
+    }
+}
@@ -0,0 +1,95 @@
+package io.github.ejif.geometry.algorithm;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The kernels of {@link ScanKernels} with the Vector API, which evaluate a vector of points at a
+ * time (as many as fit in the widest vector register of the CPU). The remaining points are
+ * evaluated one at a time.
+ *
+ * This class is only in the versioned part of the multi-release jar for Java 16 or later, and is
+ * loaded by reflection.
+ */
+final class VectorScanKernel implements ScanKernels.Kernel {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    /**
+     * Keeps the closest point in each lane (the first one, if there are several), and then the
+     * closest of those. The index of each point is kept as a double, which is exact for any array
+     * index.
+     */
+    @Override
+    public int findClosestIndex(double[] xs, double[] ys, int start, int end, double x, double y) {
+        DoubleVector closestDistances = DoubleVector.broadcast(SPECIES, Double.POSITIVE_INFINITY);
+        DoubleVector closestIndices = DoubleVector.broadcast(SPECIES, -1);
+        DoubleVector indices = DoubleVector.zero(SPECIES).addIndex(1).add(start);
+        DoubleVector step = DoubleVector.broadcast(SPECIES, SPECIES.length());
+        int vectorEnd = start + SPECIES.loopBound(end - start);
+        for (int i = start; i < vectorEnd; i += SPECIES.length()) {
+            DoubleVector dx = DoubleVector.fromArray(SPECIES, xs, i).sub(x);
+            DoubleVector dy = DoubleVector.fromArray(SPECIES, ys, i).sub(y);
+            DoubleVector distances = dx.mul(dx).add(dy.mul(dy));
+            VectorMask<Double> closer = distances.lt(closestDistances);
+            closestDistances = closestDistances.blend(distances, closer);
+            closestIndices = closestIndices.blend(indices, closer);
+            indices = indices.add(step);
+        }
+
+        int closest = -1;
+        double closestDistance = Double.POSITIVE_INFINITY;
+        for (int lane = 0; lane < SPECIES.length(); lane++) {
+            double distance = closestDistances.lane(lane);
+            int index = (int) closestIndices.lane(lane);
+            if (distance < closestDistance || distance == closestDistance && index != -1 && index < closest) {
+                closest = index;
+                closestDistance = distance;
+            }
+        }
+        for (int i = vectorEnd; i < end; i++) {
+            double dx = xs[i] - x;
+            double dy = ys[i] - y;
+            double distance = dx * dx + dy * dy;
+            if (distance < closestDistance) {
+                closest = i;
+                closestDistance = distance;
+            }
+        }
+        // If no squared distance is finite, they may only have overflowed.
+        return closest == -1 ? ScanKernels.findClosestIndexScaledDown(xs, ys, start, end, x, y) : closest;
+    }
+
+    /**
+     * Evaluates the determinants and their error bounds as in {@link Predicates#crossProduct},
+     * with the same rounding, and then evaluates the few points whose sign is not proven by the
+     * bound with the exact predicate.
+     */
+    @Override
+    public void findOrientations(double ax, double ay, double bx, double by, double[] xs, double[] ys, int start, int end,
+            double[] orientations) {
+        double dx1 = bx - ax;
+        double dy1 = by - ay;
+        boolean uncertain = false;
+        int vectorEnd = start + SPECIES.loopBound(end - start);
+        for (int i = start; i < vectorEnd; i += SPECIES.length()) {
+            DoubleVector left = DoubleVector.fromArray(SPECIES, ys, i).sub(ay).mul(dx1);
+            DoubleVector right = DoubleVector.fromArray(SPECIES, xs, i).sub(ax).mul(dy1);
+            DoubleVector det = left.sub(right);
+            det.intoArray(orientations, i - start);
+            DoubleVector errorBound = left.abs().add(right.abs()).mul(Predicates.CROSS_PRODUCT_ERROR_BOUND);
+            uncertain |= !det.abs().compare(VectorOperators.GT, errorBound).allTrue();
+        }
+        if (uncertain)
+            for (int i = start; i < vectorEnd; i++) {
+                double left = dx1 * (ys[i] - ay);
+                double right = dy1 * (xs[i] - ax);
+                if (!(Math.abs(orientations[i - start]) > Predicates.CROSS_PRODUCT_ERROR_BOUND * (Math.abs(left) + Math.abs(right))))
+                    orientations[i - start] = Predicates.orientation(ax, ay, bx, by, xs[i], ys[i]);
+            }
+        for (int i = vectorEnd; i < end; i++)
+            orientations[i - start] = Predicates.orientation(ax, ay, bx, by, xs[i], ys[i]);
+    }
+}
@@ -0,0 +1,140 @@
+package io.github.ejif.geometry.algorithm;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import com.google.common.collect.ImmutableList;
+
+import io.github.ejif.geometry.DelaunayTriangulation;
+import io.github.ejif.geometry.Point;
+import io.github.ejif.geometry.TestUtils;
+import io.github.ejif.geometry.VoronoiDiagram.Border;
+import lombok.Data;
+
+@Data
+@RunWith(Parameterized.class)
+public final class DelaunayTriangulationTest {
+
+    private final List<Point> points;
+
+    @Parameterized.Parameters
+    public static List<?> parameters() {
+        Random random = TestUtils.rng();
+        List<List<Point>> parameters = new ArrayList<>();
+        parameters.add(ImmutableList.of());
+        parameters.add(ImmutableList.of(new Point(0, 0)));
+        parameters.add(ImmutableList.of(new Point(0, 0), new Point(100, 0), new Point(300, 0)));
+        parameters.add(ImmutableList.of(new Point(0, 0), new Point(100, 0), new Point(100, 100), new Point(0, 100)));
+        for (int i = 0; i < 5; i++)
+            parameters.add(TestUtils.randomPoints(3 + 50 * i, random));
+        for (int i = 0; i < 5; i++)
+            parameters.add(TestUtils.randomLatticePoints(4 + 20 * i, random));
+        return parameters;
+    }
+
+    @Test
+    public void testCreateDelaunayTriangulation_containsVoronoiBorders() {
+        DelaunayTriangulation triangulation = Voronoi.createDelaunayTriangulation(points);
+        Set<List<Integer>> edges = new HashSet<>();
+        for (int i = 0; i < triangulation.getNumEdges(); i++) {
+            int[] edge = triangulation.getEdges();
+            assertThat(edge[2 * i]).isLessThan(edge[2 * i + 1]);
+            edges.add(ImmutableList.of(edge[2 * i], edge[2 * i + 1]));
+        }
+        assertThat(edges).hasSize(triangulation.getNumEdges());
+        for (Border border : Voronoi.createVoronoiDiagram(points).getBorders())
+            assertThat(edges).contains(ImmutableList.of(border.getLeftPointIndex(), border.getRightPointIndex()));
+    }
+
+    @Test
+    public void testCreateDelaunayTriangulation_trianglesCoverConvexHull() {
+        DelaunayTriangulation triangulation = Voronoi.createDelaunayTriangulation(points);
+        int[] triangles = triangulation.getTriangles();
+        double area = 0;
+        for (int i = 0; i < triangulation.getNumTriangles(); i++) {
+            Point p1 = points.get(triangles[3 * i]);
+            Point p2 = points.get(triangles[3 * i + 1]);
+            Point p3 = points.get(triangles[3 * i + 2]);
+            double doubleArea = Points.crossProduct(p1, p2, p1, p3);
+            assertThat(doubleArea).isPositive();
+            area += doubleArea / 2;
+
+            // No point is strictly inside the circumcircle of a triangle.
+            Point circumcenter = Points.circumcenter(p1, p2, p3);
+            double radius = Points.distance(circumcenter, p1);
+            for (Point p : points)
+                assertThat(Points.distance(circumcenter, p)).isGreaterThan(radius - 1e-6 * radius);
+        }
+        assertThat(area).isCloseTo(convexHullArea(), within(1e-6));
+    }
+
+    @Test
+    public void testCreateEuclideanMinimumSpanningTree_isMinimal() {
+        int[] tree = MinimumSpanningTree.createEuclidean(points);
+        assertThat(tree).hasSize(2 * Math.max(points.size() - 1, 0));
+        UnionFind components = new UnionFind(points.size());
+        double length = 0;
+        for (int i = 0; i < tree.length; i += 2) {
+            assertThat(components.union(tree[i], tree[i + 1])).isTrue();
+            length += Points.distance(points.get(tree[i]), points.get(tree[i + 1]));
+        }
+        assertThat(length).isCloseTo(primLength(), within(1e-6));
+    }
+
+    private double convexHullArea() {
+        if (points.isEmpty())
+            return 0;
+        List<Point> sorted = new ArrayList<>(points);
+        sorted.sort((p1, p2) -> p1.x != p2.x ? Double.compare(p1.x, p2.x) : Double.compare(p1.y, p2.y));
+        List<Point> hull = new ArrayList<>();
+        for (int pass = 0; pass < 2; pass++) {
+            int start = hull.size();
+            for (Point p : sorted) {
+                while (hull.size() >= start + 2
+                        && Points.crossProduct(hull.get(hull.size() - 2), hull.get(hull.size() - 1), hull.get(hull.size() - 2), p) <= 0)
+                    hull.remove(hull.size() - 1);
+                hull.add(p);
+            }
+            hull.remove(hull.size() - 1);
+            sorted = ImmutableList.copyOf(sorted).reverse();
+        }
+        double area = 0;
+        for (int i = 0; i < hull.size(); i++) {
+            Point p1 = hull.get(i);
+            Point p2 = hull.get((i + 1) % hull.size());
+            area += (p1.x * p2.y - p2.x * p1.y) / 2;
+        }
+        return area;
+    }
+
+    private double primLength() {
+        int n = points.size();
+        double[] distances = new double[n];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        boolean[] inTree = new boolean[n];
+        double length = 0;
+        for (int step = 0; step < n; step++) {
+            int next = -1;
+            for (int i = 0; i < n; i++)
+                if (!inTree[i] && (next == -1 || distances[i] < distances[next]))
+                    next = i;
+            inTree[next] = true;
+            if (step > 0)
+                length += distances[next];
+            for (int i = 0; i < n; i++)
+                distances[i] = Math.min(distances[i], Points.distance(points.get(next), points.get(i)));
+        }
+        return length;
+    }
+}
@@ -0,0 +1,127 @@
+package io.github.ejif.geometry.algorithm;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import io.github.ejif.geometry.DelaunayTriangulation;
+import io.github.ejif.geometry.Point;
+import io.github.ejif.geometry.TestUtils;
+
+public final class FlipTriangulationTest {
+
+    @Test
+    public void testCreate_returnsNullForCollinearPoints() {
+        List<Point> points = ImmutableList.of(new Point(0, 0), new Point(100, 0), new Point(300, 0));
+        assertThat(FlipTriangulation.create(xs(points), ys(points), Voronoi.createDelaunayTriangulation(points))).isNull();
+    }
+
+    @Test
+    public void testMove_matchesRebuiltTriangulation() {
+        Random random = TestUtils.rng();
+        for (int i = 0; i < 20; i++) {
+            List<Point> points = TestUtils.randomPoints(3 + random.nextInt(500), random);
+            FlipTriangulation triangulation = FlipTriangulation.create(xs(points), ys(points), Voronoi.createDelaunayTriangulation(points));
+            assertThat(edges(triangulation.toDelaunayTriangulation())).isEqualTo(edges(Voronoi.createDelaunayTriangulation(points)));
+
+            // Move every point by a small amount, which changes some edges, including on the hull.
+            List<Point> movedPoints = new ArrayList<>();
+            for (Point p : points)
+                movedPoints.add(new Point(p.x + (random.nextDouble() - 0.5) * 10, p.y + (random.nextDouble() - 0.5) * 10));
+            int[] pointIndices = IntStream.range(0, points.size()).toArray();
+            int numReverted = triangulation.move(pointIndices, points.size(), xs(movedPoints), ys(movedPoints), Integer.MAX_VALUE, i % 2 == 0);
+            assertThat(numReverted).isBetween(0, points.size());
+            for (int j = 0; j < points.size(); j++) {
+                // The points that were not moved come first.
+                Point expected = j < numReverted ? points.get(pointIndices[j]) : movedPoints.get(pointIndices[j]);
+                assertThat(triangulation.getX(pointIndices[j])).isEqualTo(expected.x);
+                assertThat(triangulation.getY(pointIndices[j])).isEqualTo(expected.y);
+            }
+            assertThat(edges(triangulation.toDelaunayTriangulation())).isEqualTo(edges(Voronoi.createDelaunayTriangulation(points(triangulation))));
+        }
+    }
+
+    @Test
+    public void testMove_repairsAroundFewMovedPoints() {
+        Random random = TestUtils.rng();
+        List<Point> points = TestUtils.randomPoints(2000, random);
+        FlipTriangulation triangulation = FlipTriangulation.create(xs(points), ys(points), Voronoi.createDelaunayTriangulation(points));
+        double[] newXs = xs(points);
+        double[] newYs = ys(points);
+        for (int tick = 0; tick < 20; tick++) {
+            int[] movedPoints = random.ints(20, 0, points.size()).distinct().toArray();
+            for (int i : movedPoints) {
+                newXs[i] = triangulation.getX(i) + (random.nextDouble() - 0.5) * 50;
+                newYs[i] = triangulation.getY(i) + (random.nextDouble() - 0.5) * 50;
+            }
+            assertThat(triangulation.move(movedPoints, movedPoints.length, newXs, newYs, Integer.MAX_VALUE, false)).isNotNegative();
+            assertThat(edges(triangulation.toDelaunayTriangulation())).isEqualTo(edges(Voronoi.createDelaunayTriangulation(points(triangulation))));
+        }
+    }
+
+    @Test
+    public void testMove_doesNotInvertTriangles() {
+        // A square with a point in the middle, which cannot move past two sides of the square at once.
+        List<Point> points = ImmutableList.of(new Point(0, 0), new Point(10, 0), new Point(10, 10), new Point(0, 10), new Point(5, 4));
+        FlipTriangulation triangulation = FlipTriangulation.create(xs(points), ys(points), Voronoi.createDelaunayTriangulation(points));
+        List<Point> movedPoints = ImmutableList.of(new Point(0, 0), new Point(10, 0), new Point(10, 10), new Point(0, 10), new Point(20, -10));
+        assertThat(triangulation.move(new int[] { 4 }, 1, xs(movedPoints), ys(movedPoints), 100, false)).isEqualTo(1);
+        assertThat(triangulation.getY(4)).isEqualTo(4);
+        assertThat(edges(triangulation.toDelaunayTriangulation())).isEqualTo(edges(Voronoi.createDelaunayTriangulation(points)));
+
+        // It can move past one side, and becomes part of the hull.
+        movedPoints = ImmutableList.of(new Point(0, 0), new Point(10, 0), new Point(10, 10), new Point(0, 10), new Point(5, -1));
+        assertThat(triangulation.move(new int[] { 4 }, 1, xs(movedPoints), ys(movedPoints), 100, false)).isEqualTo(0);
+        assertThat(edges(triangulation.toDelaunayTriangulation())).isEqualTo(edges(Voronoi.createDelaunayTriangulation(movedPoints)));
+
+        // A hull point that moves inwards is no longer on the hull.
+        movedPoints = ImmutableList.of(new Point(0, 0), new Point(10, 0), new Point(4, 4), new Point(0, 10), new Point(5, -1));
+        assertThat(triangulation.move(new int[] { 2 }, 1, xs(movedPoints), ys(movedPoints), 100, false)).isEqualTo(0);
+        assertThat(triangulation.getNumFlips()).isGreaterThan(0);
+        assertThat(edges(triangulation.toDelaunayTriangulation())).isEqualTo(edges(Voronoi.createDelaunayTriangulation(movedPoints)));
+    }
+
+    @Test
+    public void testMove_failsAfterTooManyFlips() {
+        Random random = TestUtils.rng();
+        List<Point> points = TestUtils.randomPoints(1000, random);
+        List<Point> movedPoints = new ArrayList<>();
+        for (Point p : points)
+            movedPoints.add(new Point(p.x + (random.nextDouble() - 0.5) * 10, p.y + (random.nextDouble() - 0.5) * 10));
+        FlipTriangulation triangulation = FlipTriangulation.create(xs(points), ys(points), Voronoi.createDelaunayTriangulation(points));
+        int[] pointIndices = IntStream.range(0, points.size()).toArray();
+        assertThat(triangulation.move(pointIndices, points.size(), xs(movedPoints), ys(movedPoints), 0, false)).isEqualTo(-1);
+    }
+
+    private static List<Point> points(FlipTriangulation triangulation) {
+        List<Point> points = new ArrayList<>();
+        for (int i = 0; i < triangulation.getNumPoints(); i++)
+            points.add(new Point(triangulation.getX(i), triangulation.getY(i)));
+        return points;
+    }
+
+    private static Set<List<Integer>> edges(DelaunayTriangulation triangulation) {
+        Set<List<Integer>> edges = new HashSet<>();
+        int[] edgeArray = triangulation.getEdges();
+        for (int i = 0; i < triangulation.getNumEdges(); i++)
+            edges.add(ImmutableList.of(edgeArray[2 * i], edgeArray[2 * i + 1]));
+        return edges;
+    }
+
+    private static double[] xs(List<Point> points) {
+        return points.stream().mapToDouble(p -> p.x).toArray();
+    }
+
+    private static double[] ys(List<Point> points) {
+        return points.stream().mapToDouble(p -> p.y).toArray();
+    }
+}
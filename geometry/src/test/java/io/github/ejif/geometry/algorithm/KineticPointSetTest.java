@@ -0,0 +1,138 @@
+package io.github.ejif.geometry.algorithm;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import io.github.ejif.geometry.Point;
+import io.github.ejif.geometry.TestUtils;
+
+public final class KineticPointSetTest {
+
+    @Test
+    public void testUpdate_movesAllPoints() {
+        Random random = TestUtils.rng();
+        List<Point> points = TestUtils.randomPoints(2000, random);
+        KineticPointSet pointSet = new KineticPointSet(points, KineticPointSet.DEFAULT_MAX_CHANGE_RATE, true);
+        double[] xs = new double[points.size()];
+        double[] ys = new double[points.size()];
+        for (int tick = 0; tick < 20; tick++) {
+            for (int i = 0; i < points.size(); i++) {
+                xs[i] = points.get(i).x + (random.nextDouble() - 0.5) * 5;
+                ys[i] = points.get(i).y + (random.nextDouble() - 0.5) * 5;
+            }
+            pointSet.update(xs, ys);
+            points = toPoints(xs, ys);
+            assertThat(pointSet.getNumTopologyChanges()).isPositive();
+            assertFindsClosestPoints(pointSet, points, random);
+        }
+        assertThat(pointSet.getNumRebuilds()).isEqualTo(1);
+    }
+
+    @Test
+    public void testUpdate_movesSomePoints() {
+        Random random = TestUtils.rng();
+        List<Point> points = new ArrayList<>(TestUtils.randomPoints(2000, random));
+        KineticPointSet pointSet = new KineticPointSet(points);
+        for (int tick = 0; tick < 20; tick++) {
+            int[] pointIndices = random.ints(50, 0, points.size()).distinct().toArray();
+            double[] xs = new double[pointIndices.length];
+            double[] ys = new double[pointIndices.length];
+            for (int i = 0; i < pointIndices.length; i++) {
+                Point p = points.get(pointIndices[i]);
+                xs[i] = p.x + (random.nextDouble() - 0.5) * 50;
+                ys[i] = p.y + (random.nextDouble() - 0.5) * 50;
+                points.set(pointIndices[i], new Point(xs[i], ys[i]));
+            }
+            pointSet.update(pointIndices, xs, ys);
+            assertFindsClosestPoints(pointSet, points, random);
+        }
+        assertThat(pointSet.getNumRebuilds()).isEqualTo(1);
+
+        // The neighbors are those of the Voronoi diagram of the current points.
+        VoronoiAdjacency adjacency = VoronoiAdjacency.create(points, Voronoi.createVoronoiDiagram(points));
+        for (int i = 0; i < points.size(); i++) {
+            Set<Integer> neighbors = new HashSet<>();
+            pointSet.forEachNeighbor(i, neighbors::add);
+            Set<Integer> expectedNeighbors = new HashSet<>();
+            for (int j = adjacency.getNeighborStart(i); j < adjacency.getNeighborEnd(i); j++)
+                expectedNeighbors.add(adjacency.getNeighbor(j));
+            assertThat(neighbors).isEqualTo(expectedNeighbors);
+        }
+    }
+
+    @Test
+    public void testUpdate_rebuildsAfterTooManyChanges() {
+        Random random = TestUtils.rng();
+        List<Point> points = TestUtils.randomPoints(1000, random);
+        KineticPointSet pointSet = new KineticPointSet(points, 0, false);
+        List<Point> movedPoints = TestUtils.randomPoints(1000, random);
+        pointSet.update(xs(movedPoints), ys(movedPoints));
+        assertThat(pointSet.getNumTopologyChanges()).isEqualTo(-1);
+        assertThat(pointSet.getNumRebuilds()).isEqualTo(2);
+        assertFindsClosestPoints(pointSet, movedPoints, random);
+    }
+
+    @Test
+    public void testUpdate_scansCollinearPoints() {
+        List<Point> points = ImmutableList.of(new Point(0, 0), new Point(1, 0), new Point(2, 0));
+        KineticPointSet pointSet = new KineticPointSet(points);
+        assertThat(pointSet.findClosestIndex(0.9, 5)).isEqualTo(1);
+
+        // Once the points are no longer collinear, they are triangulated.
+        pointSet.update(new int[] { 2 }, new double[] { 2 }, new double[] { 1 });
+        assertThat(pointSet.findClosestPoint(new Point(3, 3))).isEqualTo(new Point(2, 1));
+        Set<Integer> neighbors = new HashSet<>();
+        pointSet.forEachNeighbor(0, neighbors::add);
+        assertThat(neighbors).containsExactlyInAnyOrder(1, 2);
+    }
+
+    @Test
+    public void testUpdate_failsForInvalidIndices() {
+        KineticPointSet pointSet = new KineticPointSet(TestUtils.randomPoints(10, TestUtils.rng()));
+        assertThatThrownBy(() -> pointSet.update(new int[] { 1, 1 }, new double[2], new double[2]))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> pointSet.update(new int[] { 10 }, new double[1], new double[1]))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> pointSet.update(new double[9], new double[9]))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testFindClosestPoint_failsForEmptyPointSet() {
+        KineticPointSet pointSet = new KineticPointSet(ImmutableList.of());
+        assertThat(pointSet.findClosestIndex(0, 0)).isEqualTo(-1);
+        assertThatThrownBy(() -> pointSet.findClosestPoint(new Point(0, 0))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static void assertFindsClosestPoints(KineticPointSet pointSet, List<Point> points, Random random) {
+        for (Point query : TestUtils.randomPoints(100, random)) {
+            double expectedDistance = points.stream().mapToDouble(p -> Points.distance(p, query)).min().getAsDouble();
+            assertThat(Points.distance(pointSet.findClosestPoint(query), query)).isEqualTo(expectedDistance);
+        }
+    }
+
+    private static List<Point> toPoints(double[] xs, double[] ys) {
+        List<Point> points = new ArrayList<>();
+        for (int i = 0; i < xs.length; i++)
+            points.add(new Point(xs[i], ys[i]));
+        return points;
+    }
+
+    private static double[] xs(List<Point> points) {
+        return points.stream().mapToDouble(p -> p.x).toArray();
+    }
+
+    private static double[] ys(List<Point> points) {
+        return points.stream().mapToDouble(p -> p.y).toArray();
+    }
+}
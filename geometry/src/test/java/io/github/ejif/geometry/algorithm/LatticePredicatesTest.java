@@ -0,0 +1,104 @@
+package io.github.ejif.geometry.algorithm;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import io.github.ejif.geometry.Point;
+import io.github.ejif.geometry.RationalPoint;
+import io.github.ejif.geometry.TestUtils;
+import io.github.ejif.geometry.VoronoiDiagram.Border;
+
+public final class LatticePredicatesTest {
+
+    private static final long MAX = LatticePredicates.MAX_COORDINATE;
+
+    @Test
+    public void testIncircle_matchesBigIntegerDeterminant() {
+        Random random = TestUtils.rng();
+        for (int i = 0; i < 10000; i++) {
+            long[] c = new long[8];
+            for (int j = 0; j < 8; j++)
+                c[j] = i % 2 == 0
+                        ? random.nextInt(21) - 10
+                        : random.nextBoolean() ? MAX - random.nextInt(3) : random.nextInt(3) - MAX;
+            assertThat(LatticePredicates.incircle(c[0], c[1], c[2], c[3], c[4], c[5], c[6], c[7]))
+                .isEqualTo(bigIncircle(c));
+            assertThat(LatticePredicates.orientation(c[0], c[1], c[2], c[3], c[4], c[5]))
+                .isEqualTo((c[2] - c[0]) * (c[5] - c[1]) - (c[3] - c[1]) * (c[4] - c[0]));
+        }
+    }
+
+    @Test
+    public void testCircumcenter_isSameForCocircularPoints() {
+        // Eight lattice points on the circle of radius 5 around (3, -2).
+        long[][] circle = { { 8, -2 }, { 6, 2 }, { 3, 3 }, { -1, 1 }, { -2, -2 }, { -1, -5 }, { 3, -7 }, { 7, -5 } };
+        RationalPoint expected = new RationalPoint(3, -2, 1);
+        double rightmostX = LatticePredicates.rightmostX(expected, 8, -2);
+        assertThat(rightmostX).isEqualTo(8);
+        for (int i = 0; i < circle.length; i++)
+            for (int j = i + 1; j < circle.length; j++)
+                for (int k = j + 1; k < circle.length; k++) {
+                    RationalPoint center = LatticePredicates.circumcenter(
+                        circle[i][0], circle[i][1], circle[j][0], circle[j][1], circle[k][0], circle[k][1]);
+                    assertThat(center).isEqualTo(expected);
+                    assertThat(LatticePredicates.rightmostX(center, circle[k][0], circle[k][1])).isEqualTo(rightmostX);
+                }
+    }
+
+    @Test
+    public void testCircumcenter_matchesDoubleCircumcenter() {
+        Random random = TestUtils.rng();
+        for (int i = 0; i < 1000; i++) {
+            long[] c = new long[6];
+            for (int j = 0; j < 6; j++)
+                c[j] = random.nextInt((int) (2 * MAX + 1)) - MAX;
+            if (LatticePredicates.orientation(c[0], c[1], c[2], c[3], c[4], c[5]) == 0)
+                continue;
+            Point expected = Points.circumcenter(new Point(c[0], c[1]), new Point(c[2], c[3]), new Point(c[4], c[5]));
+            Point actual = LatticePredicates.circumcenter(c[0], c[1], c[2], c[3], c[4], c[5]).toPoint();
+            double tolerance = 1e-6 * Math.max(1, Math.abs(expected.x) + Math.abs(expected.y));
+            assertThat(actual.x).isCloseTo(expected.x, within(tolerance));
+            assertThat(actual.y).isCloseTo(expected.y, within(tolerance));
+        }
+    }
+
+    @Test
+    public void testCreateVoronoiDiagram_hasNoDegenerateBordersForGrid() {
+        List<Point> points = new ArrayList<>();
+        for (int x = 0; x < 30; x++)
+            for (int y = 0; y < 30; y++)
+                points.add(new Point(7 * x, 7 * y));
+        // Every interior vertex of a square grid is shared by four regions, so only the horizontal
+        // and vertical neighbors of each point share a (nonempty) border.
+        int numBorders = 0;
+        for (Border border : Voronoi.createVoronoiDiagram(points).getBorders()) {
+            Point left = points.get(border.getLeftPointIndex());
+            Point right = points.get(border.getRightPointIndex());
+            assertThat(Points.distance(left, right)).isEqualTo(7);
+            numBorders++;
+        }
+        assertThat(numBorders).isEqualTo(2 * 30 * 29);
+    }
+
+    private static int bigIncircle(long[] c) {
+        BigInteger[][] m = new BigInteger[3][3];
+        for (int i = 0; i < 3; i++) {
+            BigInteger dx = BigInteger.valueOf(c[2 * i] - c[6]);
+            BigInteger dy = BigInteger.valueOf(c[2 * i + 1] - c[7]);
+            m[i][0] = dx;
+            m[i][1] = dy;
+            m[i][2] = dx.multiply(dx).add(dy.multiply(dy));
+        }
+        return m[0][0].multiply(m[1][1].multiply(m[2][2]).subtract(m[1][2].multiply(m[2][1])))
+            .subtract(m[0][1].multiply(m[1][0].multiply(m[2][2]).subtract(m[1][2].multiply(m[2][0]))))
+            .add(m[0][2].multiply(m[1][0].multiply(m[2][1]).subtract(m[1][1].multiply(m[2][0]))))
+            .signum();
+    }
+}
@@ -0,0 +1,65 @@
+package io.github.ejif.geometry.algorithm;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import io.github.ejif.geometry.Point;
+import io.github.ejif.geometry.Rectangle;
+import io.github.ejif.geometry.TestUtils;
+
+public final class LloydRelaxationTest {
+
+    public static final Rectangle BOUNDS = new Rectangle(0, 0, 1000, 1000);
+
+    @Test
+    public void testStep_matchesCentroidsOfRebuiltDiagram() {
+        Random random = TestUtils.rng();
+        List<Point> points = TestUtils.randomPoints(2000, random);
+        LloydRelaxation relaxation = new LloydRelaxation(points, BOUNDS, true);
+        for (int iteration = 0; iteration < 10; iteration++) {
+            relaxation.step();
+            points = step(points);
+            List<Point> relaxedPoints = relaxation.getPoints();
+            for (int i = 0; i < points.size(); i++) {
+                assertThat(relaxedPoints.get(i).x).isCloseTo(points.get(i).x, within(1e-6));
+                assertThat(relaxedPoints.get(i).y).isCloseTo(points.get(i).y, within(1e-6));
+            }
+        }
+        assertThat(relaxation.getNumRebuilds()).isLessThan(10);
+    }
+
+    @Test
+    public void testRelax_balancesAreas() {
+        Random random = TestUtils.rng();
+        List<Point> points = TestUtils.randomPoints(500, random);
+        LloydRelaxation relaxation = new LloydRelaxation(points, BOUNDS, false);
+        assertThat(relaxation.relax(1000, 1)).isLessThan(1000);
+        assertThat(relaxation.relax(100, 0)).isEqualTo(100);
+        // The regions of random points vary a lot in size, but those of relaxed points are similar.
+        assertThat(areaRatio(points)).isGreaterThan(10);
+        assertThat(areaRatio(relaxation.getPoints())).isLessThan(2);
+        assertThat(relaxation.getNumRebuilds()).isLessThan(10);
+    }
+
+    private static double areaRatio(List<Point> points) {
+        double[] areas = RegionMetrics.compute(VoronoiAdjacency.create(points, Voronoi.createVoronoiDiagram(points)), BOUNDS, false)
+            .getAreas();
+        return Arrays.stream(areas).max().getAsDouble() / Arrays.stream(areas).min().getAsDouble();
+    }
+
+    private static List<Point> step(List<Point> points) {
+        RegionMetrics metrics = RegionMetrics.compute(
+            VoronoiAdjacency.create(points, Voronoi.createVoronoiDiagram(points)), BOUNDS, false);
+        List<Point> newPoints = new ArrayList<>();
+        for (int i = 0; i < points.size(); i++)
+            newPoints.add(new Point(metrics.getCentroidXs()[i], metrics.getCentroidYs()[i]));
+        return newPoints;
+    }
+}
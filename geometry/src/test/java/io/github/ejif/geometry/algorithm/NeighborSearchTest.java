@@ -0,0 +1,193 @@
+package io.github.ejif.geometry.algorithm;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import com.google.common.collect.ImmutableList;
+
+import io.github.ejif.geometry.Point;
+import io.github.ejif.geometry.TestUtils;
+import lombok.Data;
+
+@Data
+@RunWith(Parameterized.class)
+public final class NeighborSearchTest {
+
+    private final List<Point> anchorPoints;
+
+    @Parameterized.Parameters
+    public static List<?> parameters() {
+        Random random = TestUtils.rng();
+        List<List<Point>> parameters = new ArrayList<>();
+        for (int i = 0; i < 5; i++)
+            parameters.add(TestUtils.randomPoints(1 + 40 * i, random));
+        for (int i = 0; i < 5; i++)
+            parameters.add(TestUtils.randomLatticePoints(4 + 20 * i, random));
+        parameters.add(ImmutableList.of(new Point(0, 0), new Point(100, 100), new Point(300, 300), new Point(400, 400)));
+        return parameters;
+    }
+
+    @Test
+    public void testFindKClosest_isCorrect() {
+        Random random = TestUtils.rng();
+        PointSet points = new PointSet(anchorPoints, TestUtils.rng());
+        for (int k : new int[] { 1, 2, 5, 20, anchorPoints.size(), anchorPoints.size() + 3 }) {
+            int[] indices = new int[k];
+            double[] distances = new double[k];
+            for (Point p : TestUtils.randomPoints(20, random)) {
+                int count = points.findKClosest(p, k, indices, distances);
+                List<Double> expected = sortedDistances(p);
+                assertThat(count).isEqualTo(Math.min(k, anchorPoints.size()));
+                for (int i = 0; i < count; i++) {
+                    assertThat(distances[i]).isCloseTo(Points.distance(p, anchorPoints.get(indices[i])), within(1e-9));
+                    assertThat(distances[i]).isCloseTo(expected.get(i), within(1e-9));
+                }
+                assertThat(Arrays.copyOf(indices, count)).doesNotHaveDuplicates();
+            }
+        }
+    }
+
+    @Test
+    public void testFindKClosest_locatorMatchesPointSet() {
+        Random random = TestUtils.rng();
+        PointSet points = new PointSet(anchorPoints, TestUtils.rng());
+        PointLocator locator = points.locator();
+        int k = 7;
+        int[] indices = new int[k];
+        double[] distances = new double[k];
+        int[] expectedIndices = new int[k];
+        double[] expectedDistances = new double[k];
+        for (Point p : TestUtils.randomPoints(50, random)) {
+            int count = locator.findKClosest(p, k, indices, distances);
+            assertThat(count).isEqualTo(points.findKClosest(p, k, expectedIndices, expectedDistances));
+            for (int i = 0; i < count; i++)
+                assertThat(distances[i]).isCloseTo(expectedDistances[i], within(1e-9));
+        }
+    }
+
+    @Test
+    public void testFindWithinRadius_isCorrect() {
+        Random random = TestUtils.rng();
+        PointSet points = new PointSet(anchorPoints, TestUtils.rng());
+        PointLocator locator = points.locator();
+        for (double r : new double[] { 0, 10, 100, 300, 2000 })
+            for (Point p : TestUtils.randomPoints(20, random)) {
+                List<Integer> expected = new ArrayList<>();
+                for (int i = 0; i < anchorPoints.size(); i++)
+                    if (Points.distance(p, anchorPoints.get(i)) <= r)
+                        expected.add(i);
+                List<Integer> found = new ArrayList<>();
+                assertThat(points.findWithinRadius(p, r, found::add)).isEqualTo(found.size());
+                assertThat(found).containsExactlyInAnyOrderElementsOf(expected);
+                assertThat(points.countWithinRadius(p, r)).isEqualTo(expected.size());
+                assertThat(locator.countWithinRadius(p, r)).isEqualTo(expected.size());
+                for (int i = 1; i < found.size(); i++)
+                    assertThat(Points.distance(p, anchorPoints.get(found.get(i))))
+                        .isGreaterThanOrEqualTo(Points.distance(p, anchorPoints.get(found.get(i - 1))) - 1e-9);
+            }
+    }
+
+    @Test
+    public void testFindClosestEnabledIndex_isCorrect() {
+        Random random = TestUtils.rng();
+        PointSet points = new PointSet(anchorPoints, TestUtils.rng());
+        PointLocator locator = points.locator();
+        for (double fraction : new double[] { 0, 0.01, 0.5, 0.9, 1 }) {
+            PointMask mask = new PointMask(anchorPoints.size(), false);
+            for (int i = 0; i < anchorPoints.size(); i++)
+                mask.set(i, random.nextDouble() < fraction);
+            for (Point p : TestUtils.randomPoints(20, random)) {
+                double expected = Double.POSITIVE_INFINITY;
+                for (int i = 0; i < anchorPoints.size(); i++)
+                    if (mask.isEnabled(i))
+                        expected = Math.min(expected, Points.distance(p, anchorPoints.get(i)));
+                int index = points.findClosestEnabledIndex(p.x, p.y, mask);
+                int locatorIndex = locator.findClosestEnabledIndex(p.x, p.y, mask);
+                if (mask.getNumEnabled() == 0) {
+                    assertThat(index).isEqualTo(-1);
+                    assertThat(locatorIndex).isEqualTo(-1);
+                    continue;
+                }
+                assertThat(mask.isEnabled(index)).isTrue();
+                assertThat(Points.distance(p, anchorPoints.get(index))).isCloseTo(expected, within(1e-9));
+                assertThat(Points.distance(p, anchorPoints.get(locatorIndex))).isCloseTo(expected, within(1e-9));
+            }
+        }
+    }
+
+    @Test
+    public void testFindNearestNeighbors_isCorrect() {
+        PointSet points = new PointSet(anchorPoints, TestUtils.rng());
+        int n = anchorPoints.size();
+        for (boolean parallel : new boolean[] { false, true }) {
+            int[] indices = new int[n];
+            double[] distances = new double[n];
+            points.findNearestNeighbors(indices, distances, parallel);
+            double closestDistance = Double.POSITIVE_INFINITY;
+            for (int i = 0; i < n; i++) {
+                double expected = Double.POSITIVE_INFINITY;
+                for (int j = 0; j < n; j++)
+                    if (j != i)
+                        expected = Math.min(expected, Points.distance(anchorPoints.get(i), anchorPoints.get(j)));
+                closestDistance = Math.min(closestDistance, expected);
+                if (n == 1) {
+                    assertThat(indices[i]).isEqualTo(-1);
+                    assertThat(distances[i]).isEqualTo(Double.POSITIVE_INFINITY);
+                    continue;
+                }
+                assertThat(indices[i]).isNotEqualTo(i);
+                assertThat(distances[i]).isCloseTo(expected, within(1e-9));
+                assertThat(Points.distance(anchorPoints.get(i), anchorPoints.get(indices[i]))).isCloseTo(expected, within(1e-9));
+            }
+            if (n > 1) {
+                int[] closestPair = points.findClosestPair();
+                assertThat(closestPair[0]).isLessThan(closestPair[1]);
+                assertThat(Points.distance(anchorPoints.get(closestPair[0]), anchorPoints.get(closestPair[1])))
+                    .isCloseTo(closestDistance, within(1e-9));
+            }
+        }
+    }
+
+    @Test
+    public void testFindKClosest_failsForEmptyPointSet() {
+        PointSet points = new PointSet(ImmutableList.of());
+        assertThatThrownBy(() -> points.findKClosest(new Point(0, 0), 1, new int[1], new double[1]))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testFindWithinRadius_failsForNegativeRadius() {
+        PointSet points = new PointSet(anchorPoints, TestUtils.rng());
+        PointLocator locator = points.locator();
+        Point p = new Point(500, 500);
+        assertThatThrownBy(() -> points.findWithinRadius(p, -5, i -> {})).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> points.countWithinRadius(p, -5)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> locator.findWithinRadius(p, -5, i -> {})).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> locator.countWithinRadius(p, -5)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new PointSet(ImmutableList.of()).countWithinRadius(p, -5)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testFindWithinRadius_emptyPointSet() {
+        PointSet points = new PointSet(ImmutableList.of());
+        assertThat(points.countWithinRadius(new Point(0, 0), 100)).isEqualTo(0);
+    }
+
+    private List<Double> sortedDistances(Point p) {
+        List<Double> distances = new ArrayList<>();
+        for (Point anchorPoint : anchorPoints)
+            distances.add(Points.distance(p, anchorPoint));
+        distances.sort(null);
+        return distances;
+    }
+}
@@ -0,0 +1,79 @@
+package io.github.ejif.geometry.algorithm;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import io.github.ejif.geometry.Point;
+import io.github.ejif.geometry.TestUtils;
+
+public final class PointLocatorTest {
+
+    @Test
+    public void testFindClosestPoint_alongTrajectory() {
+        Random random = TestUtils.rng();
+        List<Point> anchorPoints = TestUtils.randomPoints(500, random);
+        PointLocator locator = new PointSet(anchorPoints, TestUtils.rng()).locator();
+        for (Point p : randomTrajectory(2000, random))
+            assertThat(locator.findClosestPoint(p)).isEqualTo(TestUtils.findClosestPoint(anchorPoints, p));
+    }
+
+    @Test
+    public void testFindClosestPoint_fallsBackForDistantQueries() {
+        Random random = TestUtils.rng();
+        List<Point> anchorPoints = TestUtils.randomPoints(500, random);
+        PointLocator locator = new PointSet(anchorPoints, TestUtils.rng()).locator(0);
+        for (Point p : TestUtils.randomPoints(1000, random))
+            assertThat(locator.findClosestPoint(p)).isEqualTo(TestUtils.findClosestPoint(anchorPoints, p));
+    }
+
+    @Test
+    public void testFindClosestPoint_latticePoints() {
+        Random random = TestUtils.rng();
+        for (int i = 0; i < 10; i++) {
+            List<Point> anchorPoints = TestUtils.randomLatticePoints(4 + 10 * i, random);
+            PointLocator locator = new PointSet(anchorPoints, TestUtils.rng()).locator();
+            for (Point p : randomTrajectory(100, random)) {
+                Point closest = locator.findClosestPoint(p);
+                assertThat(Points.distance(p, closest)).isEqualTo(Points.distance(p, TestUtils.findClosestPoint(anchorPoints, p)));
+            }
+        }
+    }
+
+    @Test
+    public void testFindClosestPoint_singlePoint() {
+        PointLocator locator = new PointSet(ImmutableList.of(new Point(1, 2))).locator();
+        assertThat(locator.findClosestPoint(new Point(100, 100))).isEqualTo(new Point(1, 2));
+    }
+
+    @Test
+    public void testLocator_failsForEmptyPointSet() {
+        PointSet points = new PointSet(ImmutableList.of());
+        assertThatThrownBy(() -> points.locator()).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test(timeout = 1000) // milliseconds
+    public void testFindClosestPoint_isPerformant() {
+        Random random = TestUtils.rng();
+        PointLocator locator = new PointSet(TestUtils.randomPoints(1000, random), TestUtils.rng()).locator();
+        for (Point p : randomTrajectory(200000, random))
+            locator.findClosestPoint(p);
+    }
+
+    private static List<Point> randomTrajectory(int numPoints, Random random) {
+        List<Point> trajectory = new ArrayList<>();
+        Point p = TestUtils.randomPoint(random);
+        for (int i = 0; i < numPoints; i++) {
+            p = new Point(p.x + random.nextGaussian() * 5, p.y + random.nextGaussian() * 5);
+            trajectory.add(p);
+        }
+        return trajectory;
+    }
+}
@@ -0,0 +1,64 @@
+package io.github.ejif.geometry.algorithm;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+import io.github.ejif.geometry.Point;
+import io.github.ejif.geometry.TestUtils;
+
+public final class PointMaskTest {
+
+    @Test
+    public void testSet_tracksEnabledPoints() {
+        PointMask mask = new PointMask(200, false);
+        mask.enable(3);
+        mask.enable(3);
+        mask.enable(64);
+        mask.enable(199);
+        mask.disable(5);
+        assertThat(mask.getNumEnabled()).isEqualTo(3);
+        assertThat(mask.isEnabled(3)).isTrue();
+        assertThat(mask.isEnabled(4)).isFalse();
+        assertThat(mask.nextEnabled(0)).isEqualTo(3);
+        assertThat(mask.nextEnabled(4)).isEqualTo(64);
+        assertThat(mask.nextEnabled(65)).isEqualTo(199);
+        assertThat(mask.nextEnabled(200)).isEqualTo(-1);
+        mask.disable(199);
+        assertThat(mask.nextEnabled(65)).isEqualTo(-1);
+        assertThat(new PointMask(200, true).getNumEnabled()).isEqualTo(200);
+    }
+
+    @Test
+    public void testSet_failsForInvalidIndex() {
+        assertThatThrownBy(() -> new PointMask(10, false).enable(10)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    public void testSet_isThreadSafe() {
+        PointMask mask = new PointMask(1000, false);
+        IntStream.range(0, 100000).parallel().forEach(i -> mask.set(i % 1000, i % 3 != 0));
+        int numEnabled = 0;
+        for (int i = 0; i < 1000; i++)
+            if (mask.isEnabled(i))
+                numEnabled++;
+        assertThat(mask.getNumEnabled()).isEqualTo(numEnabled);
+    }
+
+    @Test(timeout = 1000) // milliseconds
+    public void testFindClosestEnabledIndex_isPerformantWhenMostPointsAreDisabled() {
+        Random random = TestUtils.rng();
+        List<Point> anchorPoints = TestUtils.randomPoints(1000, random);
+        PointSet points = new PointSet(anchorPoints, random);
+        PointMask mask = new PointMask(anchorPoints.size(), false);
+        for (int i = 0; i < 10; i++)
+            mask.enable(random.nextInt(anchorPoints.size()));
+        for (Point p : TestUtils.randomPoints(10000, random))
+            assertThat(mask.isEnabled(points.findClosestEnabledIndex(p.x, p.y, mask))).isTrue();
+    }
+}
@@ -44,6 +44,40 @@ public final class PointSetLocationTest {
             assertThat(points.findClosestPoint(p)).isEqualTo(TestUtils.findClosestPoint(testCase.anchorPoints, p));
     }
 
+    @Test
+    public void testFindClosestPoint_isCorrectWithIndex() {
+        PointSetOptions options = PointSetOptions.builder().linearScanThreshold(0).build();
+        PointSet points = new PointSet(testCase.anchorPoints, TestUtils.rng(), options);
+        for (Point p : testCase.queryPoints)
+            assertThat(points.findClosestPoint(p)).isEqualTo(TestUtils.findClosestPoint(testCase.anchorPoints, p));
+        assertThat(points.isIndexBuilt()).isTrue();
+    }
+
+    @Test
+    public void testFindClosestIndex_isCorrect() {
+        PointSet points = new PointSet(testCase.anchorPoints, TestUtils.rng());
+        double[] distancesSquared = new double[2];
+        for (Point p : testCase.queryPoints) {
+            Point expected = TestUtils.findClosestPoint(testCase.anchorPoints, p);
+            assertThat(testCase.anchorPoints.get(points.findClosestIndex(p.x, p.y))).isEqualTo(expected);
+            assertThat(testCase.anchorPoints.get(points.findClosestIndex(p.x, p.y, distancesSquared, 1))).isEqualTo(expected);
+            assertThat(distancesSquared[1]).isEqualTo(Points.distanceSquared(p, expected));
+        }
+    }
+
+    @Test
+    public void testFindClosestIndices_isCorrect() {
+        PointSet points = new PointSet(testCase.anchorPoints, TestUtils.rng());
+        double[] xs = testCase.queryPoints.stream().mapToDouble(p -> p.x).toArray();
+        double[] ys = testCase.queryPoints.stream().mapToDouble(p -> p.y).toArray();
+        int[] indices = new int[testCase.queryPoints.size()];
+        points.findClosestIndices(xs, ys, indices);
+        for (int i = 0; i < indices.length; i++) {
+            Point p = testCase.queryPoints.get(i);
+            assertThat(testCase.anchorPoints.get(indices[i])).isEqualTo(TestUtils.findClosestPoint(testCase.anchorPoints, p));
+        }
+    }
+
     @Data
     private static final class TestCase {
 
@@ -1,8 +1,15 @@
 package io.github.ejif.geometry.algorithm;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Test;
 
@@ -27,4 +34,157 @@ public final class PointSetTest {
         for (Point p : TestUtils.randomPoints(100000, random))
             points.findClosestPoint(p);
     }
+
+    @Test
+    public void testFindClosestIndex_returnsNegativeForEmptyPointSet() {
+        PointSet points = new PointSet(ImmutableList.of());
+        assertThat(points.findClosestIndex(0, 0)).isEqualTo(-1);
+        assertThatThrownBy(() -> points.findClosestIndex(0, 0, new double[1], 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testFindClosestIndex_extremeCoordinates() {
+        // The squared distances to these points overflow for every anchor point.
+        List<Point> anchorPoints = TestUtils.randomPoints(10, TestUtils.rng());
+        PointSet points = new PointSet(anchorPoints, TestUtils.rng());
+        for (Point p : ImmutableList.of(new Point(1e300, 1e300), new Point(-1e300, 0), new Point(0, -Double.MAX_VALUE))) {
+            assertThat(points.findClosestPoint(p)).isEqualTo(TestUtils.findClosestPoint(anchorPoints, p));
+            assertThat(anchorPoints.get(points.findClosestIndex(p.x, p.y))).isEqualTo(TestUtils.findClosestPoint(anchorPoints, p));
+        }
+        // The squared distances to these points are NaN, so any anchor point will do.
+        for (Point p : ImmutableList.of(new Point(Double.NaN, 0), new Point(0, Double.NaN))) {
+            assertThat(points.findClosestIndex(p.x, p.y)).isBetween(0, 9);
+            assertThat(anchorPoints).contains(points.findClosestPoint(p));
+            assertThat(points.findKClosest(p, 3, new int[3], new double[3])).isEqualTo(3);
+        }
+    }
+
+    @Test(timeout = 1000) // milliseconds
+    public void testFindClosestIndex_isPerformant() {
+        Random random = TestUtils.rng();
+        PointSet points = new PointSet(TestUtils.randomPoints(1000, random), TestUtils.rng());
+        for (Point p : TestUtils.randomPoints(100000, random))
+            points.findClosestIndex(p.x, p.y);
+    }
+
+    @Test
+    public void testFindClosestIndices_failsForEmptyPointSet() {
+        PointSet points = new PointSet(ImmutableList.of());
+        assertThatThrownBy(() -> points.findClosestIndices(new double[1], new double[1], new int[1]))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test(timeout = 1000) // milliseconds
+    public void testFindClosestIndices_isPerformant() {
+        Random random = TestUtils.rng();
+        PointSet points = new PointSet(TestUtils.randomPoints(1000, random), TestUtils.rng());
+        double[] xs = random.doubles(200000, 0, 1000).toArray();
+        double[] ys = random.doubles(200000, 0, 1000).toArray();
+        points.findClosestIndices(xs, ys, new int[xs.length]);
+    }
+
+    @Test
+    public void testFindClosestPair_failsForSinglePoint() {
+        PointSet points = new PointSet(ImmutableList.of(new Point(0, 0)));
+        assertThatThrownBy(() -> points.findClosestPair()).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testFindClosestIndex_doesNotBuildIndexForSmallPointSet() {
+        Random random = TestUtils.rng();
+        PointSet points = new PointSet(TestUtils.randomPoints(10, random), TestUtils.rng());
+        for (Point p : TestUtils.randomPoints(100, random))
+            points.findClosestIndex(p.x, p.y);
+        assertThat(points.isIndexBuilt()).isFalse();
+    }
+
+    @Test
+    public void testFindClosestIndex_buildsIndexAfterQueries() {
+        Random random = TestUtils.rng();
+        List<Point> anchorPoints = TestUtils.randomPoints(100, random);
+        PointSet points = new PointSet(anchorPoints, TestUtils.rng(), PointSetOptions.builder().queriesBeforeIndex(5).build());
+        for (int i = 0; i < 5; i++) {
+            Point p = TestUtils.randomPoint(random);
+            assertThat(anchorPoints.get(points.findClosestIndex(p.x, p.y))).isEqualTo(TestUtils.findClosestPoint(anchorPoints, p));
+        }
+        assertThat(points.isIndexBuilt()).isFalse();
+        points.findClosestIndex(0, 0);
+        assertThat(points.isIndexBuilt()).isTrue();
+    }
+
+    @Test
+    public void testFindClosestIndex_buildsIndexInBackground() throws InterruptedException {
+        Random random = TestUtils.rng();
+        List<Point> anchorPoints = TestUtils.randomPoints(100, random);
+        List<Runnable> tasks = new ArrayList<>();
+        PointSet points = new PointSet(anchorPoints, TestUtils.rng(), PointSetOptions.builder().indexExecutor(tasks::add).build());
+        for (Point p : TestUtils.randomPoints(10, random))
+            assertThat(anchorPoints.get(points.findClosestIndex(p.x, p.y))).isEqualTo(TestUtils.findClosestPoint(anchorPoints, p));
+        assertThat(tasks).hasSize(1);
+        assertThat(points.isIndexBuilt()).isFalse();
+
+        Thread thread = new Thread(tasks.get(0));
+        thread.start();
+        for (Point p : TestUtils.randomPoints(100, random))
+            assertThat(anchorPoints.get(points.findClosestIndex(p.x, p.y))).isEqualTo(TestUtils.findClosestPoint(anchorPoints, p));
+        thread.join();
+        assertThat(points.isIndexBuilt()).isTrue();
+        assertThat(tasks).hasSize(1);
+    }
+
+    @Test
+    public void testFindClosestIndex_retriesRejectedIndexBuild() {
+        Random random = TestUtils.rng();
+        List<Point> anchorPoints = TestUtils.randomPoints(100, random);
+        List<Runnable> tasks = new ArrayList<>();
+        AtomicInteger numRejected = new AtomicInteger();
+        Executor executor = task -> {
+            if (numRejected.incrementAndGet() <= 3)
+                throw new RejectedExecutionException();
+            tasks.add(task);
+        };
+        PointSet points = new PointSet(anchorPoints, TestUtils.rng(), PointSetOptions.builder().indexExecutor(executor).build());
+        for (Point p : TestUtils.randomPoints(10, random))
+            assertThat(anchorPoints.get(points.findClosestIndex(p.x, p.y))).isEqualTo(TestUtils.findClosestPoint(anchorPoints, p));
+        assertThat(numRejected).hasValue(4);
+        assertThat(tasks).hasSize(1);
+
+        tasks.get(0).run();
+        assertThat(points.isIndexBuilt()).isTrue();
+    }
+
+    @Test
+    public void testFindClosestIndex_retriesFailedIndexBuild() {
+        Random random = TestUtils.rng();
+        List<Point> anchorPoints = TestUtils.randomPoints(100, random);
+        List<Runnable> tasks = new ArrayList<>();
+        // Fails the first build, which is the first user of the random number generator.
+        AtomicBoolean failed = new AtomicBoolean();
+        Random failingRandom = new Random(2915) {
+            @Override
+            protected int next(int bits) {
+                if (failed.compareAndSet(false, true))
+                    throw new IllegalStateException();
+                return super.next(bits);
+            }
+        };
+        PointSet points = new PointSet(anchorPoints, failingRandom, PointSetOptions.builder().indexExecutor(tasks::add).build());
+        points.findClosestIndex(0, 0);
+        assertThat(tasks).hasSize(1);
+        assertThatThrownBy(() -> tasks.get(0).run()).isInstanceOf(IllegalStateException.class);
+        assertThat(points.isIndexBuilt()).isFalse();
+
+        for (Point p : TestUtils.randomPoints(10, random))
+            assertThat(anchorPoints.get(points.findClosestIndex(p.x, p.y))).isEqualTo(TestUtils.findClosestPoint(anchorPoints, p));
+        assertThat(tasks).hasSize(2);
+        tasks.get(1).run();
+        assertThat(points.isIndexBuilt()).isTrue();
+    }
+
+    @Test
+    public void testFindKClosest_buildsIndex() {
+        PointSet points = new PointSet(TestUtils.randomPoints(10, TestUtils.rng()), TestUtils.rng());
+        points.findKClosest(new Point(0, 0), 3, new int[3], new double[3]);
+        assertThat(points.isIndexBuilt()).isTrue();
+    }
 }
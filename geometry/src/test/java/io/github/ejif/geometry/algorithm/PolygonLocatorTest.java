@@ -0,0 +1,164 @@
+package io.github.ejif.geometry.algorithm;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+
+import io.github.ejif.geometry.Point;
+import io.github.ejif.geometry.Polygon;
+import io.github.ejif.geometry.TestUtils;
+
+public final class PolygonLocatorTest {
+
+    @Test
+    public void testFindPolygonIndex_returnsNegativeWithoutPolygons() {
+        PolygonLocator locator = new PolygonLocator(ImmutableList.of(), TestUtils.rng());
+        assertThat(locator.findPolygonIndex(0, 0)).isEqualTo(-1);
+    }
+
+    @Test
+    public void testFindPolygonIndex_handlesHoles() {
+        // A square with a square hole, a triangle in the hole, and a square sharing an edge with
+        // the first one, given in both orientations and with repeated first vertices.
+        Polygon outer = new Polygon(
+            square(0, 0, 10, false),
+            ImmutableList.of(square(2, 2, 6, true)));
+        Polygon inner = new Polygon(
+            ImmutableList.of(new Point(3, 3), new Point(7, 3), new Point(3, 7), new Point(3, 3)),
+            ImmutableList.of());
+        Polygon neighbor = new Polygon(square(10, 0, 10, true), ImmutableList.of());
+        PolygonLocator locator = new PolygonLocator(ImmutableList.of(outer, inner, neighbor), TestUtils.rng());
+        assertThat(locator.findPolygonIndex(new Point(1, 1))).isEqualTo(0);
+        assertThat(locator.findPolygonIndex(new Point(9, 5))).isEqualTo(0);
+        assertThat(locator.findPolygonIndex(new Point(4, 4))).isEqualTo(1);
+        assertThat(locator.findPolygonIndex(new Point(7, 7))).isEqualTo(-1);
+        assertThat(locator.findPolygonIndex(new Point(11, 5))).isEqualTo(2);
+        assertThat(locator.findPolygonIndex(new Point(21, 5))).isEqualTo(-1);
+        assertThat(locator.findPolygonIndex(new Point(5, -1))).isEqualTo(-1);
+    }
+
+    @Test
+    public void testFindPolygonIndex_failsForOverlappingPolygons() {
+        Polygon polygon = new Polygon(square(0, 0, 1, false), ImmutableList.of());
+        assertThatThrownBy(() -> new PolygonLocator(ImmutableList.of(polygon, polygon)))
+            .isInstanceOf(IllegalArgumentException.class);
+        Polygon degenerate = new Polygon(ImmutableList.of(new Point(0, 0), new Point(1, 1), new Point(0, 0)), ImmutableList.of());
+        assertThatThrownBy(() -> new PolygonLocator(ImmutableList.of(degenerate)))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testFindPolygonIndex_matchesRayCasting() {
+        Random random = TestUtils.rng();
+        List<Polygon> polygons = jitteredGrid(20, random);
+        PolygonLocator locator = new PolygonLocator(polygons, TestUtils.rng());
+        for (Point p : TestUtils.randomPoints(10000, random)) {
+            Point q = new Point(p.x * 1.2 - 100, p.y * 1.2 - 100);
+            assertThat(locator.findPolygonIndex(q)).isEqualTo(findPolygonIndex(polygons, q));
+        }
+    }
+
+    @Test
+    public void testFindPolygonIndices_matchesFindPolygonIndex() {
+        Random random = TestUtils.rng();
+        PolygonLocator locator = new PolygonLocator(jitteredGrid(20, random), TestUtils.rng());
+        double[] xs = random.doubles(10000, -100, 1100).toArray();
+        double[] ys = random.doubles(10000, -100, 1100).toArray();
+        int[] indices = new int[10000];
+        locator.findPolygonIndices(xs, ys, indices);
+        for (int i = 0; i < indices.length; i++)
+            assertThat(indices[i]).isEqualTo(locator.findPolygonIndex(xs[i], ys[i]));
+        assertThatThrownBy(() -> locator.findPolygonIndices(xs, ys, new int[1])).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testGetDepth_isLogarithmic() {
+        Random random = TestUtils.rng();
+        List<Polygon> polygons = jitteredGrid(50, random);
+        PolygonLocator locator = new PolygonLocator(polygons, TestUtils.rng());
+        // Each cell has four edges, each shared by up to two cells.
+        assertThat(locator.getDepth()).isLessThanOrEqualTo((int) (PolygonLocator.MAX_DEPTH_FACTOR * Math.log(2 * 50 * 51)));
+    }
+
+    @Test
+    public void testGetDepth_keepsShallowestMap() {
+        Random random = TestUtils.rng();
+        List<Polygon> polygons = jitteredGrid(20, random);
+        // With no acceptable depth, every attempt is made, and the first attempt is the same as
+        // that of a locator that accepts any depth.
+        PolygonLocator firstAttempt = new PolygonLocator(polygons, TestUtils.rng(), Double.POSITIVE_INFINITY);
+        PolygonLocator allAttempts = new PolygonLocator(polygons, TestUtils.rng(), 0);
+        assertThat(allAttempts.getDepth()).isLessThanOrEqualTo(firstAttempt.getDepth());
+        for (Point p : TestUtils.randomPoints(1000, random))
+            assertThat(allAttempts.findPolygonIndex(p)).isEqualTo(firstAttempt.findPolygonIndex(p));
+    }
+
+    @Test(timeout = 1000) // milliseconds
+    public void testFindPolygonIndex_isPerformant() {
+        Random random = TestUtils.rng();
+        PolygonLocator locator = new PolygonLocator(jitteredGrid(50, random), TestUtils.rng());
+        for (Point p : TestUtils.randomPoints(100000, random))
+            locator.findPolygonIndex(p.x, p.y);
+    }
+
+    private static List<Point> square(double x, double y, double size, boolean clockwise) {
+        List<Point> ring = new ArrayList<>(ImmutableList.of(
+            new Point(x, y), new Point(x + size, y), new Point(x + size, y + size), new Point(x, y + size)));
+        if (clockwise)
+            ring = Lists.reverse(ring);
+        return ring;
+    }
+
+    /**
+     * Returns the cells of an n by n grid over [0, 1000]^2 with randomly moved vertices, where
+     * about one in ten cells is left out.
+     */
+    private static List<Polygon> jitteredGrid(int n, Random random) {
+        double size = 1000.0 / n;
+        Point[][] vertices = new Point[n + 1][n + 1];
+        for (int i = 0; i <= n; i++)
+            for (int j = 0; j <= n; j++)
+                vertices[i][j] = new Point(
+                    (i + (random.nextDouble() - 0.5) * 0.6) * size,
+                    (j + (random.nextDouble() - 0.5) * 0.6) * size);
+        List<Polygon> polygons = new ArrayList<>();
+        for (int i = 0; i < n; i++)
+            for (int j = 0; j < n; j++)
+                if (random.nextInt(10) != 0)
+                    polygons.add(new Polygon(
+                        ImmutableList.of(vertices[i][j], vertices[i + 1][j], vertices[i + 1][j + 1], vertices[i][j + 1]),
+                        ImmutableList.of()));
+        return polygons;
+    }
+
+    private static int findPolygonIndex(List<Polygon> polygons, Point point) {
+        for (int i = 0; i < polygons.size(); i++) {
+            Polygon polygon = polygons.get(i);
+            if (!contains(polygon.getExterior(), point))
+                continue;
+            if (polygon.getHoles().stream().noneMatch(hole -> contains(hole, point)))
+                return i;
+        }
+        return -1;
+    }
+
+    private static boolean contains(List<Point> ring, Point point) {
+        boolean inside = false;
+        for (int i = 0, j = ring.size() - 1; i < ring.size(); j = i++) {
+            Point a = ring.get(i);
+            Point b = ring.get(j);
+            if ((a.y > point.y) != (b.y > point.y)
+                    && point.x < (b.x - a.x) * (point.y - a.y) / (b.y - a.y) + a.x)
+                inside = !inside;
+        }
+        return inside;
+    }
+}
@@ -0,0 +1,119 @@
+package io.github.ejif.geometry.algorithm;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import org.junit.Test;
+
+import io.github.ejif.geometry.TestUtils;
+
+public final class PredicatesTest {
+
+    @Test
+    public void testOrientation_matchesExactDeterminant() {
+        Random random = TestUtils.rng();
+        for (int i = 0; i < 10000; i++) {
+            double[] c = new double[6];
+            for (int j = 0; j < 6; j++)
+                c[j] = (random.nextDouble() - 0.5) * Math.pow(2, random.nextInt(40) - 20);
+            assertThat(Math.signum(Predicates.orientation(c[0], c[1], c[2], c[3], c[4], c[5])))
+                .isEqualTo(exactOrientation(c));
+        }
+    }
+
+    @Test
+    public void testOrientation_isExactForNearlyCollinearPoints() {
+        // The classic example: points just off the line y = x, at distances of a few ulps, where the
+        // plain double cross product often has the wrong sign.
+        long fallbacks = Predicates.getCrossProductFallbacks();
+        for (int i = 0; i < 64; i++)
+            for (int j = 0; j < 64; j++) {
+                double[] c = { 0.5 + i * Math.ulp(0.5), 0.5 + j * Math.ulp(0.5), 12, 12, 24, 24 };
+                assertThat(Math.signum(Predicates.orientation(c[0], c[1], c[2], c[3], c[4], c[5])))
+                    .isEqualTo(exactOrientation(c));
+            }
+        assertThat(Predicates.getCrossProductFallbacks()).isGreaterThan(fallbacks);
+    }
+
+    @Test
+    public void testOrientation_isZeroForCollinearPoints() {
+        Random random = TestUtils.rng();
+        for (int i = 0; i < 1000; i++) {
+            double x = random.nextDouble();
+            double y = random.nextDouble();
+            int a = random.nextInt(20) - 10;
+            int b = random.nextInt(20) - 10;
+            // Scaling by a power of two is exact, so these points are exactly collinear with the origin.
+            assertThat(Predicates.orientation(x, y, Math.scalb(x, a), Math.scalb(y, a), Math.scalb(x, b), Math.scalb(y, b)))
+                .isEqualTo(0);
+            assertThat(Predicates.orientation(x, y, x, y + a, x, y - b)).isEqualTo(0);
+        }
+    }
+
+    @Test
+    public void testIncircle_matchesExactDeterminant() {
+        Random random = TestUtils.rng();
+        for (int i = 0; i < 10000; i++) {
+            double[] c = new double[8];
+            for (int j = 0; j < 8; j++)
+                c[j] = random.nextDouble() - 0.5;
+            assertThat(Math.signum(Predicates.incircle(c[0], c[1], c[2], c[3], c[4], c[5], c[6], c[7])))
+                .isEqualTo(exactIncircle(c));
+        }
+    }
+
+    @Test
+    public void testIncircle_isExactForNearlyCocircularPoints() {
+        // Points around the unit circle, with the fourth point perturbed by a few ulps.
+        long fallbacks = Predicates.getIncircleFallbacks();
+        for (int i = -8; i <= 8; i++) {
+            double[] c = { 1, 0, 0, 1, -1, 0, 0.6 + i * Math.ulp(0.6), -0.8 };
+            assertThat(Math.signum(Predicates.incircle(c[0], c[1], c[2], c[3], c[4], c[5], c[6], c[7])))
+                .isEqualTo(exactIncircle(c));
+        }
+        assertThat(Predicates.incircle(0, 0, 4, 0, 4, 4, 0, 4)).isEqualTo(0);
+        assertThat(Predicates.incircle(0, 0, 4, 0, 4, 4, 1, 1)).isGreaterThan(0);
+        assertThat(Predicates.incircle(0, 0, 4, 0, 4, 4, 5, 5)).isLessThan(0);
+        assertThat(Predicates.getIncircleFallbacks()).isGreaterThan(fallbacks);
+    }
+
+    @Test(timeout = 1000) // milliseconds
+    public void testOrientation_isPerformant() {
+        Random random = TestUtils.rng();
+        double[] c = new double[1 << 16];
+        for (int i = 0; i < c.length; i++)
+            c[i] = random.nextDouble();
+        double total = 0;
+        for (int i = 0; i < 10_000_000; i++) {
+            int j = i & (c.length - 8);
+            total += Predicates.orientation(c[j], c[j + 1], c[j + 2], c[j + 3], c[j + 4], c[j + 5]);
+        }
+        assertThat(total).isNotNaN();
+    }
+
+    private static double exactOrientation(double[] c) {
+        BigDecimal ax = new BigDecimal(c[0]);
+        BigDecimal ay = new BigDecimal(c[1]);
+        return new BigDecimal(c[2]).subtract(ax).multiply(new BigDecimal(c[5]).subtract(ay))
+            .subtract(new BigDecimal(c[3]).subtract(ay).multiply(new BigDecimal(c[4]).subtract(ax)))
+            .signum();
+    }
+
+    private static double exactIncircle(double[] c) {
+        BigDecimal[] d = new BigDecimal[6];
+        for (int i = 0; i < 6; i++)
+            d[i] = new BigDecimal(c[i]).subtract(new BigDecimal(c[6 + i % 2]));
+        BigDecimal[] lift = new BigDecimal[3];
+        for (int i = 0; i < 3; i++)
+            lift[i] = d[2 * i].multiply(d[2 * i]).add(d[2 * i + 1].multiply(d[2 * i + 1]));
+        BigDecimal det = BigDecimal.ZERO;
+        for (int i = 0; i < 3; i++) {
+            int j = (i + 1) % 3;
+            int k = (i + 2) % 3;
+            det = det.add(lift[i].multiply(d[2 * j].multiply(d[2 * k + 1]).subtract(d[2 * k].multiply(d[2 * j + 1]))));
+        }
+        return det.signum();
+    }
+}
@@ -0,0 +1,82 @@
+package io.github.ejif.geometry.algorithm;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import io.github.ejif.geometry.Point;
+import io.github.ejif.geometry.Rectangle;
+import io.github.ejif.geometry.TestUtils;
+import lombok.Data;
+
+/**
+ * Tests several randomly generated point configurations, and verifies that the clipped regions
+ * partition the clipping rectangle, and that every vertex of a clipped region is closest to the
+ * region's point.
+ */
+@Data
+@RunWith(Parameterized.class)
+public final class RegionClipperTest {
+
+    public static final Rectangle BOUNDS = new Rectangle(-100, 200, 1100, 900);
+    public static final double SLIGHT_RATIO = 1e-3;
+
+    private final List<Point> points;
+
+    @Parameterized.Parameters
+    public static List<?> parameters() {
+        Random random = TestUtils.rng();
+        List<List<Point>> parameters = new ArrayList<>();
+        for (int i = 0; i < 10; i++)
+            parameters.add(TestUtils.randomPoints(1 + 10 * i, random));
+        for (int i = 0; i < 10; i++)
+            parameters.add(TestUtils.randomLatticePoints(5 + i, random));
+        return parameters;
+    }
+
+    @Test
+    public void testClippedRegions_partitionBounds() {
+        RegionClipper clipper = new RegionClipper(VoronoiAdjacency.create(points, Voronoi.createVoronoiDiagram(points)), BOUNDS);
+        double totalArea = 0;
+        for (int pointIndex = 0; pointIndex < points.size(); pointIndex++) {
+            int numVertices = clipper.clip(pointIndex);
+            double area = 0;
+            for (int i = 0; i < numVertices; i++) {
+                int j = (i + 1) % numVertices;
+                area += clipper.getXs()[i] * clipper.getYs()[j] - clipper.getXs()[j] * clipper.getYs()[i];
+            }
+            // Counterclockwise polygons have a nonnegative signed area.
+            assertThat(area).isGreaterThanOrEqualTo(0);
+            totalArea += area / 2;
+        }
+        double boundsArea = (BOUNDS.maxX - BOUNDS.minX) * (BOUNDS.maxY - BOUNDS.minY);
+        assertThat(totalArea).isCloseTo(boundsArea, within(boundsArea * 1e-9));
+    }
+
+    @Test
+    public void testClippedRegions_haveVerticesClosestToPoint() {
+        RegionClipper clipper = new RegionClipper(VoronoiAdjacency.create(points, Voronoi.createVoronoiDiagram(points)), BOUNDS);
+        for (int pointIndex = 0; pointIndex < points.size(); pointIndex++) {
+            Point p = points.get(pointIndex);
+            int numVertices = clipper.clip(pointIndex);
+            for (int i = 0; i < numVertices; i++) {
+                Point vertex = new Point(clipper.getXs()[i], clipper.getYs()[i]);
+                assertThat(BOUNDS.contains(vertex.x, vertex.y)).isTrue();
+                assertThat(TestUtils.findClosestPoint(points, moveSlightlyTowards(vertex, p))).isEqualTo(p);
+            }
+        }
+    }
+
+    private static Point moveSlightlyTowards(Point point, Point target) {
+        return new Point(
+            target.x * SLIGHT_RATIO + point.x * (1 - SLIGHT_RATIO),
+            target.y * SLIGHT_RATIO + point.y * (1 - SLIGHT_RATIO));
+    }
+}
@@ -0,0 +1,84 @@
+package io.github.ejif.geometry.algorithm;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import io.github.ejif.geometry.Point;
+import io.github.ejif.geometry.Rectangle;
+import io.github.ejif.geometry.TestUtils;
+
+public final class RegionMetricsTest {
+
+    public static final Rectangle BOUNDS = new Rectangle(-100, 200, 1100, 900);
+
+    @Test
+    public void testCompute_measuresRectangularRegions() {
+        List<Point> points = ImmutableList.of(new Point(0, 0), new Point(10, 0), new Point(100, 100));
+        Rectangle bounds = new Rectangle(-10, -10, 20, 10);
+        RegionMetrics metrics = RegionMetrics.compute(adjacency(points), bounds, false);
+        assertThat(metrics.getAreas()[0]).isCloseTo(300, within(1e-9));
+        assertThat(metrics.getCentroidXs()[0]).isCloseTo(-2.5, within(1e-9));
+        assertThat(metrics.getCentroidYs()[0]).isCloseTo(0, within(1e-9));
+        assertThat(metrics.getPerimeters()[0]).isCloseTo(70, within(1e-9));
+        assertThat(metrics.getMinXs()[1]).isEqualTo(5);
+        assertThat(metrics.getMinYs()[1]).isEqualTo(-10);
+        assertThat(metrics.getMaxXs()[1]).isEqualTo(20);
+        assertThat(metrics.getMaxYs()[1]).isEqualTo(10);
+        // The third point's region does not reach the rectangle.
+        assertThat(metrics.getAreas()[2]).isEqualTo(0);
+        assertThat(metrics.getCentroidXs()[2]).isNaN();
+    }
+
+    @Test
+    public void testCompute_partitionsBounds() {
+        Random random = TestUtils.rng();
+        List<Point> points = TestUtils.randomPoints(5000, random);
+        RegionMetrics metrics = RegionMetrics.compute(adjacency(points), BOUNDS, true);
+        double totalArea = 0;
+        double totalMomentX = 0;
+        double totalMomentY = 0;
+        for (int i = 0; i < points.size(); i++) {
+            double area = metrics.getAreas()[i];
+            assertThat(area).isGreaterThanOrEqualTo(0);
+            totalArea += area;
+            if (area == 0)
+                continue;
+            totalMomentX += area * metrics.getCentroidXs()[i];
+            totalMomentY += area * metrics.getCentroidYs()[i];
+            assertThat(metrics.getCentroidXs()[i]).isBetween(metrics.getMinXs()[i], metrics.getMaxXs()[i]);
+            assertThat(metrics.getCentroidYs()[i]).isBetween(metrics.getMinYs()[i], metrics.getMaxYs()[i]);
+            assertThat(metrics.getMinXs()[i]).isGreaterThanOrEqualTo(BOUNDS.minX);
+            assertThat(metrics.getMaxYs()[i]).isLessThanOrEqualTo(BOUNDS.maxY);
+            double width = metrics.getMaxXs()[i] - metrics.getMinXs()[i];
+            double height = metrics.getMaxYs()[i] - metrics.getMinYs()[i];
+            assertThat(metrics.getPerimeters()[i]).isBetween(2 * Math.max(width, height), 2 * (width + height) + 1e-9);
+        }
+        double boundsArea = (BOUNDS.maxX - BOUNDS.minX) * (BOUNDS.maxY - BOUNDS.minY);
+        assertThat(totalArea).isCloseTo(boundsArea, within(boundsArea * 1e-9));
+        assertThat(totalMomentX / totalArea).isCloseTo((BOUNDS.minX + BOUNDS.maxX) / 2, within(1e-6));
+        assertThat(totalMomentY / totalArea).isCloseTo((BOUNDS.minY + BOUNDS.maxY) / 2, within(1e-6));
+    }
+
+    @Test
+    public void testCompute_parallelMatchesSequential() {
+        Random random = TestUtils.rng();
+        VoronoiAdjacency adjacency = adjacency(TestUtils.randomPoints(5000, random));
+        RegionMetrics sequential = RegionMetrics.compute(adjacency, BOUNDS, false);
+        RegionMetrics parallel = RegionMetrics.compute(adjacency, BOUNDS, true);
+        assertThat(parallel.getAreas()).containsExactly(sequential.getAreas());
+        assertThat(parallel.getCentroidXs()).containsExactly(sequential.getCentroidXs());
+        assertThat(parallel.getPerimeters()).containsExactly(sequential.getPerimeters());
+        assertThat(parallel.getMaxYs()).containsExactly(sequential.getMaxYs());
+    }
+
+    private static VoronoiAdjacency adjacency(List<Point> points) {
+        return VoronoiAdjacency.create(points, Voronoi.createVoronoiDiagram(points));
+    }
+}
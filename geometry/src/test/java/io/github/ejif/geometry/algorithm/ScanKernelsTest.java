@@ -0,0 +1,114 @@
+package io.github.ejif.geometry.algorithm;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import io.github.ejif.geometry.TestUtils;
+
+public final class ScanKernelsTest {
+
+    @Test
+    public void testFindClosestIndex_matchesScan() {
+        Random random = TestUtils.rng();
+        for (int i = 0; i < 200; i++) {
+            int numPoints = random.nextInt(4 * ScanKernels.MIN_VECTOR_LENGTH);
+            double[] xs = randomCoordinates(numPoints, random);
+            double[] ys = randomCoordinates(numPoints, random);
+            int start = numPoints == 0 ? 0 : random.nextInt(numPoints);
+            int end = start + random.nextInt(numPoints - start + 1);
+            double x = random.nextDouble() * 1000;
+            double y = random.nextDouble() * 1000;
+            assertThat(ScanKernels.findClosestIndex(xs, ys, start, end, x, y)).isEqualTo(scanClosestIndex(xs, ys, start, end, x, y));
+        }
+    }
+
+    @Test
+    public void testFindClosestIndex_returnsFirstOfEqualPoints() {
+        // Lattice points, many of which are at the same distance from the query point.
+        Random random = TestUtils.rng();
+        int numPoints = 3 * ScanKernels.MIN_VECTOR_LENGTH + 5;
+        double[] xs = new double[numPoints];
+        double[] ys = new double[numPoints];
+        for (int i = 0; i < 100; i++) {
+            for (int j = 0; j < numPoints; j++) {
+                xs[j] = random.nextInt(5);
+                ys[j] = random.nextInt(5);
+            }
+            int x = random.nextInt(5);
+            int y = random.nextInt(5);
+            assertThat(ScanKernels.findClosestIndex(xs, ys, 0, numPoints, x, y)).isEqualTo(scanClosestIndex(xs, ys, 0, numPoints, x, y));
+        }
+        assertThat(ScanKernels.findClosestIndex(xs, ys, 0, 0, 0, 0)).isEqualTo(-1);
+    }
+
+    @Test
+    public void testFindClosestIndex_distancesOverflow() {
+        // Every squared distance to the query points is infinite.
+        Random random = TestUtils.rng();
+        int numPoints = 3 * ScanKernels.MIN_VECTOR_LENGTH + 5;
+        double[] xs = randomCoordinates(numPoints, random);
+        double[] ys = randomCoordinates(numPoints, random);
+        for (int start : new int[] { 0, 3, numPoints - 1 }) {
+            int expected = start;
+            for (int i = start; i < numPoints; i++)
+                if (Math.hypot(xs[i] + 1e300, ys[i] - 1e300) < Math.hypot(xs[expected] + 1e300, ys[expected] - 1e300))
+                    expected = i;
+            assertThat(ScanKernels.findClosestIndex(xs, ys, start, numPoints, -1e300, 1e300)).isEqualTo(expected);
+            assertThat(ScanKernels.findClosestIndex(xs, ys, start, numPoints, Double.NaN, 0)).isEqualTo(start);
+        }
+        Arrays.fill(xs, Double.MAX_VALUE);
+        Arrays.fill(ys, -Double.MAX_VALUE);
+        xs[7] = Double.MAX_VALUE / 2;
+        assertThat(ScanKernels.findClosestIndex(xs, ys, 0, numPoints, -Double.MAX_VALUE, Double.MAX_VALUE)).isEqualTo(7);
+    }
+
+    @Test
+    public void testFindOrientations_matchesPredicates() {
+        Random random = TestUtils.rng();
+        for (int i = 0; i < 200; i++) {
+            int numPoints = random.nextInt(4 * ScanKernels.MIN_VECTOR_LENGTH);
+            double[] xs = new double[numPoints];
+            double[] ys = new double[numPoints];
+            double ax = random.nextDouble();
+            double ay = random.nextDouble();
+            double bx = ax + random.nextDouble() * 100;
+            double by = ay + random.nextDouble() * 100;
+            for (int j = 0; j < numPoints; j++) {
+                // Half of the points are very close to the line, so their plain cross products may
+                // have the wrong sign.
+                double t = random.nextDouble() * 2 - 0.5;
+                xs[j] = ax + t * (bx - ax) + (random.nextBoolean() ? random.nextGaussian() : random.nextInt(3) - 1) * Math.ulp(bx);
+                ys[j] = ay + t * (by - ay);
+            }
+            int start = numPoints == 0 ? 0 : random.nextInt(numPoints);
+            int end = start + random.nextInt(numPoints - start + 1);
+            double[] orientations = new double[end - start];
+            ScanKernels.findOrientations(ax, ay, bx, by, xs, ys, start, end, orientations);
+            for (int j = start; j < end; j++)
+                assertThat(orientations[j - start]).isEqualTo(Predicates.orientation(ax, ay, bx, by, xs[j], ys[j]));
+        }
+    }
+
+    private static int scanClosestIndex(double[] xs, double[] ys, int start, int end, double x, double y) {
+        int closest = -1;
+        for (int i = start; i < end; i++)
+            if (closest == -1 || distanceSquared(xs[i], ys[i], x, y) < distanceSquared(xs[closest], ys[closest], x, y))
+                closest = i;
+        return closest;
+    }
+
+    private static double distanceSquared(double x1, double y1, double x2, double y2) {
+        return (x1 - x2) * (x1 - x2) + (y1 - y2) * (y1 - y2);
+    }
+
+    private static double[] randomCoordinates(int numPoints, Random random) {
+        double[] coordinates = new double[numPoints];
+        for (int i = 0; i < numPoints; i++)
+            coordinates[i] = random.nextDouble() * 1000;
+        return coordinates;
+    }
+}
@@ -1,12 +1,21 @@
 package io.github.ejif.geometry.algorithm;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
 
 import org.junit.Test;
 
+import com.google.common.collect.ImmutableList;
+
 import io.github.ejif.geometry.DirectedEdge;
 import io.github.ejif.geometry.Point;
 import io.github.ejif.geometry.TestUtils;
+import io.github.ejif.geometry.VoronoiDiagram.Border;
 
 public final class TrapezoidalMapTest {
 
@@ -195,4 +204,34 @@ public final class TrapezoidalMapTest {
         assertThat(map.findRegion(new Point(-50, -200))).isEqualTo(4);
         assertThat(map.findRegion(new Point(50, -150))).isEqualTo(4);
     }
+
+    @Test
+    public void testAddEdges_matchesAddEdge() {
+        Random random = TestUtils.rng();
+        List<Point> points = TestUtils.randomPoints(500, random);
+        List<Border> borders = new ArrayList<>(Voronoi.createVoronoiDiagram(points).getBorders());
+        Collections.shuffle(borders, random);
+        List<DirectedEdge> edges = new ArrayList<>();
+        int[] leftRegions = new int[borders.size()];
+        int[] rightRegions = new int[borders.size()];
+        for (int i = 0; i < borders.size(); i++) {
+            edges.add(borders.get(i).getEdge());
+            leftRegions[i] = borders.get(i).getLeftPointIndex();
+            rightRegions[i] = borders.get(i).getRightPointIndex();
+        }
+        for (int i = 0; i < edges.size(); i++)
+            map.addEdge(edges.get(i), leftRegions[i], rightRegions[i]);
+        TrapezoidalMap bulkMap = new TrapezoidalMap(TestUtils.rng());
+        bulkMap.addEdges(edges, leftRegions, rightRegions);
+
+        assertThat(bulkMap.getDepth()).isEqualTo(map.getDepth());
+        for (Point p : TestUtils.randomPoints(10000, random))
+            assertThat(bulkMap.findRegion(p)).isEqualTo(map.findRegion(p));
+    }
+
+    @Test
+    public void testAddEdges_failsForMismatchedRegions() {
+        assertThatThrownBy(() -> map.addEdges(ImmutableList.of(DirectedEdge.line(new Point(0, 0), new Point(1, 0))), new int[1], new int[0]))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
 }
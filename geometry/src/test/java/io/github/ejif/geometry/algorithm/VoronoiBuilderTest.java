@@ -0,0 +1,79 @@
+package io.github.ejif.geometry.algorithm;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import io.github.ejif.geometry.Point;
+import io.github.ejif.geometry.TestUtils;
+import io.github.ejif.geometry.VoronoiDiagram.Border;
+
+public final class VoronoiBuilderTest {
+
+    @Test
+    public void testCreateVoronoiDiagram_reusedBuilderMatchesNewBuilder() {
+        Random random = TestUtils.rng();
+        VoronoiBuilder builder = new VoronoiBuilder();
+        for (int i = 0; i < 20; i++) {
+            List<Point> points = i % 2 == 0
+                    ? TestUtils.randomPoints(random.nextInt(200), random)
+                    : TestUtils.randomLatticePoints(1 + random.nextInt(50), random);
+            assertThat(builder.createVoronoiDiagram(points)).isEqualTo(new VoronoiBuilder().createVoronoiDiagram(points));
+            assertThat(builder.createDelaunayTriangulation(points).getNumTriangles())
+                .isEqualTo(new VoronoiBuilder().createDelaunayTriangulation(points).getNumTriangles());
+        }
+        List<Point> collinearPoints = ImmutableList.of(new Point(0, 0), new Point(100, 0), new Point(300, 0));
+        assertThat(builder.createVoronoiDiagram(collinearPoints)).isEqualTo(Voronoi.createVoronoiDiagram(collinearPoints));
+    }
+
+    @Test
+    public void testCreateVoronoiDiagram_bordersOfLargeDiagramsAreEquidistant() {
+        // Enough points for the borders to be built in parallel.
+        Random random = TestUtils.rng();
+        List<Point> points = TestUtils.randomPoints(VoronoiBuilder.PARALLEL_THRESHOLD / 2, random);
+        Set<Border> borders = new VoronoiBuilder().createVoronoiDiagram(points).getBorders();
+        assertThat(borders.size()).isGreaterThanOrEqualTo(VoronoiBuilder.PARALLEL_THRESHOLD);
+        int numChecked = 0;
+        for (Border border : borders) {
+            Point vertex = border.getEdge().getStartPoint();
+            if (vertex == null || numChecked++ == 100)
+                continue;
+            double distance = Points.distance(vertex, points.get(border.getLeftPointIndex()));
+            assertThat(Points.distance(vertex, points.get(border.getRightPointIndex()))).isCloseTo(distance, within(1e-6));
+            double minDistance = Double.POSITIVE_INFINITY;
+            for (Point point : points)
+                minDistance = Math.min(minDistance, Points.distance(vertex, point));
+            assertThat(minDistance).isCloseTo(distance, within(1e-6));
+        }
+    }
+
+    @Test
+    public void testBuild_reusedPointSetBuilderFindsClosestPoints() {
+        Random random = TestUtils.rng();
+        PointSetBuilder builder = new PointSetBuilder(TestUtils.rng());
+        for (int i = 0; i < 20; i++) {
+            List<Point> anchorPoints = TestUtils.randomPoints(1 + random.nextInt(200), random);
+            PointSet points = builder.build(anchorPoints);
+            for (Point p : TestUtils.randomPoints(20, random)) {
+                Point closest = points.findClosestPoint(p);
+                for (Point anchorPoint : anchorPoints)
+                    assertThat(Points.distance(p, closest)).isLessThanOrEqualTo(Points.distance(p, anchorPoint));
+            }
+        }
+    }
+
+    @Test(timeout = 1000) // milliseconds
+    public void testCreateVoronoiDiagram_isPerformantWhenReused() {
+        Random random = TestUtils.rng();
+        VoronoiBuilder builder = new VoronoiBuilder();
+        for (int i = 0; i < 100; i++)
+            builder.createVoronoiDiagram(TestUtils.randomPoints(100, random));
+    }
+}
@@ -0,0 +1,81 @@
+package io.github.ejif.geometry.algorithm;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import io.github.ejif.geometry.PixelTransform;
+import io.github.ejif.geometry.Point;
+import io.github.ejif.geometry.Rectangle;
+import io.github.ejif.geometry.TestUtils;
+
+public final class VoronoiRasterizerTest {
+
+    private static final Rectangle BOUNDS = new Rectangle(-50, -50, 1050, 1050);
+
+    @Test
+    public void testRasterize_randomPoints() {
+        Random random = TestUtils.rng();
+        for (int i = 0; i < 5; i++)
+            assertLabelsAreClosest(TestUtils.randomPoints(1 + 20 * i, random), 97, 61, PixelTransform.fitting(BOUNDS, 97, 61));
+    }
+
+    @Test
+    public void testRasterize_latticePoints() {
+        Random random = TestUtils.rng();
+        for (int i = 0; i < 5; i++)
+            assertLabelsAreClosest(TestUtils.randomLatticePoints(5 + 10 * i, random), 100, 100, PixelTransform.fitting(BOUNDS, 100, 100));
+    }
+
+    @Test
+    public void testRasterize_collinearPoints() {
+        assertLabelsAreClosest(ImmutableList.of(new Point(0, 0), new Point(500, 500), new Point(600, 600)),
+            50, 50, PixelTransform.fitting(BOUNDS, 50, 50));
+    }
+
+    @Test
+    public void testRasterize_rotatedTransform() {
+        assertLabelsAreClosest(TestUtils.randomPoints(50, TestUtils.rng()), 80, 60, new PixelTransform(6, -8, 500, 8, 6, -200));
+    }
+
+    @Test
+    public void testRasterize_parallelMatchesSequential() {
+        List<Point> points = TestUtils.randomPoints(200, TestUtils.rng());
+        VoronoiRasterizer rasterizer = new VoronoiRasterizer(
+            VoronoiAdjacency.create(points, Voronoi.createVoronoiDiagram(points)), 300, 200, PixelTransform.fitting(BOUNDS, 300, 200));
+        assertThat(rasterizer.rasterize(true)).isEqualTo(rasterizer.rasterize(false));
+    }
+
+    @Test
+    public void testRasterize_failsForEmptyPointSet() {
+        List<Point> points = ImmutableList.of();
+        VoronoiAdjacency adjacency = VoronoiAdjacency.create(points, Voronoi.createVoronoiDiagram(points));
+        assertThatThrownBy(() -> new VoronoiRasterizer(adjacency, 10, 10, PixelTransform.fitting(BOUNDS, 10, 10)))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test(timeout = 1000) // milliseconds
+    public void testRasterize_isPerformant() {
+        List<Point> points = TestUtils.randomPoints(1000, TestUtils.rng());
+        VoronoiAdjacency adjacency = VoronoiAdjacency.create(points, Voronoi.createVoronoiDiagram(points));
+        new VoronoiRasterizer(adjacency, 2000, 2000, PixelTransform.fitting(BOUNDS, 2000, 2000)).rasterize(true);
+    }
+
+    private static void assertLabelsAreClosest(List<Point> points, int width, int height, PixelTransform transform) {
+        int[] labels = new VoronoiRasterizer(
+            VoronoiAdjacency.create(points, Voronoi.createVoronoiDiagram(points)), width, height, transform).rasterize(false);
+        for (int row = 0; row < height; row++)
+            for (int col = 0; col < width; col++) {
+                Point pixel = new Point(transform.getX(col, row), transform.getY(col, row));
+                double expected = Points.distance(pixel, TestUtils.findClosestPoint(points, pixel));
+                assertThat(Points.distance(pixel, points.get(labels[row * width + col]))).isCloseTo(expected, within(1e-9));
+            }
+    }
+}
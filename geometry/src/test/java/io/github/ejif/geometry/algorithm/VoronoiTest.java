@@ -33,7 +33,7 @@ public final class VoronoiTest {
     @Test(timeout = 1000) // milliseconds
     public void testCreateVoronoiDiagram_isPerformant() {
         // Ensure that DEBUG logging, which is not performant, is disabled.
-        assertThat(LoggerFactory.getLogger(Voronoi.class).isDebugEnabled()).isFalse();
+        assertThat(LoggerFactory.getLogger(VoronoiBuilder.class).isDebugEnabled()).isFalse();
         Voronoi.createVoronoiDiagram(TestUtils.randomPoints(10000, TestUtils.rng()));
     }
 }
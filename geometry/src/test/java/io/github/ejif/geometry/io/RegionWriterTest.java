@@ -0,0 +1,71 @@
+package io.github.ejif.geometry.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import io.github.ejif.geometry.Point;
+import io.github.ejif.geometry.Rectangle;
+import io.github.ejif.geometry.TestUtils;
+import io.github.ejif.geometry.algorithm.RegionClipper;
+import io.github.ejif.geometry.algorithm.Voronoi;
+import io.github.ejif.geometry.algorithm.VoronoiAdjacency;
+
+public final class RegionWriterTest {
+
+    private static final Rectangle BOUNDS = new Rectangle(0, 0, 1000, 1000);
+
+    @Test
+    public void testGeoJson_writesClosedPolygons() throws IOException {
+        List<Point> points = ImmutableList.of(new Point(250, 500), new Point(750, 500));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        RegionWriter.writeRegions(points, Voronoi.createVoronoiDiagram(points), BOUNDS, new GeoJsonRegionWriter(out));
+        assertThat(new String(out.toByteArray(), StandardCharsets.UTF_8)).isEqualTo("{\"type\":\"FeatureCollection\",\"features\":["
+                + "{\"type\":\"Feature\",\"properties\":{\"pointIndex\":0},\"geometry\":{\"type\":\"Polygon\",\"coordinates\":"
+                + "[[[0.0,0.0],[500.0,0.0],[500.0,1000.0],[0.0,1000.0],[0.0,0.0]]]}},"
+                + "{\"type\":\"Feature\",\"properties\":{\"pointIndex\":1},\"geometry\":{\"type\":\"Polygon\",\"coordinates\":"
+                + "[[[500.0,0.0],[1000.0,0.0],[1000.0,1000.0],[500.0,1000.0],[500.0,0.0]]]}}]}");
+    }
+
+    @Test
+    public void testGeoJson_writesEmptyCollection() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        RegionWriter.writeRegions(ImmutableList.of(), Voronoi.createVoronoiDiagram(ImmutableList.of()), BOUNDS, new GeoJsonRegionWriter(out));
+        assertThat(new String(out.toByteArray(), StandardCharsets.UTF_8)).isEqualTo("{\"type\":\"FeatureCollection\",\"features\":[]}");
+    }
+
+    @Test
+    public void testWkb_writesClippedRegions() throws IOException {
+        List<Point> points = TestUtils.randomPoints(200, TestUtils.rng());
+        Rectangle bounds = new Rectangle(100, 100, 600, 400);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        RegionWriter.writeRegions(points, Voronoi.createVoronoiDiagram(points), bounds, new WkbRegionWriter(out));
+
+        RegionClipper clipper = new RegionClipper(VoronoiAdjacency.create(points, Voronoi.createVoronoiDiagram(points)), bounds);
+        ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray()).order(ByteOrder.LITTLE_ENDIAN);
+        int numRegions = 0;
+        while (buffer.hasRemaining()) {
+            int pointIndex = buffer.getInt();
+            int numVertices = clipper.clip(pointIndex);
+            assertThat(buffer.get()).isEqualTo((byte) 1);
+            assertThat(buffer.getInt()).isEqualTo(3);
+            assertThat(buffer.getInt()).isEqualTo(1);
+            assertThat(buffer.getInt()).isEqualTo(numVertices + 1);
+            for (int i = 0; i <= numVertices; i++) {
+                assertThat(buffer.getDouble()).isEqualTo(clipper.getXs()[i % numVertices]);
+                assertThat(buffer.getDouble()).isEqualTo(clipper.getYs()[i % numVertices]);
+            }
+            numRegions++;
+        }
+        assertThat(numRegions).isBetween(1, points.size() - 1);
+    }
+}
@@ -0,0 +1,107 @@
+package io.github.ejif.geometry.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import io.github.ejif.geometry.Point;
+import io.github.ejif.geometry.TestUtils;
+import io.github.ejif.geometry.VoronoiDiagram;
+import io.github.ejif.geometry.algorithm.Voronoi;
+
+public final class TiledVoronoiBuilderTest {
+
+    @Test
+    public void testBuild_matchesVoronoiDiagram() throws IOException {
+        List<Point> points = TestUtils.randomPoints(5000, TestUtils.rng());
+        TiledVoronoiBuilder builder = new TiledVoronoiBuilder(200, true);
+        assertThat(build(builder, points)).isEqualTo(Voronoi.createVoronoiDiagram(points));
+        assertThat(builder.getNumPasses()).isBetween(2, 4);
+    }
+
+    @Test
+    public void testBuild_widensHalosAroundEmptyAreas() throws IOException {
+        // A dense cluster in one corner, and a few points far away from it, whose borders cross the
+        // empty tiles between them.
+        Random random = TestUtils.rng();
+        List<Point> points = new ArrayList<>();
+        for (int i = 0; i < 2000; i++)
+            points.add(new Point(random.nextDouble() * 100, random.nextDouble() * 100));
+        for (int i = 0; i < 5; i++)
+            points.add(new Point(900 + random.nextDouble() * 100, random.nextDouble() * 1000));
+        TiledVoronoiBuilder builder = new TiledVoronoiBuilder(100, false);
+        assertThat(build(builder, points)).isEqualTo(Voronoi.createVoronoiDiagram(points));
+        assertThat(builder.getNumPasses()).isGreaterThan(2);
+    }
+
+    @Test
+    public void testBuild_boundsTileSizeBetweenClusters() throws IOException {
+        // Two clusters on opposite sides of the bounding box, whose borders cross the empty area
+        // between them. A tile next to the gap only needs the sites near the far edge of the gap.
+        Random random = TestUtils.rng();
+        List<Point> points = new ArrayList<>();
+        for (int i = 0; i < 4000; i++)
+            points.add(new Point((i % 2 == 0 ? 0 : 900) + random.nextDouble() * 100, random.nextDouble() * 1000));
+        TiledVoronoiBuilder builder = new TiledVoronoiBuilder(100, true);
+        assertThat(build(builder, points)).isEqualTo(Voronoi.createVoronoiDiagram(points));
+        assertThat(builder.getMaxTileSites()).isLessThan(points.size() / 4);
+    }
+
+    @Test
+    public void testBuild_latticePoints() throws IOException {
+        List<Point> points = TestUtils.randomLatticePoints(2000, TestUtils.rng());
+        assertThat(build(new TiledVoronoiBuilder(100, true), points)).isEqualTo(Voronoi.createVoronoiDiagram(points));
+    }
+
+    @Test
+    public void testBuild_collinearPoints() throws IOException {
+        List<Point> points = ImmutableList.of(new Point(0, 0), new Point(100, 0), new Point(300, 0), new Point(700, 0));
+        assertThat(build(new TiledVoronoiBuilder(1, false), points)).isEqualTo(Voronoi.createVoronoiDiagram(points));
+    }
+
+    @Test
+    public void testBuild_noPoints() throws IOException {
+        assertThat(build(new TiledVoronoiBuilder(), ImmutableList.of()).getBorders()).isEmpty();
+    }
+
+    @Test
+    public void testBuild_failsForTruncatedFile() throws IOException {
+        Path sitesFile = Files.createTempFile("sites", null);
+        try {
+            Files.write(sitesFile, new byte[3 * Double.BYTES]);
+            assertThatThrownBy(() -> new TiledVoronoiBuilder().build(sitesFile, Channels.newChannel(new ByteArrayOutputStream())))
+                .isInstanceOf(IOException.class);
+        } finally {
+            Files.delete(sitesFile);
+        }
+    }
+
+    private static VoronoiDiagram build(TiledVoronoiBuilder builder, List<Point> points) throws IOException {
+        Path sitesFile = Files.createTempFile("sites", null);
+        try {
+            try (FileChannel channel = FileChannel.open(sitesFile, StandardOpenOption.WRITE)) {
+                TiledVoronoiBuilder.writeSites(points, channel);
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            builder.build(sitesFile, Channels.newChannel(out));
+            return VoronoiDiagramReader.read(Channels.newChannel(new ByteArrayInputStream(out.toByteArray())));
+        } finally {
+            Files.delete(sitesFile);
+        }
+    }
+}
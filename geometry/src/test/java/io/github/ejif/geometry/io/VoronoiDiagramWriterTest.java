@@ -0,0 +1,110 @@
+package io.github.ejif.geometry.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import io.github.ejif.geometry.DirectedEdge;
+import io.github.ejif.geometry.Point;
+import io.github.ejif.geometry.TestUtils;
+import io.github.ejif.geometry.VoronoiDiagram;
+import io.github.ejif.geometry.VoronoiDiagram.Border;
+import io.github.ejif.geometry.algorithm.Voronoi;
+
+public final class VoronoiDiagramWriterTest {
+
+    @Test
+    public void testRoundTrip_randomPoints() throws IOException {
+        Random random = TestUtils.rng();
+        for (int i = 0; i < 10; i++)
+            assertRoundTrip(TestUtils.randomPoints(1 + 50 * i, random));
+    }
+
+    @Test
+    public void testRoundTrip_latticePoints() throws IOException {
+        Random random = TestUtils.rng();
+        for (int i = 0; i < 10; i++)
+            assertRoundTrip(TestUtils.randomLatticePoints(5 + 10 * i, random));
+    }
+
+    @Test
+    public void testRoundTrip_collinearPoints() throws IOException {
+        assertRoundTrip(ImmutableList.of(new Point(0, 0), new Point(100, 0), new Point(300, 0)));
+    }
+
+    @Test
+    public void testRoundTrip_explicitLine() throws IOException {
+        VoronoiDiagram diagram = new VoronoiDiagram(ImmutableSet.of(
+            new Border(0, 1, DirectedEdge.ray(new Point(1, 2), 3, 4)),
+            new Border(1, 2, DirectedEdge.segment(new Point(1, 2), new Point(-5, 7)))));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        VoronoiDiagramWriter writer = new VoronoiDiagramWriter(Channels.newChannel(out));
+        for (Border border : diagram.getBorders())
+            writer.writeBorder(border, null, null);
+        writer.finish();
+        assertThat(read(out.toByteArray())).isEqualTo(diagram);
+    }
+
+    @Test
+    public void testRoundTrip_evictedVertices() throws IOException {
+        List<Point> points = TestUtils.randomPoints(500, TestUtils.rng());
+        VoronoiDiagram diagram = Voronoi.createVoronoiDiagram(points);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        VoronoiDiagramWriter writer = new VoronoiDiagramWriter(Channels.newChannel(out), 2);
+        for (Border border : diagram.getBorders())
+            writer.writeBorder(border, points.get(border.getLeftPointIndex()), points.get(border.getRightPointIndex()));
+        writer.finish();
+        assertThat(read(out.toByteArray())).isEqualTo(diagram);
+    }
+
+    @Test
+    public void testWrite_isCompact() throws IOException {
+        List<Point> points = TestUtils.randomPoints(1000, TestUtils.rng());
+        VoronoiDiagram diagram = Voronoi.createVoronoiDiagram(points);
+        // Each border would take at least 4 doubles (its two end-points) if vertices weren't shared.
+        assertThat(write(points, diagram).length).isLessThan(diagram.getBorders().size() * 4 * Double.BYTES);
+    }
+
+    @Test
+    public void testRead_failsForTruncatedInput() throws IOException {
+        List<Point> points = TestUtils.randomPoints(100, TestUtils.rng());
+        byte[] bytes = write(points, Voronoi.createVoronoiDiagram(points));
+        assertThatThrownBy(() -> read(Arrays.copyOf(bytes, bytes.length - 1))).isInstanceOf(EOFException.class);
+    }
+
+    @Test
+    public void testRead_failsForOtherInput() {
+        assertThatThrownBy(() -> read(new byte[] { 1, 2, 3, 4, 5, 6 })).isInstanceOf(IOException.class);
+    }
+
+    private static void assertRoundTrip(List<Point> points) throws IOException {
+        VoronoiDiagram diagram = Voronoi.createVoronoiDiagram(points);
+        assertThat(read(write(points, diagram))).isEqualTo(diagram);
+    }
+
+    private static byte[] write(List<Point> points, VoronoiDiagram diagram) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (WritableByteChannel channel = Channels.newChannel(out)) {
+            VoronoiDiagramWriter.write(points, diagram, channel);
+        }
+        return out.toByteArray();
+    }
+
+    private static VoronoiDiagram read(byte[] bytes) throws IOException {
+        return VoronoiDiagramReader.read(Channels.newChannel(new ByteArrayInputStream(bytes)));
+    }
+}
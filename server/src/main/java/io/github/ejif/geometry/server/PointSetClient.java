@@ -0,0 +1,120 @@
+package io.github.ejif.geometry.server;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+
+/**
+ * A connection to a {@link PointSetServer} on the same host, which finds closest points in the
+ * point sets that it hosts. The indices of closest points are those in the list of points that the
+ * point set was created from.
+ *
+ * A client is not thread-safe; use one client per thread. Concurrent single-point queries from
+ * several clients are answered in batches by the server.
+ */
+public final class PointSetClient implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Socket socket;
+    private final DataInputStream input;
+    private final DataOutputStream output;
+
+    /**
+     * Connects to the server listening on the given port of the loopback address.
+     *
+     * @param port
+     *            the port of the server
+     * @throws IOException
+     *             if the connection fails
+     */
+    public PointSetClient(int port) throws IOException {
+        this.socket = new Socket(InetAddress.getLoopbackAddress(), port);
+        socket.setTcpNoDelay(true);
+        this.input = new DataInputStream(new BufferedInputStream(socket.getInputStream(), BUFFER_SIZE));
+        this.output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), BUFFER_SIZE));
+    }
+
+    /**
+     * Finds the index of the closest point in the given point set to the given point. If there are
+     * multiple closest points, an arbitrary one is returned.
+     *
+     * @param name
+     *            the name of the point set
+     * @param x
+     *            the x coordinate of the point
+     * @param y
+     *            the y coordinate of the point
+     * @return the index of the closest point, or -1 if the point set contains no points
+     * @throws IllegalArgumentException
+     *             if the server hosts no point set with the given name
+     * @throws IOException
+     *             if the connection fails, or the server fails to answer the request
+     */
+    public int findClosestIndex(String name, double x, double y) throws IllegalArgumentException, IOException {
+        output.writeByte(Protocol.FIND_CLOSEST_INDEX);
+        output.writeUTF(name);
+        output.writeDouble(x);
+        output.writeDouble(y);
+        output.flush();
+        readStatus(name);
+        return input.readInt();
+    }
+
+    /**
+     * Finds the index of the closest point in the given point set to each of the given points, in
+     * one request. If there are multiple closest points, an arbitrary one is used.
+     *
+     * @param name
+     *            the name of the point set
+     * @param xs
+     *            the x coordinates of the points
+     * @param ys
+     *            the y coordinates of the points
+     * @param indices
+     *            the array to write the index of the closest point of each point to, or -1 if the
+     *            point set contains no points
+     * @throws IllegalArgumentException
+     *             if the server hosts no point set with the given name, the arrays don't have the
+     *             same length, or there are too many points for one request
+     * @throws IOException
+     *             if the connection fails, or the server fails to answer the request
+     */
+    public void findClosestIndices(String name, double[] xs, double[] ys, int[] indices) throws IllegalArgumentException, IOException {
+        if (xs.length != ys.length || xs.length != indices.length)
+            throw new IllegalArgumentException("Coordinate and index arrays must have the same length.");
+        if (xs.length > Protocol.MAX_BATCH_SIZE)
+            throw new IllegalArgumentException("At most " + Protocol.MAX_BATCH_SIZE + " points can be sent at once.");
+        output.writeByte(Protocol.FIND_CLOSEST_INDICES);
+        output.writeUTF(name);
+        output.writeInt(xs.length);
+        for (int i = 0; i < xs.length; i++) {
+            output.writeDouble(xs[i]);
+            output.writeDouble(ys[i]);
+        }
+        output.flush();
+        readStatus(name);
+        for (int i = 0; i < indices.length; i++)
+            indices[i] = input.readInt();
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+
+    private void readStatus(String name) throws IllegalArgumentException, IOException {
+        int status = input.readUnsignedByte();
+        if (status == Protocol.UNKNOWN_POINT_SET)
+            throw new IllegalArgumentException("No point set named " + name + ".");
+        if (status == Protocol.FAILED)
+            throw new IOException("Server failed to answer a query to point set " + name + ".");
+        if (status != Protocol.OK)
+            throw new IOException("Unknown status " + status + ".");
+    }
+}
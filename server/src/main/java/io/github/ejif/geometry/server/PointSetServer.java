@@ -0,0 +1,290 @@
+package io.github.ejif.geometry.server;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import io.github.ejif.geometry.algorithm.PointSet;
+
+/**
+ * Hosts named {@link PointSet}s on the loopback address, so that the processes on a host can share
+ * one index of each instead of building their own. Clients connect with {@link PointSetClient}, over
+ * the binary protocol of {@link Protocol}.
+ *
+ * Each connection is served on its own virtual thread if the JVM supports them (Java 21 or later),
+ * and otherwise on a pooled platform thread. Single-point queries from all connections to the same
+ * point set are coalesced into batches for {@link PointSet#findClosestIndices}, which resolves them
+ * in Hilbert curve order, as configured by {@link PointSetServerOptions}; batches sent by clients
+ * are answered as they are.
+ */
+public final class PointSetServer implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(PointSetServer.class);
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final PointSetServerOptions options;
+    private final PointSetServerMetrics metrics = new PointSetServerMetrics();
+    private final ConcurrentMap<String, Hosted> pointSets = new ConcurrentHashMap<>();
+    private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+    private final ServerSocket serverSocket;
+    private final ExecutorService connectionExecutor;
+
+    /**
+     * Starts a server with the default options, listening on a free port.
+     *
+     * @throws IOException
+     *             if the server socket cannot be opened
+     */
+    public PointSetServer() throws IOException {
+        this(PointSetServerOptions.DEFAULT);
+    }
+
+    /**
+     * Starts a server with the given options.
+     *
+     * @param options
+     *            the options
+     * @throws IllegalArgumentException
+     *             if the maximum batch size is not positive, or the maximum batch wait is negative
+     * @throws IOException
+     *             if the server socket cannot be opened
+     */
+    public PointSetServer(PointSetServerOptions options) throws IllegalArgumentException, IOException {
+        if (options.getMaxBatchSize() <= 0)
+            throw new IllegalArgumentException("Maximum batch size must be positive.");
+        if (options.getMaxBatchWaitNanos() < 0)
+            throw new IllegalArgumentException("Maximum batch wait must not be negative.");
+        this.options = options;
+        this.serverSocket = new ServerSocket(options.getPort(), 0, InetAddress.getLoopbackAddress());
+        this.connectionExecutor = newConnectionExecutor();
+        Thread acceptThread = new Thread(this::acceptConnections, "point-set-server-" + serverSocket.getLocalPort());
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+    }
+
+    /**
+     * Returns the port that this server listens on.
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Returns the metrics of the queries answered by this server.
+     */
+    public PointSetServerMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Hosts the given point set under the given name, replacing the point set with that name if
+     * there is one. Queries already waiting for the replaced point set are still answered by it.
+     *
+     * @param name
+     *            the name that clients query the point set by
+     * @param pointSet
+     *            the point set
+     */
+    public void addPointSet(String name, PointSet pointSet) {
+        QueryBatcher batcher = new QueryBatcher(name, pointSet, options.getMaxBatchSize(), options.getMaxBatchWaitNanos(), metrics);
+        Hosted replaced = pointSets.put(name, new Hosted(pointSet, batcher));
+        if (replaced != null)
+            replaced.batcher.close();
+    }
+
+    /**
+     * Stops hosting the point set with the given name. Queries already waiting for it are still
+     * answered.
+     *
+     * @param name
+     *            the name of the point set
+     * @return whether there was a point set with the name
+     */
+    public boolean removePointSet(String name) {
+        Hosted removed = pointSets.remove(name);
+        if (removed == null)
+            return false;
+        removed.batcher.close();
+        return true;
+    }
+
+    /**
+     * Stops listening for connections, and closes the open connections.
+     */
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        for (Socket connection : connections)
+            connection.close();
+        connectionExecutor.shutdown();
+        for (Hosted hosted : pointSets.values())
+            hosted.batcher.close();
+    }
+
+    /**
+     * Returns an executor that runs each connection on a new virtual thread, or on a pooled daemon
+     * thread if virtual threads are not available. The server is compiled for Java 8, so virtual
+     * threads are created by reflection.
+     */
+    private static ExecutorService newConnectionExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+                .setNameFormat("point-set-connection-%d")
+                .setDaemon(true)
+                .build());
+        }
+    }
+
+    private void acceptConnections() {
+        while (true) {
+            Socket connection;
+            try {
+                connection = serverSocket.accept();
+            } catch (IOException e) {
+                if (!serverSocket.isClosed())
+                    log.warn("Failed to accept a connection", e);
+                return;
+            }
+            connections.add(connection);
+            try {
+                connectionExecutor.execute(() -> serve(connection));
+            } catch (RejectedExecutionException e) {
+                // The server was closed.
+                closeQuietly(connection);
+                return;
+            }
+        }
+    }
+
+    private void serve(Socket connection) {
+        try {
+            connection.setTcpNoDelay(true);
+            DataInputStream input = new DataInputStream(new BufferedInputStream(connection.getInputStream(), BUFFER_SIZE));
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(connection.getOutputStream(), BUFFER_SIZE));
+            while (true) {
+                int request = input.read();
+                if (request == -1)
+                    return;
+                if (request == Protocol.FIND_CLOSEST_INDEX)
+                    findClosestIndex(input, output);
+                else if (request == Protocol.FIND_CLOSEST_INDICES)
+                    findClosestIndices(input, output);
+                else
+                    throw new IOException("Unknown request " + request + ".");
+                // Clients may send several requests before reading the responses, so only flush
+                // once they have all been answered.
+                if (input.available() == 0)
+                    output.flush();
+            }
+        } catch (EOFException e) {
+            log.debug("Connection closed in the middle of a request", e);
+        } catch (IOException e) {
+            if (!connection.isClosed())
+                log.debug("Closing connection", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            connections.remove(connection);
+            closeQuietly(connection);
+        }
+    }
+
+    private void findClosestIndex(DataInputStream input, DataOutputStream output) throws IOException, InterruptedException {
+        String name = input.readUTF();
+        double x = input.readDouble();
+        double y = input.readDouble();
+        Hosted hosted = pointSets.get(name);
+        if (hosted == null) {
+            output.writeByte(Protocol.UNKNOWN_POINT_SET);
+            return;
+        }
+        int index;
+        try {
+            index = hosted.batcher.findClosestIndex(x, y);
+        } catch (ExecutionException e) {
+            log.warn("Failed to answer a query to point set " + name, e.getCause());
+            output.writeByte(Protocol.FAILED);
+            return;
+        }
+        output.writeByte(Protocol.OK);
+        output.writeInt(index);
+    }
+
+    private void findClosestIndices(DataInputStream input, DataOutputStream output) throws IOException {
+        String name = input.readUTF();
+        int numPoints = input.readInt();
+        if (numPoints < 0 || numPoints > Protocol.MAX_BATCH_SIZE)
+            throw new IOException("Invalid number of points " + numPoints + ".");
+        double[] xs = new double[numPoints];
+        double[] ys = new double[numPoints];
+        for (int i = 0; i < numPoints; i++) {
+            xs[i] = input.readDouble();
+            ys[i] = input.readDouble();
+        }
+        long startNanos = System.nanoTime();
+        Hosted hosted = pointSets.get(name);
+        if (hosted == null) {
+            output.writeByte(Protocol.UNKNOWN_POINT_SET);
+            return;
+        }
+        int[] indices = new int[numPoints];
+        try {
+            if (hosted.pointSet.getPoints().isEmpty())
+                Arrays.fill(indices, -1);
+            else
+                hosted.pointSet.findClosestIndices(xs, ys, indices);
+        } catch (RuntimeException e) {
+            log.warn("Failed to answer a query to point set " + name, e);
+            output.writeByte(Protocol.FAILED);
+            return;
+        }
+        long latencyNanos = System.nanoTime() - startNanos;
+        metrics.recordBatch(numPoints);
+        metrics.recordLatency(latencyNanos, numPoints);
+        output.writeByte(Protocol.OK);
+        for (int index : indices)
+            output.writeInt(index);
+    }
+
+    private static void closeQuietly(Socket connection) {
+        try {
+            connection.close();
+        } catch (IOException e) {
+            log.debug("Failed to close connection", e);
+        }
+    }
+
+    private static final class Hosted {
+
+        final PointSet pointSet;
+        final QueryBatcher batcher;
+
+        Hosted(PointSet pointSet, QueryBatcher batcher) {
+            this.pointSet = pointSet;
+            this.batcher = batcher;
+        }
+    }
+}
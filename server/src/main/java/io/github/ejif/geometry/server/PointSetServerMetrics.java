@@ -0,0 +1,109 @@
+package io.github.ejif.geometry.server;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the queries answered by a {@link PointSetServer}, and the batches they were answered in.
+ *
+ * Latencies and batch sizes are recorded in histograms with a bucket per power of two, so their
+ * quantiles are upper bounds that are at most twice the exact value. All methods are thread-safe.
+ */
+public final class PointSetServerMetrics {
+
+    private static final int NUM_BUCKETS = Long.SIZE;
+
+    private final LongAdder numQueries = new LongAdder();
+    private final LongAdder numBatches = new LongAdder();
+    private final AtomicLongArray latencyBuckets = new AtomicLongArray(NUM_BUCKETS);
+    private final AtomicLongArray batchSizeBuckets = new AtomicLongArray(NUM_BUCKETS);
+
+    /**
+     * Returns the number of points that the server has found the closest point to, including those
+     * in batches sent by clients.
+     */
+    public long getNumQueries() {
+        return numQueries.sum();
+    }
+
+    /**
+     * Returns the number of batches that the server has answered, including those sent by clients.
+     */
+    public long getNumBatches() {
+        return numBatches.sum();
+    }
+
+    /**
+     * Returns the average number of queries in a batch, or 0 if there are no batches yet.
+     */
+    public double getMeanBatchSize() {
+        long numBatches = getNumBatches();
+        return numBatches == 0 ? 0 : (double) getNumQueries() / numBatches;
+    }
+
+    /**
+     * Returns an upper bound on the given quantile of the number of queries in a batch.
+     *
+     * @param quantile
+     *            the quantile, between 0 and 1
+     * @return the upper bound, or 0 if there are no batches yet
+     * @throws IllegalArgumentException
+     *             if the quantile is not between 0 and 1
+     */
+    public long getBatchSizeQuantile(double quantile) throws IllegalArgumentException {
+        return getQuantile(batchSizeBuckets, quantile);
+    }
+
+    /**
+     * Returns an upper bound on the given quantile of the time in nanoseconds between the server
+     * reading a query and finding its closest point, including the time that it waited for other
+     * queries to batch with.
+     *
+     * @param quantile
+     *            the quantile, between 0 and 1
+     * @return the upper bound, or 0 if there are no queries yet
+     * @throws IllegalArgumentException
+     *             if the quantile is not between 0 and 1
+     */
+    public long getLatencyQuantileNanos(double quantile) throws IllegalArgumentException {
+        return getQuantile(latencyBuckets, quantile);
+    }
+
+    void recordBatch(int batchSize) {
+        numQueries.add(batchSize);
+        numBatches.increment();
+        batchSizeBuckets.incrementAndGet(bucket(batchSize));
+    }
+
+    void recordLatency(long latencyNanos, int numQueries) {
+        latencyBuckets.addAndGet(bucket(latencyNanos), numQueries);
+    }
+
+    /**
+     * Returns the bucket of the given non-negative value, which holds the values up to
+     * 2<sup>bucket</sup> - 1.
+     */
+    private static int bucket(long value) {
+        return Math.min(NUM_BUCKETS - Long.numberOfLeadingZeros(Math.max(value, 0)), NUM_BUCKETS - 1);
+    }
+
+    private static long getQuantile(AtomicLongArray buckets, double quantile) {
+        if (!(quantile >= 0 && quantile <= 1))
+            throw new IllegalArgumentException("Quantile must be between 0 and 1.");
+        long[] counts = new long[NUM_BUCKETS];
+        long total = 0;
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        if (total == 0)
+            return 0;
+        long rank = Math.max((long) Math.ceil(quantile * total), 1);
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            rank -= counts[i];
+            if (rank <= 0)
+                return i == NUM_BUCKETS - 1 ? Long.MAX_VALUE : (1L << i) - 1;
+        }
+        return Long.MAX_VALUE;
+    }
+}
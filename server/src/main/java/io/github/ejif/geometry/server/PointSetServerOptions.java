@@ -0,0 +1,39 @@
+package io.github.ejif.geometry.server;
+
+import java.util.concurrent.TimeUnit;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Controls how a {@link PointSetServer} listens for connections and coalesces single-point
+ * queries into batches.
+ */
+@Builder(toBuilder = true)
+@Data
+public final class PointSetServerOptions {
+
+    public static final PointSetServerOptions DEFAULT = PointSetServerOptions.builder().build();
+
+    /**
+     * The port to listen on, on the loopback address. With the default of 0, the server picks a
+     * free port (see {@link PointSetServer#getPort}).
+     */
+    @Builder.Default
+    private final int port = 0;
+
+    /**
+     * The largest number of single-point queries to a point set that are answered together.
+     */
+    @Builder.Default
+    private final int maxBatchSize = 256;
+
+    /**
+     * The longest time, in nanoseconds, that a single-point query waits for other queries to batch
+     * with. A batch is answered as soon as it is full, so this only delays queries when there are
+     * fewer concurrent queries than the maximum batch size, and a query does not wait at all if
+     * neither its batch nor the one before it has any other queries.
+     */
+    @Builder.Default
+    private final long maxBatchWaitNanos = TimeUnit.MICROSECONDS.toNanos(100);
+}
@@ -0,0 +1,34 @@
+package io.github.ejif.geometry.server;
+
+/**
+ * The binary protocol between {@link PointSetClient} and {@link PointSetServer}, in the byte order
+ * of {@link java.io.DataOutputStream}. A client sends requests, each answered in order by a response
+ * starting with a status byte; it need not wait for a response before sending the next request.
+ *
+ * <ul>
+ * <li>{@link #FIND_CLOSEST_INDEX}: the point set name (as written by
+ * {@link java.io.DataOutputStream#writeUTF}), then x and y as doubles. If the status is
+ * {@link #OK}, the response continues with the index of the closest point as an int.
+ * <li>{@link #FIND_CLOSEST_INDICES}: the point set name, the number of points n as an int, then x
+ * and y of each point as doubles. If the status is {@link #OK}, the response continues with the n
+ * indices of the closest points as ints.
+ * </ul>
+ *
+ * An index is -1 if the point set contains no points. If the point set fails to answer a request,
+ * the status is {@link #FAILED} and the response ends there. The server closes the connection after
+ * a request that it cannot read.
+ */
+final class Protocol {
+
+    static final int FIND_CLOSEST_INDEX = 1;
+    static final int FIND_CLOSEST_INDICES = 2;
+
+    static final int OK = 0;
+    static final int UNKNOWN_POINT_SET = 1;
+    static final int FAILED = 2;
+
+    static final int MAX_BATCH_SIZE = 1 << 20;
+
+    private Protocol() {
+    }
+}
@@ -0,0 +1,171 @@
+package io.github.ejif.geometry.server;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.ImmutableList;
+
+import io.github.ejif.geometry.algorithm.PointSet;
+
+/**
+ * Answers single-point closest point queries to a point set from many threads, by collecting them
+ * into batches for {@link PointSet#findClosestIndices} on a thread of its own.
+ *
+ * A batch starts with the oldest waiting query, and is answered once it has the maximum number of
+ * queries, or the first query has waited for the maximum time. If neither the batch nor the one
+ * before it has more than one query, the batch is answered right away instead, since a single
+ * client waits for each answer before it sends its next query, so waiting would only delay it.
+ */
+final class QueryBatcher implements Closeable {
+
+    private final PointSet pointSet;
+    private final int maxBatchSize;
+    private final long maxBatchWaitNanos;
+    private final PointSetServerMetrics metrics;
+    private final BlockingQueue<Query> queue = new LinkedBlockingQueue<>();
+    private final Thread thread;
+
+    private volatile boolean closed;
+
+    QueryBatcher(String name, PointSet pointSet, int maxBatchSize, long maxBatchWaitNanos, PointSetServerMetrics metrics) {
+        this.pointSet = pointSet;
+        this.maxBatchSize = maxBatchSize;
+        this.maxBatchWaitNanos = maxBatchWaitNanos;
+        this.metrics = metrics;
+        this.thread = new Thread(this::run, "point-set-batcher-" + name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Finds the index of the closest point to the given point, waiting for the batch that it is
+     * answered in.
+     *
+     * @return the index of the closest point, or -1 if the point set contains no points
+     * @throws ExecutionException
+     *             if the point set failed to answer the batch, with the failure as its cause
+     */
+    int findClosestIndex(double x, double y) throws InterruptedException, ExecutionException {
+        Query query = new Query(x, y, System.nanoTime());
+        queue.add(query);
+        // After the batcher is closed, its thread stops once the queue is empty, so a query that is
+        // still in the queue would never be answered.
+        if (closed && queue.remove(query))
+            answer(ImmutableList.of(query));
+        else
+            query.answered.await();
+        if (query.failure != null)
+            throw new ExecutionException(query.failure);
+        return query.index;
+    }
+
+    /**
+     * Stops the thread of this batcher once it has answered the waiting queries. Queries after this
+     * are answered on their own thread.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        thread.interrupt();
+    }
+
+    private void run() {
+        List<Query> batch = new ArrayList<>(maxBatchSize);
+        int previousBatchSize = 0;
+        while (true) {
+            Query first;
+            try {
+                first = closed ? queue.poll() : queue.take();
+            } catch (InterruptedException e) {
+                continue;
+            }
+            if (first == null)
+                return;
+            batch.add(first);
+            queue.drainTo(batch, maxBatchSize - batch.size());
+            long deadline = first.startNanos + (batch.size() > 1 || previousBatchSize > 1 ? maxBatchWaitNanos : 0);
+            while (batch.size() < maxBatchSize && !closed) {
+                long remainingNanos = deadline - System.nanoTime();
+                if (remainingNanos <= 0)
+                    break;
+                Query query;
+                try {
+                    query = queue.poll(remainingNanos, TimeUnit.NANOSECONDS);
+                } catch (InterruptedException e) {
+                    break;
+                }
+                if (query == null)
+                    break;
+                batch.add(query);
+                queue.drainTo(batch, maxBatchSize - batch.size());
+            }
+            answer(batch);
+            previousBatchSize = batch.size();
+            batch.clear();
+        }
+    }
+
+    /**
+     * Answers the given queries, or fails all of them if the point set fails to answer them (such
+     * as when its index cannot be built), so that no query waits forever and the thread lives on
+     * to answer later batches.
+     */
+    private void answer(List<Query> batch) {
+        int[] indices = new int[batch.size()];
+        Throwable failure = null;
+        try {
+            findClosestIndices(batch, indices);
+        } catch (RuntimeException | Error e) {
+            failure = e;
+        }
+        long endNanos = System.nanoTime();
+        if (failure == null)
+            metrics.recordBatch(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            Query query = batch.get(i);
+            if (failure == null)
+                metrics.recordLatency(endNanos - query.startNanos, 1);
+            query.index = indices[i];
+            query.failure = failure;
+            query.answered.countDown();
+        }
+    }
+
+    private void findClosestIndices(List<Query> batch, int[] indices) {
+        if (pointSet.getPoints().isEmpty()) {
+            Arrays.fill(indices, -1);
+            return;
+        }
+        double[] xs = new double[batch.size()];
+        double[] ys = new double[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            xs[i] = batch.get(i).x;
+            ys[i] = batch.get(i).y;
+        }
+        pointSet.findClosestIndices(xs, ys, indices);
+    }
+
+    private static final class Query {
+
+        final double x;
+        final double y;
+        final long startNanos;
+        final CountDownLatch answered = new CountDownLatch(1);
+        // Written before the latch is counted down, so they are visible to the waiting thread.
+        int index;
+        Throwable failure;
+
+        Query(double x, double y, long startNanos) {
+            this.x = x;
+            this.y = y;
+            this.startNanos = startNanos;
+        }
+    }
+}
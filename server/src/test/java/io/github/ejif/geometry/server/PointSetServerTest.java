@@ -0,0 +1,192 @@
+package io.github.ejif.geometry.server;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+import io.github.ejif.geometry.Point;
+import io.github.ejif.geometry.algorithm.PointSet;
+
+public final class PointSetServerTest {
+
+    @Test
+    public void testFindClosestIndex_matchesPointSet() throws IOException {
+        Random random = rng();
+        PointSet cities = new PointSet(randomPoints(1000, random));
+        PointSet stations = new PointSet(randomPoints(50, random));
+        try (PointSetServer server = new PointSetServer();
+                PointSetClient client = new PointSetClient(server.getPort())) {
+            server.addPointSet("cities", cities);
+            server.addPointSet("stations", stations);
+            for (Point query : randomPoints(200, random)) {
+                assertThat(client.findClosestIndex("cities", query.x, query.y)).isEqualTo(cities.findClosestIndex(query.x, query.y));
+                assertThat(client.findClosestIndex("stations", query.x, query.y)).isEqualTo(stations.findClosestIndex(query.x, query.y));
+            }
+            assertThat(server.getMetrics().getNumQueries()).isEqualTo(400);
+        }
+    }
+
+    @Test
+    public void testFindClosestIndex_batchesConcurrentQueries() throws Exception {
+        Random random = rng();
+        PointSet pointSet = new PointSet(randomPoints(10000, random));
+        int numClients = 16;
+        int numQueries = 200;
+        PointSetServerOptions options = PointSetServerOptions.builder()
+            .maxBatchSize(8)
+            .maxBatchWaitNanos(TimeUnit.MILLISECONDS.toNanos(5))
+            .build();
+        ExecutorService executor = Executors.newFixedThreadPool(numClients);
+        try (PointSetServer server = new PointSetServer(options)) {
+            server.addPointSet("points", pointSet);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < numClients; i++) {
+                List<Point> queries = randomPoints(numQueries, random);
+                futures.add(executor.submit(() -> {
+                    try (PointSetClient client = new PointSetClient(server.getPort())) {
+                        for (Point query : queries)
+                            assertThat(client.findClosestIndex("points", query.x, query.y))
+                                .isEqualTo(pointSet.findClosestIndex(query.x, query.y));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures)
+                future.get();
+
+            PointSetServerMetrics metrics = server.getMetrics();
+            assertThat(metrics.getNumQueries()).isEqualTo(numClients * numQueries);
+            assertThat(metrics.getNumBatches()).isLessThan(numClients * numQueries);
+            assertThat(metrics.getMeanBatchSize()).isGreaterThan(1);
+            assertThat(metrics.getBatchSizeQuantile(1)).isBetween(2L, 15L);
+            assertThat(metrics.getLatencyQuantileNanos(0.5)).isPositive();
+            assertThat(metrics.getLatencyQuantileNanos(0.5)).isLessThanOrEqualTo(metrics.getLatencyQuantileNanos(1));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test(timeout = 5000) // milliseconds
+    public void testFindClosestIndex_singleClientDoesNotWaitForBatches() throws IOException {
+        Random random = rng();
+        PointSet pointSet = new PointSet(randomPoints(1000, random));
+        PointSetServerOptions options = PointSetServerOptions.builder()
+            .maxBatchWaitNanos(TimeUnit.SECONDS.toNanos(1))
+            .build();
+        try (PointSetServer server = new PointSetServer(options);
+                PointSetClient client = new PointSetClient(server.getPort())) {
+            server.addPointSet("points", pointSet);
+            for (Point query : randomPoints(100, random))
+                assertThat(client.findClosestIndex("points", query.x, query.y)).isEqualTo(pointSet.findClosestIndex(query.x, query.y));
+        }
+    }
+
+    @Test
+    public void testFindClosestIndices_matchesPointSet() throws IOException {
+        Random random = rng();
+        PointSet pointSet = new PointSet(randomPoints(1000, random));
+        List<Point> queries = randomPoints(500, random);
+        double[] xs = queries.stream().mapToDouble(p -> p.x).toArray();
+        double[] ys = queries.stream().mapToDouble(p -> p.y).toArray();
+        int[] expectedIndices = new int[queries.size()];
+        pointSet.findClosestIndices(xs, ys, expectedIndices);
+        try (PointSetServer server = new PointSetServer();
+                PointSetClient client = new PointSetClient(server.getPort())) {
+            server.addPointSet("points", pointSet);
+            int[] indices = new int[queries.size()];
+            client.findClosestIndices("points", xs, ys, indices);
+            assertThat(indices).isEqualTo(expectedIndices);
+            assertThat(server.getMetrics().getNumBatches()).isEqualTo(1);
+            assertThat(server.getMetrics().getBatchSizeQuantile(0.5)).isEqualTo(511);
+        }
+    }
+
+    @Test
+    public void testFindClosestIndex_emptyPointSet() throws IOException {
+        try (PointSetServer server = new PointSetServer();
+                PointSetClient client = new PointSetClient(server.getPort())) {
+            server.addPointSet("empty", new PointSet(ImmutableList.of()));
+            assertThat(client.findClosestIndex("empty", 0, 0)).isEqualTo(-1);
+            int[] indices = new int[2];
+            client.findClosestIndices("empty", new double[2], new double[2], indices);
+            assertThat(indices).containsExactly(-1, -1);
+        }
+    }
+
+    @Test
+    public void testFindClosestIndex_failsForUnknownPointSet() throws IOException {
+        try (PointSetServer server = new PointSetServer();
+                PointSetClient client = new PointSetClient(server.getPort())) {
+            server.addPointSet("points", new PointSet(ImmutableList.of(new Point(0, 0), new Point(10, 0))));
+            assertThatThrownBy(() -> client.findClosestIndex("other", 0, 0)).isInstanceOf(IllegalArgumentException.class);
+
+            // The connection can still be used.
+            assertThat(client.findClosestIndex("points", 8, 1)).isEqualTo(1);
+            assertThat(server.removePointSet("points")).isTrue();
+            assertThat(server.removePointSet("points")).isFalse();
+            assertThatThrownBy(() -> client.findClosestIndex("points", 8, 1)).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    public void testFindClosestIndex_failsIfPointSetFails() throws IOException {
+        // The Voronoi diagram of these points cannot be built, so every query that needs the index
+        // fails.
+        PointSet failing = new PointSet(ImmutableList.of(new Point(0, 0), new Point(1e308, 1e308), new Point(-1e308, 1e308), new Point(1, 1)));
+        try (PointSetServer server = new PointSetServer();
+                PointSetClient client = new PointSetClient(server.getPort())) {
+            server.addPointSet("failing", failing);
+            server.addPointSet("points", new PointSet(ImmutableList.of(new Point(0, 0), new Point(10, 0))));
+            for (int i = 0; i < 3; i++) {
+                assertThatThrownBy(() -> client.findClosestIndex("failing", 0, 0)).isInstanceOf(IOException.class);
+                assertThatThrownBy(() -> client.findClosestIndices("failing", new double[2], new double[2], new int[2]))
+                    .isInstanceOf(IOException.class);
+            }
+
+            // The connection can still be used.
+            assertThat(client.findClosestIndex("points", 8, 1)).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void testAddPointSet_replacesPointSet() throws IOException {
+        try (PointSetServer server = new PointSetServer();
+                PointSetClient client = new PointSetClient(server.getPort())) {
+            server.addPointSet("points", new PointSet(ImmutableList.of(new Point(0, 0), new Point(10, 0))));
+            assertThat(client.findClosestIndex("points", 8, 1)).isEqualTo(1);
+            server.addPointSet("points", new PointSet(ImmutableList.of(new Point(10, 0), new Point(0, 0))));
+            assertThat(client.findClosestIndex("points", 8, 1)).isEqualTo(0);
+        }
+    }
+
+    @Test
+    public void testCreate_failsForInvalidOptions() {
+        assertThatThrownBy(() -> new PointSetServer(PointSetServerOptions.builder().maxBatchSize(0).build()))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new PointSetServer(PointSetServerOptions.builder().maxBatchWaitNanos(-1).build()))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static Random rng() {
+        return new Random(2915);
+    }
+
+    private static List<Point> randomPoints(int numPoints, Random random) {
+        List<Point> points = new ArrayList<>();
+        for (int i = 0; i < numPoints; i++)
+            points.add(new Point(random.nextDouble() * 1000, random.nextDouble() * 1000));
+        return points;
+    }
+}